@@ -0,0 +1,23 @@
+package benchmarks;
+
+import static utils.Utils.*;
+
+import problems.qbf.QBFInstance;
+import problems.qbf.solvers.BinaryTS_QBFPT;
+
+/**
+ * A BinaryTS_QBFPT which exposes single steps of the search.
+ */
+class BenchmarkBinaryTS extends BinaryTS_QBFPT {
+
+	BenchmarkBinaryTS(Integer tenure, Integer method, QBFInstance instance) {
+		super(BenchmarkSupport.silentLogger(), tenure, Integer.MAX_VALUE, method, BEST_IMPROVEMENT, instance, 500, 18);
+		setVerbose(false);
+	}
+
+	void step() {
+		currentIteration++;
+		iterate();
+	}
+
+}
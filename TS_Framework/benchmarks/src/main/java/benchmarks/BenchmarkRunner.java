@@ -0,0 +1,24 @@
+package benchmarks;
+
+import java.util.Arrays;
+
+/**
+ * Runs the JMH benchmarks with the GC profiler, which reports the allocation
+ * rate and the bytes allocated per operation. All the usual JMH command line
+ * options are accepted, e.g., a regular expression selecting the benchmarks
+ * or -p instance=qbf400 to restrict the instances.
+ *
+ * Usage, from the TS_Framework directory:
+ * java -jar benchmarks/target/benchmarks.jar [JMH options]
+ */
+public class BenchmarkRunner {
+
+	public static void main(String[] args) throws Exception {
+
+		String[] jmhArgs = Arrays.copyOf(new String[] { "-prof", "gc" }, args.length + 2);
+		System.arraycopy(args, 0, jmhArgs, 2, args.length);
+		org.openjdk.jmh.Main.main(jmhArgs);
+
+	}
+
+}
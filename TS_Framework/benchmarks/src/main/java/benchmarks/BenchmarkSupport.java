@@ -0,0 +1,58 @@
+package benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Random;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import problems.qbf.QBFInstance;
+import solutions.BinarySolution;
+import solutions.Solution;
+
+/**
+ * Helpers shared by the benchmarks. The instances are read from the directory
+ * given by the system property ts.instances, which defaults to the instances
+ * directory of the working directory.
+ */
+final class BenchmarkSupport {
+
+	/**
+	 * the instances covered by the benchmarks.
+	 */
+	static final String[] INSTANCES = { "qbf020", "qbf040", "qbf060", "qbf080", "qbf100", "qbf200", "qbf400" };
+
+	private BenchmarkSupport() {
+	}
+
+	static String instanceFile(String name) {
+		String dir = System.getProperty("ts.instances", "instances");
+		return dir + File.separator + name;
+	}
+
+	static QBFInstance readInstance(String name) throws IOException {
+		return QBFInstance.readInput(instanceFile(name));
+	}
+
+	/**
+	 * Builds a random solution in which each variable is set with probability
+	 * one half.
+	 */
+	static Solution<Integer> randomSolution(int size, long seed) {
+		Random rng = new Random(seed);
+		Solution<Integer> sol = new BinarySolution(size);
+		for (int i = 0; i < size; i++) {
+			if (rng.nextBoolean())
+				sol.add(i);
+		}
+		return sol;
+	}
+
+	static Logger silentLogger() {
+		Logger logger = Logger.getLogger("benchmarks");
+		logger.setLevel(Level.OFF);
+		logger.setUseParentHandlers(false);
+		return logger;
+	}
+
+}
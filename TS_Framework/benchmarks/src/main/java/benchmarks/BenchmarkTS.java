@@ -0,0 +1,47 @@
+package benchmarks;
+
+import static utils.Utils.*;
+
+import problems.qbf.QBFInstance;
+import problems.qbf.solvers.TS_QBFPT;
+
+/**
+ * A TS_QBFPT which exposes single steps of the search.
+ */
+class BenchmarkTS extends TS_QBFPT {
+
+	BenchmarkTS(Integer tenure, Integer method, QBFInstance instance) {
+		super(BenchmarkSupport.silentLogger(), tenure, Integer.MAX_VALUE, method, BEST_IMPROVEMENT, instance, 500, 18);
+		setVerbose(false);
+	}
+
+	void step() {
+		currentIteration++;
+		iterate();
+	}
+
+	/**
+	 * Inserts all the members of some prohibited triples, so that the
+	 * incumbent solution needs to be repaired.
+	 */
+	void violate(int triples, int first) {
+		for (int k = 0; k < triples; k++) {
+			int t = (first + k) % listOfProibitedTuples.size();
+			insert(listOfProibitedTuples.get(t).getX0());
+			insert(listOfProibitedTuples.get(t).getX1());
+			insert(listOfProibitedTuples.get(t).getX2());
+		}
+	}
+
+	private void insert(Integer elem) {
+		if (elem < ObjFunction.getDomainSize() && !incumbentSol.contains(elem)) {
+			insertIntoSolution(elem);
+			CL.remove(elem);
+		}
+	}
+
+	void repair() {
+		repairSolution();
+	}
+
+}
@@ -0,0 +1,72 @@
+package benchmarks;
+
+import static utils.Utils.*;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import metaheuristics.tabusearch.BinaryTS;
+
+/**
+ * Benchmarks of the hot paths of the primitive {@link BinaryTS} engine, to be
+ * compared with {@link TabuSearchBenchmark}. Run with -prof gc, the iteration
+ * should show no allocation once the best solution stops improving.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BinaryTabuSearchBenchmark {
+
+	@Param({ "qbf020", "qbf040", "qbf060", "qbf080", "qbf100", "qbf200", "qbf400" })
+	public String instance;
+
+	@Param({ "DEFAULT", "INTENSIFICATION", "OSCILATION" })
+	public String method;
+
+	@Param({ "18" })
+	public int tenure;
+
+	@Param({ "0" })
+	public int candidateListSize;
+
+	@Param({ "0" })
+	public int visitedMemory;
+
+	private BenchmarkBinaryTS solver;
+
+	@Setup(Level.Trial)
+	public void setup() throws IOException {
+		int _method = method.equals("INTENSIFICATION") ? INTENSIFICATION_METHOD : method.equals("OSCILATION") ? OSCILATION_METHOD : DEFAULT_METHOD;
+		solver = new BenchmarkBinaryTS(tenure, _method, BenchmarkSupport.readInstance(instance));
+		solver.setCandidateListSize(candidateListSize);
+		solver.setVisitedMemory(visitedMemory);
+		solver.initialize();
+	}
+
+	@Benchmark
+	public void iteration() {
+		solver.step();
+	}
+
+	@Benchmark
+	public double constructiveHeuristic() {
+		solver.constructiveHeuristic();
+		return solver.getIncumbentCost();
+	}
+
+}
@@ -0,0 +1,90 @@
+package benchmarks;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import problems.qbf.CoefficientMatrix;
+import problems.qbf.DenseCouplingMatrix;
+import problems.qbf.SparseCouplingMatrix;
+import problems.qbf.vector.VectorCouplingMatrix;
+import solutions.Solution;
+
+/**
+ * Benchmarks of the QBF evaluation kernels for each layout of the
+ * coefficients: the packed upper triangle, the dense layout with scalar
+ * kernels, the dense layout with Vector API kernels and the sparse layout,
+ * which is at its worst with these instances, about 95% dense. The kernels are the
+ * full evaluation x'.A.x, the contribution of a variable (a row and a column
+ * dot product) and the update of the contributions after a move.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = { "--add-modules", "jdk.incubator.vector" })
+public class CouplingKernelBenchmark {
+
+	@Param({ "qbf020", "qbf040", "qbf060", "qbf080", "qbf100", "qbf200", "qbf400" })
+	public String instance;
+
+	@Param({ "packed", "scalar", "vector", "sparse" })
+	public String backend;
+
+	private CoefficientMatrix A;
+
+	private double[] x, contributions;
+
+	private int k;
+
+	@Setup
+	public void setup() throws IOException {
+		CoefficientMatrix packed = BenchmarkSupport.readInstance(instance).getMatrix();
+		if (backend.equals("vector"))
+			A = new VectorCouplingMatrix(packed);
+		else if (backend.equals("scalar"))
+			A = new DenseCouplingMatrix(packed);
+		else if (backend.equals("sparse"))
+			A = SparseCouplingMatrix.fromMatrix(packed);
+		else
+			A = packed;
+		Solution<Integer> sol = BenchmarkSupport.randomSolution(A.getSize(), 0);
+		x = new double[A.getSize()];
+		for (Integer i : sol)
+			x[i] = 1.0;
+		contributions = new double[A.getSize()];
+	}
+
+	@Benchmark
+	public double quadraticForm() {
+		return A.quadraticForm(x);
+	}
+
+	@Benchmark
+	public double dotCoupling() {
+		if (++k == x.length)
+			k = 0;
+		return A.dotCoupling(k, x);
+	}
+
+	@Benchmark
+	public double[] addCoupling() {
+		if (++k == x.length)
+			k = 0;
+		A.addCoupling(k, contributions, (k & 1) == 0 ? 1.0 : -1.0);
+		return contributions;
+	}
+
+}
@@ -0,0 +1,75 @@
+package benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import problems.qbf.QBFBinaryFormat;
+import problems.qbf.QBFInstance;
+import problems.qbf.QBFSparseFormat;
+import problems.qbf.SparseCouplingMatrix;
+
+/**
+ * Benchmarks of loading an instance from the text format, from the binary
+ * format of {@link QBFBinaryFormat} and from the sparse binary format of
+ * {@link QBFSparseFormat}, which are converted from the text file in a
+ * temporary file.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InstanceLoadingBenchmark {
+
+	@Param({ "qbf020", "qbf040", "qbf060", "qbf080", "qbf100", "qbf200", "qbf400" })
+	public String instance;
+
+	@Param({ "text", "binary", "sparse" })
+	public String format;
+
+	private String filename;
+
+	private File binaryFile;
+
+	@Setup(Level.Trial)
+	public void setup() throws IOException {
+		filename = BenchmarkSupport.instanceFile(instance);
+		if (format.equals("binary")) {
+			binaryFile = File.createTempFile(instance, QBFBinaryFormat.EXTENSION);
+			QBFBinaryFormat.write(QBFInstance.readTextInput(filename).getMatrix(), binaryFile.getPath());
+			filename = binaryFile.getPath();
+		} else if (format.equals("sparse")) {
+			binaryFile = File.createTempFile(instance, QBFSparseFormat.EXTENSION);
+			QBFSparseFormat.write((SparseCouplingMatrix) QBFInstance.readTextInput(filename).toSparse().getMatrix(), binaryFile.getPath());
+			filename = binaryFile.getPath();
+		}
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		if (binaryFile != null)
+			binaryFile.delete();
+	}
+
+	@Benchmark
+	public QBFInstance readInput() throws IOException {
+		return QBFInstance.readInput(filename);
+	}
+
+}
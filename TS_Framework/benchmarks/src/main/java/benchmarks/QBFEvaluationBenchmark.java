@@ -0,0 +1,119 @@
+package benchmarks;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import problems.qbf.QBF_Inverse;
+import solutions.Solution;
+
+/**
+ * Benchmarks of the QBF evaluator: the full evaluation x'.A.x and the
+ * insertion and exchange cost evaluations, with and without the incremental
+ * mode, over a random solution. The scans of all the exchanges compare one
+ * evaluation per exchange with the batch evaluation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QBFEvaluationBenchmark {
+
+	@Param({ "qbf020", "qbf040", "qbf060", "qbf080", "qbf100", "qbf200", "qbf400" })
+	public String instance;
+
+	@Param({ "true", "false" })
+	public boolean incremental;
+
+	private QBF_Inverse qbf;
+
+	private Solution<Integer> sol;
+
+	private Integer[] candsIn, candsOut;
+
+	private List<Integer> listIn, listOut;
+
+	private double[] deltas;
+
+	private int in, out;
+
+	@Setup
+	public void setup() throws IOException {
+		qbf = new QBF_Inverse(BenchmarkSupport.readInstance(instance));
+		sol = BenchmarkSupport.randomSolution(qbf.getDomainSize(), 0);
+		List<Integer> _candsIn = new ArrayList<Integer>();
+		for (int i = 0; i < qbf.getDomainSize(); i++) {
+			if (!sol.contains(i))
+				_candsIn.add(i);
+		}
+		candsIn = _candsIn.toArray(new Integer[0]);
+		candsOut = sol.toArray(new Integer[0]);
+		listIn = _candsIn;
+		listOut = new ArrayList<Integer>(sol);
+		deltas = new double[candsIn.length * candsOut.length];
+		if (incremental)
+			qbf.track(sol);
+	}
+
+	@Benchmark
+	public Double evaluate() {
+		return qbf.evaluate(sol);
+	}
+
+	@Benchmark
+	public Double evaluateInsertionCost() {
+		if (++in == candsIn.length)
+			in = 0;
+		return qbf.evaluateInsertionCost(candsIn[in], sol);
+	}
+
+	@Benchmark
+	public Double evaluateExchangeCost() {
+		if (++in == candsIn.length) {
+			in = 0;
+			if (++out == candsOut.length)
+				out = 0;
+		}
+		return qbf.evaluateExchangeCost(candsIn[in], candsOut[out], sol);
+	}
+
+	@Benchmark
+	public double exchangeScan() {
+		double min = Double.POSITIVE_INFINITY;
+		for (Integer candIn : candsIn) {
+			for (Integer candOut : candsOut) {
+				Double deltaCost = qbf.evaluateExchangeCost(candIn, candOut, sol);
+				if (deltaCost < min)
+					min = deltaCost;
+			}
+		}
+		return min;
+	}
+
+	@Benchmark
+	public double batchExchangeScan() {
+		double min = Double.POSITIVE_INFINITY;
+		qbf.evaluateExchangeCosts(listIn, listOut, sol, deltas);
+		for (int k = 0; k < deltas.length; k++) {
+			if (deltas[k] < min)
+				min = deltas[k];
+		}
+		return min;
+	}
+
+}
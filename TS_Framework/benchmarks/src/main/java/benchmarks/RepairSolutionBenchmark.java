@@ -0,0 +1,66 @@
+package benchmarks;
+
+import static utils.Utils.*;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark of {@link metaheuristics.tabusearch.AbstractTS#repairSolution()}.
+ * Before each invocation the members of a few prohibited triples are inserted
+ * into the incumbent solution, which is then repaired.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RepairSolutionBenchmark {
+
+	/**
+	 * the number of prohibited triples violated before each repair.
+	 */
+	private static final int VIOLATED_TRIPLES = 4;
+
+	@Param({ "qbf020", "qbf040", "qbf060", "qbf080", "qbf100", "qbf200", "qbf400" })
+	public String instance;
+
+	@Param({ "DEFAULT", "INTENSIFICATION", "OSCILATION" })
+	public String method;
+
+	private BenchmarkTS solver;
+
+	private int nextTriple;
+
+	@Setup(Level.Trial)
+	public void setup() throws IOException {
+		int _method = method.equals("INTENSIFICATION") ? INTENSIFICATION_METHOD : method.equals("OSCILATION") ? OSCILATION_METHOD : DEFAULT_METHOD;
+		solver = new BenchmarkTS(18, _method, BenchmarkSupport.readInstance(instance));
+		solver.initialize();
+	}
+
+	@Setup(Level.Invocation)
+	public void violate() {
+		nextTriple += VIOLATED_TRIPLES;
+		solver.violate(VIOLATED_TRIPLES, nextTriple);
+	}
+
+	@Benchmark
+	public void repairSolution() {
+		solver.repair();
+	}
+
+}
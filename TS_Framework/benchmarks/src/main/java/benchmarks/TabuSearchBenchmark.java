@@ -0,0 +1,72 @@
+package benchmarks;
+
+import static utils.Utils.*;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import problems.qbf.solvers.TS_QBFPT;
+import solutions.Solution;
+
+/**
+ * Benchmarks of the TS hot paths for each search method: one iteration of the
+ * main loop (essentially {@link TS_QBFPT#neighborhoodMove()}) and the
+ * constructive heuristic.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TabuSearchBenchmark {
+
+	@Param({ "qbf020", "qbf040", "qbf060", "qbf080", "qbf100", "qbf200", "qbf400" })
+	public String instance;
+
+	@Param({ "DEFAULT", "INTENSIFICATION", "OSCILATION" })
+	public String method;
+
+	@Param({ "18" })
+	public int tenure;
+
+	@Param({ "0" })
+	public int candidateListSize;
+
+	@Param({ "0" })
+	public int visitedMemory;
+
+	private BenchmarkTS solver;
+
+	@Setup(Level.Trial)
+	public void setup() throws IOException {
+		int _method = method.equals("INTENSIFICATION") ? INTENSIFICATION_METHOD : method.equals("OSCILATION") ? OSCILATION_METHOD : DEFAULT_METHOD;
+		solver = new BenchmarkTS(tenure, _method, BenchmarkSupport.readInstance(instance));
+		solver.setCandidateListSize(candidateListSize);
+		solver.setVisitedMemory(visitedMemory);
+		solver.initialize();
+	}
+
+	@Benchmark
+	public void iteration() {
+		solver.step();
+	}
+
+	@Benchmark
+	public Solution<Integer> constructiveHeuristic() {
+		return solver.constructiveHeuristic();
+	}
+
+}
@@ -5,18 +5,18 @@ package metaheuristics.tabusearch;
 import static utils.Utils.*;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Random;
 import java.util.logging.Logger;
 
 import problems.Evaluator;
+import problems.IncrementalEvaluator;
 import solutions.Solution;
+import utils.BoundedLongHashSet;
 import utils.ProibitedTuple;
-import utils.Recency;
-import utils.RecencySorter;
+import utils.ProibitedTupleIndex;
 import utils.Utils;
+import utils.ZobristHash;
 
 /**
  * Abstract class for metaheuristic Tabu Search. It consider a minimization problem.
@@ -25,18 +25,35 @@ import utils.Utils;
  * @param <E>
  *            Generic type of the candidate to enter the solution.
  */
-public abstract class AbstractTS<E> {
+public abstract class AbstractTS<E> implements SearchProgress {
+
+	/**
+	 * the default seed of the random number generator.
+	 */
+	public static final long DEFAULT_SEED = 0;
+
+	/**
+	 * the relative difference between the tracked and the evaluated cost of
+	 * the incumbent solution above which a cost drift is reported.
+	 */
+	public static final double COST_DRIFT_TOLERANCE = 1e-9;
 
 	/**
 	 * flag that indicates whether the code should print more information on
 	 * screen
 	 */
-	public static boolean verbose = true;
+	protected Boolean verbose = true;
 
 	/**
-	 * a random number generator
+	 * the seed of the random number generator of this solver.
 	 */
-	static Random rng = new Random(0);
+	protected long seed = DEFAULT_SEED;
+
+	/**
+	 * a random number generator, owned by this solver so that concurrent
+	 * solvers do not share it.
+	 */
+	protected Random rng = new Random(DEFAULT_SEED);
 
 	/**
 	 * the objective function being optimized
@@ -80,7 +97,16 @@ public abstract class AbstractTS<E> {
 	
 	protected Integer number_of_iterations_infeasible;
 	
-	protected List<Recency> listOfRecency = new LinkedList<>();
+	/**
+	 * the frequency memory of the intensification method, which remembers
+	 * how long each element has stayed in the incumbent solution.
+	 */
+	protected FrequencyMemory frequencyMemory;
+	
+	/**
+	 * the buffer receiving the most frequent elements at an intensification.
+	 */
+	private int[] mostFrequent;
 	/**
 	 * the tabu tenure.
 	 */
@@ -102,12 +128,174 @@ public abstract class AbstractTS<E> {
 	protected ArrayDeque<E> TL;
 	
 	/**
-	 * the list of penalties for each element when in a infeasible solution.
+	 * the array based tabu memory, which replaces the Tabu List {@link #TL}
+	 * when it is not null.
+	 */
+	protected TabuMemory tabuMemory;
+	
+	/**
+	 * the current iteration of the TS main loop.
 	 */
-	protected ArrayList<Double> violationPenalties;
+	protected int currentIteration;
 	
 	protected List<ProibitedTuple> listOfProibitedTuples;
 	
+	/**
+	 * the index of the prohibited triples, kept synchronized with the
+	 * incumbent solution, or null if the problem has no prohibited triples,
+	 * see {@link #setProibitedTuples(List)}.
+	 */
+	protected ProibitedTupleIndex proibitedTupleIndex;
+	
+	/**
+	 * the penalties of the oscillation method, kept synchronized with the
+	 * incumbent solution, or null if the problem has no prohibited triples.
+	 */
+	protected StrategicOscillation oscillation;
+	
+	/**
+	 * the infeasibility budget of the oscillation method.
+	 */
+	private int infeasibilityBudget = 0;
+	
+	/**
+	 * the Zobrist hash of the incumbent solution, kept synchronized with it
+	 * while the memory of the visited solutions is on, or null otherwise.
+	 */
+	protected ZobristHash solutionHash;
+	
+	/**
+	 * the hashes of the solutions visited by the search, or null if they are
+	 * not remembered, see {@link #setVisitedMemory(Integer)}.
+	 */
+	protected BoundedLongHashSet visitedMemory;
+	
+	/**
+	 * flag that indicates whether the moves leading to a visited solution are
+	 * left out of the neighborhood while the memory of the visited solutions
+	 * is on, which is not the case in the reactive mode.
+	 */
+	protected Boolean avoidVisited = true;
+	
+	/**
+	 * the number of iterations which ended in a solution already visited.
+	 */
+	protected Integer revisits = 0;
+	
+	/**
+	 * the tenure controller of the reactive mode, or null if the tabu tenure
+	 * is fixed, see {@link #setReactiveTenure(Integer, Integer)}.
+	 */
+	protected ReactiveTenure reactiveTenure;
+	
+	/**
+	 * flag that indicates whether the memory of the visited solutions was
+	 * turned on by the reactive mode, which then turns it off with itself.
+	 */
+	private boolean reactiveVisitedMemory = false;
+	
+	/**
+	 * whether the moves leading to visited solutions were left out of the
+	 * neighborhood before the reactive mode was turned on.
+	 */
+	private boolean avoidVisitedBeforeReactive = true;
+	
+	/**
+	 * the pool of elite solutions, or null if there is no path relinking,
+	 * see {@link #setElitePool(ElitePool, Integer)}.
+	 */
+	protected ElitePool elitePool;
+	
+	/**
+	 * the number of iterations without improvement after which a path
+	 * relinking takes place, or zero if the elite pool is only fed.
+	 */
+	protected Integer pathRelinkingInterval = 0;
+	
+	/**
+	 * the buffers receiving the elements of the incumbent solution offered to
+	 * the elite pool and the elements of a relinking path.
+	 */
+	private int[] eliteBuffer, relinkingPath;
+	
+	/**
+	 * flag set by another thread to make the TS main loop stop at the next
+	 * iteration.
+	 */
+	private volatile boolean stopRequested = false;
+	
+	/**
+	 * the best solution found so far, published to other threads.
+	 */
+	private volatile Solution<E> publishedBestSol;
+	
+	/**
+	 * the criteria which stop the TS main loop besides the number of
+	 * iterations.
+	 */
+	protected List<TerminationCriterion> terminationCriteria = new ArrayList<TerminationCriterion>();
+	
+	/**
+	 * the listeners notified of each new best solution.
+	 */
+	protected List<BestSolutionListener<E>> bestSolutionListeners = new ArrayList<BestSolutionListener<E>>();
+	
+	/**
+	 * the number of iterations since the best solution was improved or the
+	 * search was intensified.
+	 */
+	protected int howManyIterationsWithoutImprovement;
+	
+	/**
+	 * the instant the search started, in milliseconds.
+	 */
+	protected long startTime;
+	
+	/**
+	 * the last iteration in which the best solution was improved.
+	 */
+	protected int lastImprovementIteration;
+	
+	/**
+	 * flag that indicates whether the objective function keeps its state
+	 * synchronized with the incumbent solution, see
+	 * {@link IncrementalEvaluator}.
+	 */
+	protected Boolean incrementalEvaluation = false;
+	
+	/**
+	 * flag that indicates whether the cost of the incumbent solution is
+	 * updated from the cost variation of each element inserted or removed,
+	 * instead of being evaluated from scratch after each move.
+	 */
+	protected Boolean incrementalCost = false;
+	
+	/**
+	 * flag that indicates whether the neighborhood only contains moves which
+	 * keep the incumbent solution feasible, see
+	 * {@link #setFeasibleNeighborhood(Boolean)}.
+	 */
+	protected Boolean feasibleNeighborhood = false;
+	
+	/**
+	 * the number of candidates kept in each short list of the candidate-list
+	 * strategy, or zero if every exchange is evaluated, see
+	 * {@link #setCandidateListSize(Integer)}.
+	 */
+	protected Integer candidateListSize = 0;
+	
+	/**
+	 * the number of iterations between two full evaluations of the incumbent
+	 * solution in the incremental cost mode, or zero for none.
+	 */
+	protected int costCheckInterval = 0;
+	
+	/**
+	 * the buffers receiving the cost variations of the batch evaluations of
+	 * insertions, removals and exchanges, reused across iterations.
+	 */
+	protected double[] insertionDeltas, removalDeltas, exchangeDeltas;
+	
 
 	/**
 	 * Creates the Candidate List, which is an ArrayList of candidate elements
@@ -134,6 +322,17 @@ public abstract class AbstractTS<E> {
 	 */
 	public abstract ArrayDeque<E> makeTL();
 
+	/**
+	 * Creates the array based tabu memory, which is an alternative to the Tabu
+	 * List for problems whose candidate elements are Integer indices. By
+	 * default it returns null, meaning that the Tabu List is used.
+	 * 
+	 * @return The tabu memory, or null if the Tabu List should be used.
+	 */
+	public TabuMemory makeTabuMemory() {
+		return null;
+	}
+
 	/**
 	 * Updates the Candidate List according to the incumbent solution
 	 * {@link #incumbentSol}. In other words, this method is responsible for
@@ -141,13 +340,6 @@ public abstract class AbstractTS<E> {
 	 */
 	public abstract void updateCL();
 
-	/**
-	 * Creates the List of penalties for violating restrictions
-	 * 
-	 * @return The Violation Penalties List.
-	 */
-	public abstract ArrayList<Double> makeViolationPenaltiesList();
-	
 	/**
 	 * Creates a new solution which is empty, i.e., does not contain any
 	 * candidate solution element.
@@ -156,6 +348,40 @@ public abstract class AbstractTS<E> {
 	 */
 	public abstract Solution<E> createEmptySol();
 
+	/**
+	 * Gives the index of a candidate element, in [0, domain size) of the
+	 * objective function. The elite pool, the path relinking and the
+	 * frequency memory know the elements by their indices.
+	 * 
+	 * @param elem
+	 *            the candidate element.
+	 * @return the index of the element.
+	 */
+	public abstract int toIndex(E elem);
+
+	/**
+	 * Gives the candidate element of an index, the inverse of
+	 * {@link #toIndex(Object)}.
+	 * 
+	 * @param index
+	 *            the index, in [0, domain size).
+	 * @return the candidate element.
+	 */
+	public abstract E fromIndex(int index);
+
+	/**
+	 * Creates a copy of a solution. Subclasses using a specialized solution
+	 * representation should override this method so that copies keep that
+	 * representation.
+	 * 
+	 * @param sol
+	 *            the solution to be copied.
+	 * @return A copy of the solution.
+	 */
+	public Solution<E> copySol(Solution<E> sol) {
+		return new Solution<E>(sol);
+	}
+
 	/**
 	 * The TS local search phase is responsible for repeatedly applying a
 	 * neighborhood operation while the solution is getting improved, i.e.,
@@ -168,11 +394,15 @@ public abstract class AbstractTS<E> {
 	 */
 	public abstract void neighborhoodMove();
 	
-	private void createRecencyList()
+	/**
+	 * Records one more iteration of each element of the incumbent solution
+	 * in the frequency memory.
+	 */
+	protected void updateFrequencyMemory()
 	{
-		for (E el : incumbentSol) 
+		for (int k = 0; k < incumbentSol.size(); k++)
 		{
-			listOfRecency.add(new Recency<E>(el));
+			frequencyMemory.record(toIndex(incumbentSol.get(k)));
 		}
 	}
 
@@ -195,7 +425,6 @@ public abstract class AbstractTS<E> {
 		this.iterations = iterations;
 		this.method = method;
 		this.searchMethod = searchMethod;
-		this.listOfProibitedTuples =  Utils.getProibitedTuples(ObjFunction.getSize());
 	}
 	
 	public AbstractTS(Logger logger, Evaluator<E> objFunction, Integer tenure, Integer method, Integer searchMethod, Integer iterations, Integer intensification_max_iterations, Integer how_many_recency_elements_to_take) {
@@ -207,7 +436,717 @@ public abstract class AbstractTS<E> {
 		this.searchMethod = searchMethod;
 		this.intensification_max_iterations = intensification_max_iterations;
 		this.how_many_recency_elements_to_take = how_many_recency_elements_to_take;
-		this.listOfProibitedTuples =  Utils.getProibitedTuples(ObjFunction.getSize());
+	}
+	
+	/**
+	 * Sets the prohibited triples of the problem, e.g., the ones of a shared
+	 * instance, rebuilding their index and the oscillation penalties. A
+	 * problem without prohibited triples leaves them unset, and then every
+	 * solution is feasible and neither the index nor the penalties are kept.
+	 * 
+	 * @param proibitedTuples
+	 *            the prohibited triples, or null for none.
+	 */
+	protected void setProibitedTuples(List<ProibitedTuple> proibitedTuples) {
+		this.listOfProibitedTuples = proibitedTuples;
+		if (proibitedTuples == null) {
+			this.proibitedTupleIndex = null;
+			this.oscillation = null;
+			return;
+		}
+		this.proibitedTupleIndex = new ProibitedTupleIndex(proibitedTuples, ObjFunction.getSize());
+		this.oscillation = new StrategicOscillation(proibitedTupleIndex, ObjFunction.getSize());
+		this.oscillation.setBudget(infeasibilityBudget);
+	}
+	
+	/**
+	 * Sets the infeasibility budget of the oscillation method, i.e., the
+	 * maximum number of consecutive iterations ending in an infeasible
+	 * solution. When the budget is exhausted, the incumbent solution is
+	 * repaired.
+	 * 
+	 * @param budget
+	 *            the number of iterations, or zero for no limit.
+	 */
+	public void setInfeasibilityBudget(int budget) {
+		this.infeasibilityBudget = budget;
+		if (oscillation != null)
+			oscillation.setBudget(budget);
+	}
+	
+	/**
+	 * Turns on or off the long-term memory of the visited solutions. The
+	 * solution reached by each iteration is remembered by its 64-bit Zobrist
+	 * hash, which is kept up to date in O(1) per insertion or removal, in a
+	 * bounded set which forgets the oldest solutions once full. The moves
+	 * leading to a remembered solution are then left out of the neighborhood,
+	 * unless no other move is admissible, which breaks the cycles the tabu
+	 * memory alone lets through. Since a visited solution cannot be better
+	 * than the best solution, the aspiration criterion is unaffected. Only
+	 * the moves which would become the best move of the scan are looked up,
+	 * so the memory costs a few lookups per iteration.
+	 * 
+	 * @param capacity
+	 *            the maximum number of solutions remembered, or zero to turn
+	 *            the memory off.
+	 */
+	public void setVisitedMemory(Integer capacity) {
+		this.visitedMemory = (capacity > 0) ? new BoundedLongHashSet(capacity) : null;
+		this.reactiveVisitedMemory = false;
+		if (incumbentSol != null)
+			hashIncumbentSol();
+	}
+	
+	/**
+	 * Computes the Zobrist hash of the incumbent solution from scratch while
+	 * the memory of the visited solutions is on, or drops it otherwise.
+	 */
+	private void hashIncumbentSol() {
+		if (visitedMemory == null) {
+			solutionHash = null;
+			return;
+		}
+		if (solutionHash == null)
+			solutionHash = new ZobristHash(ObjFunction.getDomainSize());
+		solutionHash.clear();
+		for (E elem : incumbentSol)
+			solutionHash.toggle(toIndex(elem));
+	}
+	
+	/**
+	 * Gives the number of iterations which ended in a solution already
+	 * visited, i.e., the number of cycles detected by the memory of the
+	 * visited solutions.
+	 * 
+	 * @return the number of revisits, which is zero if the memory is off.
+	 */
+	public int getRevisitCount() {
+		return revisits;
+	}
+	
+	/**
+	 * Tests whether a move leads to a solution remembered by the memory of
+	 * the visited solutions, while such moves are left out of the
+	 * neighborhood.
+	 * 
+	 * @param in
+	 *            the element entering the solution, or null.
+	 * @param out
+	 *            the element leaving the solution, or null.
+	 * @return true if the move should be skipped.
+	 */
+	protected boolean leadsToVisited(E in, E out) {
+		if (visitedMemory == null || !avoidVisited)
+			return false;
+		long hash = solutionHash.getHash();
+		if (in != null && !in.equals(out) && !incumbentSol.contains(in))
+			hash ^= solutionHash.getKey(toIndex(in));
+		if (out != null && !out.equals(in) && incumbentSol.contains(out))
+			hash ^= solutionHash.getKey(toIndex(out));
+		return visitedMemory.contains(hash);
+	}
+	
+	/**
+	 * Remembers the incumbent solution in the memory of the visited
+	 * solutions, counting a revisit if it was already there.
+	 * 
+	 * @return true if the incumbent solution was already visited.
+	 */
+	protected boolean rememberIncumbentSol() {
+		if (visitedMemory == null || visitedMemory.add(solutionHash.getHash()))
+			return false;
+		revisits++;
+		return true;
+	}
+	
+	/**
+	 * Turns on or off the reactive mode, in which the tabu tenure adapts
+	 * itself to the search instead of staying fixed: it grows when the search
+	 * goes back to solutions already visited and decays when the repetitions
+	 * stop, see {@link ReactiveTenure}, so that a single run does the job of
+	 * a sweep over fixed tenures. The tenure given to the constructor is the
+	 * initial one. The repetitions are detected by the memory of the visited
+	 * solutions, which is turned on if it is off; the moves leading to
+	 * visited solutions are then kept in the neighborhood, since keeping the
+	 * search out of cycles is left to the tenure. The tenure only adapts when
+	 * the array based tabu memory is used, see {@link #makeTabuMemory()}.
+	 * Turning the reactive mode off leaves the solver as it was before: the
+	 * memory of the visited solutions is turned off again if the reactive
+	 * mode turned it on, and the moves leading to visited solutions are
+	 * left out of the neighborhood again if they were.
+	 * 
+	 * @param minTenure
+	 *            the smallest tenure, or zero to turn the reactive mode off.
+	 * @param maxTenure
+	 *            the largest tenure.
+	 */
+	public void setReactiveTenure(Integer minTenure, Integer maxTenure) {
+		if (minTenure == 0) {
+			if (reactiveTenure == null)
+				return;
+			this.reactiveTenure = null;
+			if (reactiveVisitedMemory)
+				setVisitedMemory(0);
+			this.avoidVisited = avoidVisitedBeforeReactive;
+			return;
+		}
+		if (reactiveTenure == null) {
+			this.avoidVisitedBeforeReactive = avoidVisited;
+			if (visitedMemory == null) {
+				setVisitedMemory(ReactiveTenure.VISITED_MEMORY);
+				this.reactiveVisitedMemory = true;
+			}
+		}
+		this.reactiveTenure = new ReactiveTenure(minTenure, maxTenure);
+		this.avoidVisited = false;
+	}
+	
+	/**
+	 * Turns on or off the elite pool and the path relinking. Each feasible
+	 * incumbent solution good enough to enter the pool is offered to it, and
+	 * whenever the best solution is not improved for the given number of
+	 * iterations, a path relinking walks between two elite solutions picked
+	 * at random, see {@link #relinkEliteSolutions()}, and the search resumes
+	 * from the path. The pool is not cleared when the search starts, so it
+	 * may be seeded, reused across runs or shared by the solvers of a
+	 * parallel portfolio.
+	 * 
+	 * @param elitePool
+	 *            the pool of elite solutions, or null to turn both off.
+	 * @param pathRelinkingInterval
+	 *            the number of iterations without improvement before a path
+	 *            relinking, or zero to only feed the pool.
+	 */
+	public void setElitePool(ElitePool elitePool, Integer pathRelinkingInterval) {
+		this.elitePool = elitePool;
+		this.pathRelinkingInterval = pathRelinkingInterval;
+	}
+	
+	/**
+	 * Gives the pool of elite solutions.
+	 * 
+	 * @return the elite pool, or null if it is off.
+	 */
+	public ElitePool getElitePool() {
+		return elitePool;
+	}
+	
+	/**
+	 * Offers the incumbent solution to the elite pool, which is only copied
+	 * if it may enter the pool.
+	 */
+	protected void offerIncumbentSol() {
+		if (!elitePool.accepts(incumbentSol.cost))
+			return;
+		if (eliteBuffer == null)
+			eliteBuffer = new int[ObjFunction.getDomainSize()];
+		int count = 0;
+		for (E elem : incumbentSol)
+			eliteBuffer[count++] = toIndex(elem);
+		elitePool.offer(incumbentSol.cost, eliteBuffer, count);
+	}
+	
+	/**
+	 * Path relinking between two elite solutions picked at random. The
+	 * initiating solution becomes the incumbent one and walks towards the
+	 * guiding one with the insertion and removal moves, each step moving the
+	 * element of least cost variation among the ones in only one of the two
+	 * solutions. Since both ends are elite solutions, only the middle of the
+	 * path is of interest: the walk stops at distance d/3 from the guiding
+	 * solution, d being the distance between the two, and the search resumes
+	 * from the best solution of the path at distance at least d/3 from both,
+	 * feasible ones being preferred. Outside the oscillation method, in which
+	 * the incumbent solution is always feasible, that solution is repaired
+	 * before the search resumes. The tabu memory is cleared, as in an
+	 * intensification.
+	 */
+	protected void relinkEliteSolutions() {
+		ElitePool.Entry[] pair = elitePool.selectPair(rng);
+		if (pair == null)
+			return;
+		ElitePool.Entry initiating = pair[0], guiding = pair[1];
+		
+		int domainSize = ObjFunction.getDomainSize();
+		if (relinkingPath == null)
+			relinkingPath = new int[domainSize];
+		int d = 0;
+		for (int elem = 0; elem < domainSize; elem++) {
+			if (initiating.contains(elem) != guiding.contains(elem))
+				relinkingPath[d++] = elem;
+		}
+		int first = Math.max(1, d / 3), last = d - first;
+		if (first > last)
+			return;
+		
+		Solution<E> sol = createEmptySol();
+		for (int k = 0; k < initiating.size(); k++)
+			sol.add(fromIndex(initiating.get(k)));
+		setIncumbentSol(sol);
+		evaluateIncumbentSol();
+		
+		int target = first;
+		double targetCost = Double.POSITIVE_INFINITY;
+		boolean targetFeasible = false;
+		for (int step = 1; step <= last; step++) {
+			/* the elements not moved yet are in relinkingPath[step-1 .. d-1] */
+			int bestK = step - 1;
+			double minDeltaCost = Double.POSITIVE_INFINITY;
+			for (int k = step - 1; k < d; k++) {
+				E elem = fromIndex(relinkingPath[k]);
+				double deltaCost = incumbentSol.contains(elem) ? ObjFunction.evaluateRemovalCost(elem, incumbentSol) : ObjFunction.evaluateInsertionCost(elem, incumbentSol);
+				if (deltaCost < minDeltaCost) {
+					minDeltaCost = deltaCost;
+					bestK = k;
+				}
+			}
+			int moved = relinkingPath[bestK];
+			relinkingPath[bestK] = relinkingPath[step - 1];
+			relinkingPath[step - 1] = moved;
+			toggleInSolution(fromIndex(moved));
+			evaluateIncumbentSol();
+			
+			if (step >= first) {
+				boolean feasible = isIncumbentFeasible();
+				if ((feasible && !targetFeasible) || (feasible == targetFeasible && incumbentSol.cost < targetCost)) {
+					target = step;
+					targetCost = incumbentSol.cost;
+					targetFeasible = feasible;
+				}
+			}
+		}
+		for (int step = last; step > target; step--)
+			toggleInSolution(fromIndex(relinkingPath[step - 1]));
+		evaluateIncumbentSol();
+		if (this.method != OSCILATION_METHOD)
+			repairSolution();
+		
+		ArrayList<E> candidates = makeCL();
+		CL.clear();
+		for (E cand : candidates) {
+			if (!incumbentSol.contains(cand))
+				CL.add(cand);
+		}
+		TL = makeTL();
+		if (tabuMemory != null)
+			tabuMemory.clear();
+		if (this.method == INTENSIFICATION_METHOD)
+			frequencyMemory.clear();
+		is_feasible = isIncumbentFeasible();
+		number_of_iterations_infeasible = 0;
+	}
+	
+	/**
+	 * Inserts an element into the incumbent solution if it is not there, or
+	 * removes it otherwise.
+	 */
+	private void toggleInSolution(E elem) {
+		if (incumbentSol.contains(elem))
+			removeFromSolution(elem);
+		else
+			insertIntoSolution(elem);
+	}
+	
+	/**
+	 * Gives the current tabu tenure, which changes during the search in the
+	 * reactive mode.
+	 * 
+	 * @return the tabu tenure.
+	 */
+	public int getTenure() {
+		return (tabuMemory != null) ? tabuMemory.getTenure() : tenure;
+	}
+	
+	/**
+	 * Gives the distance of the incumbent solution to the feasible region,
+	 * see {@link StrategicOscillation#getFeasibilityDistance()}.
+	 * 
+	 * @return the number of violated triples.
+	 */
+	public int getFeasibilityDistance() {
+		return (oscillation == null) ? 0 : oscillation.getFeasibilityDistance();
+	}
+	
+	/**
+	 * Tests whether the incumbent solution violates no prohibited triple.
+	 * 
+	 * @return true if the incumbent solution is feasible.
+	 */
+	protected boolean isIncumbentFeasible() {
+		return oscillation == null || oscillation.isFeasible();
+	}
+	
+	/**
+	 * Requests the TS main loop to stop at the next iteration, returning the
+	 * best solution found so far. It may be called from any thread, even
+	 * before the search starts, in which case the search stops right after
+	 * the constructive heuristic.
+	 */
+	public void requestStop() {
+		stopRequested = true;
+	}
+	
+	/**
+	 * Gives the best solution found so far by a search, which may still be
+	 * running in another thread. The solution returned is never modified by
+	 * the search.
+	 * 
+	 * @return the best solution found so far, or null if the search has not
+	 *         started.
+	 */
+	public Solution<E> getBestSol() {
+		return publishedBestSol;
+	}
+	
+	/**
+	 * Adds a criterion which stops the search, e.g., one of the
+	 * {@link TerminationCriteria}. The search stops as soon as any criterion
+	 * is met, or after the number of iterations given to the solver.
+	 * 
+	 * @param criterion
+	 *            the termination criterion.
+	 */
+	public void addTerminationCriterion(TerminationCriterion criterion) {
+		terminationCriteria.add(criterion);
+	}
+	
+	/**
+	 * Adds a listener notified of each new best solution as soon as it is
+	 * found, which makes the search usable as an anytime algorithm.
+	 * 
+	 * @param listener
+	 *            the listener.
+	 */
+	public void addBestSolutionListener(BestSolutionListener<E> listener) {
+		bestSolutionListeners.add(listener);
+	}
+	
+	/* (non-Javadoc)
+	 * @see metaheuristics.tabusearch.SearchProgress#getCurrentIteration()
+	 */
+	@Override
+	public int getCurrentIteration() {
+		return currentIteration;
+	}
+	
+	/* (non-Javadoc)
+	 * @see metaheuristics.tabusearch.SearchProgress#getIterationsWithoutImprovement()
+	 */
+	@Override
+	public int getIterationsWithoutImprovement() {
+		return currentIteration - lastImprovementIteration;
+	}
+	
+	/* (non-Javadoc)
+	 * @see metaheuristics.tabusearch.SearchProgress#getElapsedTime()
+	 */
+	@Override
+	public long getElapsedTime() {
+		return System.currentTimeMillis() - startTime;
+	}
+	
+	/* (non-Javadoc)
+	 * @see metaheuristics.tabusearch.SearchProgress#getBestCost()
+	 */
+	@Override
+	public Double getBestCost() {
+		Solution<E> sol = publishedBestSol;
+		return (sol == null) ? null : sol.cost;
+	}
+	
+	/**
+	 * Tests whether the search should stop before the next iteration, either
+	 * because a stop was requested or a termination criterion is met.
+	 * 
+	 * @return true if the search should stop.
+	 */
+	protected Boolean shouldStop() {
+		if (stopRequested)
+			return true;
+		for (TerminationCriterion criterion : terminationCriteria) {
+			if (criterion.isMet(this))
+				return true;
+		}
+		return false;
+	}
+	
+	/**
+	 * Sets whether the solver should log each new best solution found.
+	 * 
+	 * @param verbose
+	 *            true to log the best solutions.
+	 */
+	public void setVerbose(Boolean verbose) {
+		this.verbose = verbose;
+	}
+	
+	/**
+	 * Sets the seed of the random number generator. The search is
+	 * deterministic for a given seed, so concurrent runs should receive
+	 * distinct seeds, e.g., from {@link Utils#splitSeed(long, int)}.
+	 * 
+	 * @param seed
+	 *            the seed.
+	 */
+	public void setSeed(long seed) {
+		this.seed = seed;
+		this.rng = new Random(seed);
+	}
+	
+	/**
+	 * Gives the seed of the random number generator.
+	 * 
+	 * @return the seed.
+	 */
+	public long getSeed() {
+		return seed;
+	}
+	
+	/**
+	 * Sets the logger used by the solver.
+	 * 
+	 * @param logger
+	 *            the logger.
+	 */
+	public void setLogger(Logger logger) {
+		this.logger = logger;
+	}
+	
+	/**
+	 * Turns on or off the incremental evaluation of moves. In the incremental
+	 * mode the objective function must be an {@link IncrementalEvaluator}, and
+	 * it is notified of every element inserted into or removed from the
+	 * incumbent solution.
+	 * 
+	 * @param incrementalEvaluation
+	 *            true to turn on the incremental mode.
+	 */
+	public void setIncrementalEvaluation(Boolean incrementalEvaluation) {
+		if (incrementalEvaluation && !(ObjFunction instanceof IncrementalEvaluator))
+			throw new IllegalArgumentException("The objective function does not support incremental evaluation");
+		if (!incrementalEvaluation && this.incrementalEvaluation)
+			((IncrementalEvaluator<E>) ObjFunction).track(null);
+		this.incrementalEvaluation = incrementalEvaluation;
+	}
+	
+	/**
+	 * Turns on or off the incremental cost mode, in which the cost of the
+	 * incumbent solution is updated from the cost variation of each element
+	 * inserted or removed, so that applying a move does not require a full
+	 * evaluation of the solution. It is best combined with the incremental
+	 * evaluation, in which each cost variation takes O(1).
+	 * 
+	 * @param incrementalCost
+	 *            true to turn on the incremental cost mode.
+	 */
+	public void setIncrementalCost(Boolean incrementalCost) {
+		this.incrementalCost = incrementalCost;
+	}
+	
+	/**
+	 * Turns on or off the feasible neighborhood mode of the default and the
+	 * intensification methods. In this mode the insertions and exchanges
+	 * which would complete a prohibited triple are skipped when the
+	 * neighborhood is scanned, which takes O(degree) per move, instead of
+	 * being applied and then undone by {@link #repairSolution()}. Once the
+	 * incumbent solution is feasible, it stays feasible and the repair has
+	 * nothing left to do. The oscillation method ignores this mode, since it
+	 * crosses the infeasible region on purpose.
+	 * 
+	 * @param feasibleNeighborhood
+	 *            true to scan only the feasible moves.
+	 */
+	public void setFeasibleNeighborhood(Boolean feasibleNeighborhood) {
+		this.feasibleNeighborhood = feasibleNeighborhood;
+	}
+	
+	/**
+	 * Turns on or off the candidate-list strategy. In this strategy the
+	 * insertions and removals are still all evaluated, but only the best k
+	 * candidates to enter and the best k candidates to leave the solution
+	 * are kept in short lists while doing so, and the exchanges are only
+	 * evaluated between these short lists, which takes O(k^2) per iteration
+	 * instead of O(n^2). The exchanges which cannot beat the best move found
+	 * so far, according to {@link problems.Evaluator#getInteractionBound(Object)},
+	 * are not even evaluated. Since promising exchanges may involve
+	 * candidates left out of the short lists, the search is not the same as
+	 * with the full neighborhood.
+	 * 
+	 * @param candidateListSize
+	 *            the number of candidates kept in each short list, or zero to
+	 *            evaluate every exchange.
+	 */
+	public void setCandidateListSize(Integer candidateListSize) {
+		this.candidateListSize = candidateListSize;
+	}
+	
+	/**
+	 * Tests whether the moves which would violate a prohibited triple are
+	 * left out of the neighborhood.
+	 * 
+	 * @return true if the feasible neighborhood mode is on and the method is
+	 *         not the oscillation one.
+	 */
+	protected boolean filtersInfeasibleMoves() {
+		return feasibleNeighborhood && method != OSCILATION_METHOD;
+	}
+	
+	/**
+	 * Sets how often the incremental cost of the incumbent solution is
+	 * checked against a full evaluation. A check replaces the tracked cost by
+	 * the evaluated one, and logs a warning if they differ by more than
+	 * {@link #COST_DRIFT_TOLERANCE}, e.g., due to accumulated floating-point
+	 * errors.
+	 * 
+	 * @param costCheckInterval
+	 *            the number of iterations between two checks, or zero for
+	 *            none.
+	 */
+	public void setCostCheckInterval(int costCheckInterval) {
+		this.costCheckInterval = costCheckInterval;
+	}
+	
+	/**
+	 * Gives a buffer for the cost variations of a batch evaluation, which is
+	 * the given one if it is large enough, or a larger one otherwise.
+	 * 
+	 * @param buffer
+	 *            the current buffer, or null.
+	 * @param length
+	 *            the number of cost variations to be held.
+	 * @return a buffer with at least the given length.
+	 */
+	protected static double[] ensureCapacity(double[] buffer, int length) {
+		if (buffer != null && buffer.length >= length)
+			return buffer;
+		return new double[(buffer == null) ? length : Math.max(length, 2 * buffer.length)];
+	}
+	
+	/**
+	 * Replaces the incumbent solution, synchronizing the index of the
+	 * prohibited triples with it, as well as the objective function when in
+	 * the incremental mode. In the incremental cost mode the solution is
+	 * evaluated, since later moves only update its cost.
+	 * 
+	 * @param sol
+	 *            the new incumbent solution.
+	 */
+	protected void setIncumbentSol(Solution<E> sol) {
+		incumbentSol = sol;
+		if (proibitedTupleIndex != null) {
+			proibitedTupleIndex.clear();
+			for (E elem : sol)
+				proibitedTupleIndex.insert(toIndex(elem));
+			oscillation.reset();
+		}
+		hashIncumbentSol();
+		if (incrementalEvaluation)
+			((IncrementalEvaluator<E>) ObjFunction).track(sol);
+		if (incrementalCost)
+			ObjFunction.evaluate(sol);
+	}
+	
+	/**
+	 * Brings the cost of the incumbent solution up to date after a move. In
+	 * the incremental cost mode the cost is already up to date, otherwise the
+	 * solution is evaluated from scratch.
+	 */
+	protected void evaluateIncumbentSol() {
+		if (!incrementalCost)
+			ObjFunction.evaluate(incumbentSol);
+	}
+	
+	/**
+	 * Checks the incremental cost of the incumbent solution against a full
+	 * evaluation, keeping the evaluated one.
+	 */
+	protected void checkIncumbentCost() {
+		double trackedCost = incumbentSol.cost;
+		double cost = ObjFunction.evaluate(incumbentSol);
+		if (Math.abs(trackedCost - cost) > COST_DRIFT_TOLERANCE * Math.max(1.0, Math.abs(cost)))
+			logger.warning("(Iter. " + currentIteration + ") Incremental cost drift: tracked " + trackedCost + ", evaluated " + cost);
+	}
+	
+	/**
+	 * Inserts an element into the incumbent solution. All insertions into the
+	 * incumbent solution should go through this method, so that the
+	 * incremental state of the objective function and the index of the
+	 * prohibited triples are kept up to date.
+	 * 
+	 * @param elem
+	 *            the element to be inserted.
+	 */
+	protected void insertIntoSolution(E elem) {
+		Double deltaCost = incrementalCost ? ObjFunction.evaluateInsertionCost(elem, incumbentSol) : null;
+		if (!incumbentSol.add(elem))
+			return;
+		if (incrementalCost)
+			incumbentSol.cost += deltaCost;
+		if (proibitedTupleIndex != null || solutionHash != null) {
+			int index = toIndex(elem);
+			if (proibitedTupleIndex != null) {
+				proibitedTupleIndex.insert(index);
+				oscillation.inserted(index);
+			}
+			if (solutionHash != null)
+				solutionHash.toggle(index);
+		}
+		if (incrementalEvaluation)
+			((IncrementalEvaluator<E>) ObjFunction).applyInsertion(elem);
+	}
+	
+	/**
+	 * Removes an element from the incumbent solution. All removals from the
+	 * incumbent solution should go through this method, so that the
+	 * incremental state of the objective function and the index of the
+	 * prohibited triples are kept up to date.
+	 * 
+	 * @param elem
+	 *            the element to be removed.
+	 */
+	protected void removeFromSolution(E elem) {
+		Double deltaCost = incrementalCost ? ObjFunction.evaluateRemovalCost(elem, incumbentSol) : null;
+		if (!incumbentSol.remove(elem))
+			return;
+		if (incrementalCost)
+			incumbentSol.cost += deltaCost;
+		if (proibitedTupleIndex != null || solutionHash != null) {
+			int index = toIndex(elem);
+			if (proibitedTupleIndex != null) {
+				proibitedTupleIndex.remove(index);
+				oscillation.removed(index);
+			}
+			if (solutionHash != null)
+				solutionHash.toggle(index);
+		}
+		if (incrementalEvaluation)
+			((IncrementalEvaluator<E>) ObjFunction).applyRemoval(elem);
+	}
+	
+	/**
+	 * Tests whether an element is tabu, using either the tabu memory or the
+	 * Tabu List.
+	 * 
+	 * @param elem
+	 *            the element.
+	 * @return true if the element is tabu.
+	 */
+	protected Boolean isTabu(E elem) {
+		if (tabuMemory != null)
+			return tabuMemory.isTabu((Integer) elem, currentIteration);
+		return TL.contains(elem);
+	}
+	
+	/**
+	 * Makes an element tabu, using either the tabu memory or the Tabu List.
+	 * 
+	 * @param elem
+	 *            the element.
+	 */
+	protected void makeTabu(E elem) {
+		if (tabuMemory != null)
+			tabuMemory.makeTabu((Integer) elem, currentIteration);
+		else
+			TL.add(elem);
 	}
 	
 	private Integer int2ProibitedTupleElement(int i, ProibitedTuple p)
@@ -223,22 +1162,17 @@ public abstract class AbstractTS<E> {
 		}
 	}
 
-	protected Recency<E> findOnRecencyList(Integer val)
-	{
-		return this.listOfRecency.stream().filter(element -> val == element.getValue()).findAny().orElse(null);
-	}
-	
 	protected E getBestRemovalElementFromProibitedTriples(ProibitedTuple proibitedTuple)
 	{		
 		double minDeltaCost = Double.POSITIVE_INFINITY;
 		E element2Remove = null;
 		for(int i = 0; i < 3; i++)
 		{
-			Integer candToRemove = int2ProibitedTupleElement(i, proibitedTuple);
-			Double deltaCost = ObjFunction.evaluateRemovalCost((E) candToRemove, incumbentSol);
+			E candToRemove = fromIndex(int2ProibitedTupleElement(i, proibitedTuple));
+			Double deltaCost = ObjFunction.evaluateRemovalCost(candToRemove, incumbentSol);
 			if(deltaCost < minDeltaCost) 
 			{
-				element2Remove = (E)candToRemove;
+				element2Remove = candToRemove;
 				minDeltaCost = deltaCost;
 			}
 		}
@@ -246,43 +1180,46 @@ public abstract class AbstractTS<E> {
 		return element2Remove;		
 	}
 	
+	/**
+	 * Removes elements from the incumbent solution until no prohibited triple
+	 * is violated. The violated triples are taken from
+	 * {@link #proibitedTupleIndex} in increasing order, and from each one the
+	 * element whose removal is the cheapest leaves the solution.
+	 */
 	protected void repairSolution()
 	{
-		for(ProibitedTuple proibitedTuple : listOfProibitedTuples)
+		if (proibitedTupleIndex == null)
+			return;
+		int t;
+		while((t = proibitedTupleIndex.getFirstViolated()) != -1)
 		{
-			if(incumbentSol.indexOf(proibitedTuple.getX0()) != -1 && incumbentSol.indexOf(proibitedTuple.getX1()) != -1 && incumbentSol.indexOf(proibitedTuple.getX2()) != -1 ){
-                Integer candToRemove = (Integer) getBestRemovalElementFromProibitedTriples(proibitedTuple);
-                incumbentSol.remove(incumbentSol.indexOf(candToRemove));
-                                    
-                if(this.method == INTENSIFICATION_METHOD)
-    			{
-    				Recency<E> element = findOnRecencyList(candToRemove);
-    				if(null != element)  listOfRecency.remove(listOfRecency.indexOf(element));
-    			}
-                
-                ObjFunction.evaluate(incumbentSol);
-			}
+			ProibitedTuple proibitedTuple = listOfProibitedTuples.get(t);
+			E candToRemove = getBestRemovalElementFromProibitedTriples(proibitedTuple);
+			removeFromSolution(candToRemove);
+			
+			if(this.method == INTENSIFICATION_METHOD) frequencyMemory.forget(toIndex(candToRemove));
+			
+			evaluateIncumbentSol();
 		}
 	}
 	
+	/**
+	 * Closes an iteration of the oscillation method, updating the penalties
+	 * of the elements of the violated triples, see
+	 * {@link StrategicOscillation}. When the infeasibility budget is
+	 * exhausted, the incumbent solution is repaired.
+	 */
 	protected void updateViolationPenalties() {
-		is_feasible = true;
-		ArrayList<Double> updatedPenalties = makeViolationPenaltiesList(); 
-		for(ProibitedTuple proibitedTuple : listOfProibitedTuples) {
-			if(incumbentSol.indexOf(proibitedTuple.getX0()) != -1 && incumbentSol.indexOf(proibitedTuple.getX1()) != -1 && incumbentSol.indexOf(proibitedTuple.getX2()) != -1 ) {
-				if (is_feasible) {
-					is_feasible = false;
-					number_of_iterations_infeasible++;
-				}
-				updatedPenalties.set(proibitedTuple.getX0(), violationPenalties.get(proibitedTuple.getX0()) + number_of_iterations_infeasible);
-				updatedPenalties.set(proibitedTuple.getX1(), violationPenalties.get(proibitedTuple.getX1()) + number_of_iterations_infeasible);
-				updatedPenalties.set(proibitedTuple.getX2(), violationPenalties.get(proibitedTuple.getX2()) + number_of_iterations_infeasible);
-			}
-		}
-		violationPenalties = updatedPenalties;
-		if (is_feasible) {
-			number_of_iterations_infeasible = 0;
+		if (oscillation == null)
+			return;
+		oscillation.endIteration();
+		if (oscillation.isBudgetExhausted()) {
+			repairSolution();
+			oscillation.endIteration();
 		}
+		
+		is_feasible = oscillation.isFeasible();
+		number_of_iterations_infeasible = oscillation.getInfeasibleStreak();
 	}
 	
 	/**
@@ -296,13 +1233,13 @@ public abstract class AbstractTS<E> {
 
 		CL = makeCL();
 		RCL = makeRCL();
-		incumbentSol = createEmptySol();
+		setIncumbentSol(createEmptySol());
 		incumbentCost = Double.POSITIVE_INFINITY;
 
 		/* Main loop, which repeats until the stopping criteria is reached. */
 		while (!constructiveStopCriteria()) {
 
-			Double maxCost = Double.NEGATIVE_INFINITY, minCost = Double.POSITIVE_INFINITY;
+			double maxCost = Double.NEGATIVE_INFINITY, minCost = Double.POSITIVE_INFINITY;
 			incumbentCost = incumbentSol.cost;
 			repairSolution();
 
@@ -310,8 +1247,10 @@ public abstract class AbstractTS<E> {
 			 * Explore all candidate elements to enter the solution, saving the
 			 * highest and lowest cost variation achieved by the candidates.
 			 */
-			for (E c : CL) {
-				Double deltaCost = ObjFunction.evaluateInsertionCost(c, incumbentSol);
+			insertionDeltas = ensureCapacity(insertionDeltas, CL.size());
+			ObjFunction.evaluateInsertionCosts(CL, incumbentSol, insertionDeltas);
+			for (int k = 0; k < CL.size(); k++) {
+				double deltaCost = insertionDeltas[k];
 				if (deltaCost < minCost)
 					minCost = deltaCost;
 				if (deltaCost > maxCost)
@@ -322,10 +1261,9 @@ public abstract class AbstractTS<E> {
 			 * Among all candidates, insert into the RCL those with the highest
 			 * performance.
 			 */
-			for (E c : CL) {
-				Double deltaCost = ObjFunction.evaluateInsertionCost(c, incumbentSol);
-				if (deltaCost <= minCost) {
-					RCL.add(c);
+			for (int k = 0; k < CL.size(); k++) {
+				if (insertionDeltas[k] <= minCost) {
+					RCL.add(CL.get(k));
 				}
 			}
 		
@@ -333,13 +1271,13 @@ public abstract class AbstractTS<E> {
 			int rndIndex = rng.nextInt(RCL.size());
 			E inCand = RCL.get(rndIndex);
 			CL.remove(inCand);
-			incumbentSol.add(inCand);
-			ObjFunction.evaluate(incumbentSol);
+			insertIntoSolution(inCand);
+			evaluateIncumbentSol();
 			RCL.clear();
 
 		}
 
-		if(this.method == INTENSIFICATION_METHOD) createRecencyList();
+		if(this.method == INTENSIFICATION_METHOD) updateFrequencyMemory();
 		
 		return incumbentSol;
 	}
@@ -347,23 +1285,23 @@ public abstract class AbstractTS<E> {
 	private void intensificateBestSolution()
 	{
 		//assume the incument solution to the best solution
-		incumbentSol = new Solution<E>(bestSol);
-		
-		//sort recency list
-		Collections.sort(this.listOfRecency, new RecencySorter());
+		setIncumbentSol(copySol(bestSol));
 		
-		//clear TL
+		//clear TL, keeping the tenure of the reactive mode
 		TL = makeTL();
+		if (tabuMemory != null)
+			tabuMemory.clear();
 		
-		//create tabu of most recent elements
-		int qtd = 0;
-		for(Recency<E> el : listOfRecency)
-		{			
-			if(qtd++ >= how_many_recency_elements_to_take) break;
-			TL.add(el.getValue());
+		//create tabu of most frequent elements
+		if (mostFrequent == null || mostFrequent.length < how_many_recency_elements_to_take)
+			mostFrequent = new int[how_many_recency_elements_to_take];
+		int qtd = frequencyMemory.selectMostFrequent(how_many_recency_elements_to_take, mostFrequent);
+		for(int k = 0; k < qtd; k++)
+		{
+			makeTabu(fromIndex(mostFrequent[k]));
 		}
-		//clear recency list
-		listOfRecency = new LinkedList<>();		
+		//clear frequency memory
+		frequencyMemory.clear();
 	}
 	
 	/**
@@ -375,34 +1313,103 @@ public abstract class AbstractTS<E> {
 	 */
 	public Solution<E> solve() {
 
+		initialize();
+		
+		for (int i = 0; i < iterations; i++) {
+			currentIteration = i;
+			if (shouldStop())
+				break;
+			iterate();
+		}
+
+		return bestSol;
+	}
+
+	/**
+	 * Prepares the search: builds the initial solution with the constructive
+	 * heuristic and resets the memories of the TS. It is the first step of
+	 * {@link #solve()}, exposed so that single iterations can be driven from
+	 * outside, e.g., by benchmarks.
+	 */
+	public void initialize() {
+
+		startTime = System.currentTimeMillis();
+		currentIteration = 0;
+		lastImprovementIteration = 0;
+		howManyIterationsWithoutImprovement = 0;
 		bestSol = createEmptySol();
+		publishedBestSol = bestSol;
+		frequencyMemory = new FrequencyMemory(ObjFunction.getDomainSize());
 		constructiveHeuristic();
 		TL = makeTL();
-		violationPenalties = makeViolationPenaltiesList();
+		tabuMemory = makeTabuMemory();
+		if (reactiveTenure != null && tabuMemory != null)
+			tabuMemory.setTenure(reactiveTenure.reset(tenure));
+		if (oscillation != null)
+			oscillation.reset();
+		revisits = 0;
+		if (visitedMemory != null) {
+			visitedMemory.clear();
+			rememberIncumbentSol();
+		}
 		
 		is_feasible = true;
-		number_of_iterations_infeasible = 0;		
-		int howManyIterationsWithoutImprovement = 0;
+		number_of_iterations_infeasible = 0;
+	}
+
+	/**
+	 * Performs one iteration of the TS main loop at iteration
+	 * {@link #currentIteration}: a neighborhood move followed by the update
+	 * of the best solution and, in the intensification method, by the
+	 * restart from the best solution when the search stagnates, or by a path
+	 * relinking when the elite pool is on.
+	 */
+	public void iterate() {
+
+		int i = currentIteration;
+		neighborhoodMove();
+		boolean repeated = rememberIncumbentSol();
+		if (reactiveTenure != null && tabuMemory != null)
+			tabuMemory.setTenure(reactiveTenure.update(repeated, i));
+		if (incrementalCost && costCheckInterval > 0 && (i + 1) % costCheckInterval == 0)
+			checkIncumbentCost();
 		
-		for (int i = 0; i < iterations; i++) {
-			neighborhoodMove();
-			
-			howManyIterationsWithoutImprovement++;
-			if (is_feasible && bestSol.cost > incumbentSol.cost) {
-				howManyIterationsWithoutImprovement = 0;
-				bestSol = new Solution<E>(incumbentSol);
-				if (verbose)
-					logger.info("(Iter. " + i + ") BestSol = " + bestSol);
-			}
+		howManyIterationsWithoutImprovement++;
+		updateBestSol(i);
+		if (elitePool != null && is_feasible)
+			offerIncumbentSol();
 
-			if(this.method == INTENSIFICATION_METHOD && howManyIterationsWithoutImprovement >= intensification_max_iterations)
-			{
-				intensificateBestSolution();
-				howManyIterationsWithoutImprovement = 0;
-			}
+		if(this.method == INTENSIFICATION_METHOD && howManyIterationsWithoutImprovement >= intensification_max_iterations)
+		{
+			intensificateBestSolution();
+			howManyIterationsWithoutImprovement = 0;
+		}
+		
+		if (elitePool != null && pathRelinkingInterval > 0 && howManyIterationsWithoutImprovement >= pathRelinkingInterval) {
+			relinkEliteSolutions();
+			howManyIterationsWithoutImprovement = 0;
+			updateBestSol(i);
+		}
+	}
+	
+	/**
+	 * Replaces the best solution by the incumbent one if it is feasible and
+	 * better, notifying the listeners.
+	 * 
+	 * @param i
+	 *            the current iteration.
+	 */
+	private void updateBestSol(int i) {
+		if (is_feasible && bestSol.cost > incumbentSol.cost) {
+			howManyIterationsWithoutImprovement = 0;
+			bestSol = copySol(incumbentSol);
+			publishedBestSol = bestSol;
+			lastImprovementIteration = i;
+			if (verbose)
+				logger.info("(Iter. " + i + ") BestSol = " + bestSol);
+			for (BestSolutionListener<E> listener : bestSolutionListeners)
+				listener.newBestSolution(bestSol, i, getElapsedTime());
 		}
-
-		return bestSol;
 	}
 
 	/**
@@ -0,0 +1,27 @@
+package metaheuristics.tabusearch;
+
+import solutions.Solution;
+
+/**
+ * A listener notified of each new best solution found by a TS, as soon as it
+ * is found. It is called from the thread running the search.
+ *
+ * @param <E>
+ *            Generic type of the candidate to enter the solution.
+ */
+public interface BestSolutionListener<E> {
+
+	/**
+	 * Receives a new best solution.
+	 *
+	 * @param sol
+	 *            the new best solution, which is never modified by the
+	 *            search.
+	 * @param iteration
+	 *            the iteration in which the solution was found.
+	 * @param elapsedTime
+	 *            the time since the search started, in milliseconds.
+	 */
+	public abstract void newBestSolution(Solution<E> sol, int iteration, long elapsedTime);
+
+}
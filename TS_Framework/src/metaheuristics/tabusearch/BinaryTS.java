@@ -0,0 +1,1246 @@
+package metaheuristics.tabusearch;
+
+import static utils.Utils.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.logging.Logger;
+
+import problems.BinaryEvaluator;
+import solutions.BinarySolution;
+import solutions.Solution;
+import utils.BoundedLongHashSet;
+import utils.IntSet;
+import utils.ProibitedTuple;
+import utils.ProibitedTupleIndex;
+import utils.Utils;
+import utils.ZobristHash;
+
+/**
+ * Tabu Search for binary problems with prohibited triples, specialized for
+ * primitive types. It runs the same search as {@link AbstractTS} with the
+ * neighborhood of {@link problems.qbf.solvers.TS_QBFPT} (insertions, removals
+ * and 2-exchanges), but the elements are plain ints, the candidate list and
+ * the incumbent solution are {@link IntSet}s, the costs are doubles and the
+ * cost variations come from a {@link BinaryEvaluator}, so that an iteration of
+ * the main loop allocates no memory. Objects are only created when the best
+ * solution improves, to publish it.
+ *
+ * For a given seed, the search visits the same solutions as
+ * {@link problems.qbf.solvers.TS_QBFPT}.
+ *
+ * @author ccavellucci, fusberti
+ */
+public class BinaryTS implements SearchProgress {
+
+	/**
+	 * flag that indicates whether the code should print more information on
+	 * screen
+	 */
+	protected boolean verbose = true;
+
+	/**
+	 * the seed of the random number generator of this solver.
+	 */
+	protected long seed = AbstractTS.DEFAULT_SEED;
+
+	/**
+	 * a random number generator, owned by this solver so that concurrent
+	 * solvers do not share it.
+	 */
+	protected Random rng = new Random(AbstractTS.DEFAULT_SEED);
+
+	protected Logger logger;
+
+	/**
+	 * the objective function being optimized
+	 */
+	protected final BinaryEvaluator ObjFunction;
+
+	/**
+	 * the number of variables of the problem.
+	 */
+	protected final int domainSize;
+
+	/**
+	 * the number of iterations the TS main loop executes.
+	 */
+	protected final int iterations;
+
+	/**
+	 * the tabu tenure.
+	 */
+	protected final int tenure;
+
+	protected final int method;
+
+	protected final int searchMethod;
+
+	protected int intensification_max_iterations;
+
+	protected int how_many_recency_elements_to_take;
+
+	/**
+	 * the Candidate List of elements to enter the solution.
+	 */
+	protected final IntSet CL;
+
+	/**
+	 * the Restricted Candidate List of the constructive heuristic, in the
+	 * first {@link #rclSize} positions.
+	 */
+	private final int[] RCL;
+
+	private int rclSize;
+
+	/**
+	 * the cost variations of the exchanges of a candidate to enter with each
+	 * element of the incumbent solution.
+	 */
+	private final double[] exchangeDeltas;
+
+	/**
+	 * the incumbent solution
+	 */
+	protected final IntSet incumbentSol;
+
+	/**
+	 * the incumbent solution cost
+	 */
+	protected double incumbentCost;
+
+	/**
+	 * the elements of the best solution, in the first {@link #bestSize}
+	 * positions.
+	 */
+	protected final int[] bestSol;
+
+	protected int bestSize;
+
+	/**
+	 * the best solution cost
+	 */
+	protected double bestCost;
+
+	/**
+	 * the tabu memory.
+	 */
+	protected TabuMemory tabuMemory;
+
+	/**
+	 * the current iteration of the TS main loop.
+	 */
+	protected int currentIteration;
+
+	protected List<ProibitedTuple> listOfProibitedTuples;
+
+	/**
+	 * the index of the prohibited triples, kept synchronized with the
+	 * incumbent solution.
+	 */
+	protected ProibitedTupleIndex proibitedTupleIndex;
+
+	/**
+	 * the penalties of the oscillation method, kept synchronized with the
+	 * incumbent solution.
+	 */
+	protected StrategicOscillation oscillation;
+
+	/**
+	 * the Zobrist hash of the incumbent solution, kept synchronized with it.
+	 */
+	protected final ZobristHash solutionHash;
+
+	/**
+	 * the hashes of the solutions visited by the search, or null if they are
+	 * not remembered.
+	 */
+	protected BoundedLongHashSet visitedMemory;
+
+	/**
+	 * flag that indicates whether the moves leading to a visited solution are
+	 * left out of the neighborhood while the memory of the visited solutions
+	 * is on, which is not the case in the reactive mode.
+	 */
+	protected boolean avoidVisited = true;
+
+	/**
+	 * the number of iterations which ended in a solution already visited.
+	 */
+	protected int revisits;
+
+	/**
+	 * the tenure controller of the reactive mode, or null if the tabu tenure
+	 * is fixed, see {@link #setReactiveTenure(int, int)}.
+	 */
+	protected ReactiveTenure reactiveTenure;
+
+	/**
+	 * flag that indicates whether the memory of the visited solutions was
+	 * turned on by the reactive mode, which then turns it off with itself.
+	 */
+	private boolean reactiveVisitedMemory = false;
+
+	/**
+	 * whether the moves leading to visited solutions were left out of the
+	 * neighborhood before the reactive mode was turned on.
+	 */
+	private boolean avoidVisitedBeforeReactive = true;
+
+	/**
+	 * the pool of elite solutions, or null if there is no path relinking,
+	 * see {@link #setElitePool(ElitePool, int)}.
+	 */
+	protected ElitePool elitePool;
+
+	/**
+	 * the number of iterations without improvement after which a path
+	 * relinking takes place, or zero if the elite pool is only fed.
+	 */
+	protected int pathRelinkingInterval;
+
+	/**
+	 * the buffers receiving the elements of the incumbent solution offered to
+	 * the elite pool and the elements of a relinking path.
+	 */
+	private final int[] eliteBuffer, relinkingPath;
+
+	protected boolean is_feasible;
+
+	/**
+	 * the frequency memory of the intensification method.
+	 */
+	protected final FrequencyMemory frequencyMemory;
+
+	/**
+	 * the buffer receiving the most frequent elements at an intensification.
+	 */
+	private int[] mostFrequent = new int[0];
+
+	/**
+	 * the best move found by {@link #localSearch()}: the elements to enter
+	 * and to leave the solution, or -1 for none, and its cost variation.
+	 */
+	private int bestCandIn, bestCandOut;
+
+	private double minDeltaCost;
+
+	/**
+	 * flag set by another thread to make the TS main loop stop at the next
+	 * iteration.
+	 */
+	private volatile boolean stopRequested = false;
+
+	/**
+	 * the best solution found so far, published to other threads.
+	 */
+	private volatile BinarySolution publishedBestSol;
+
+	/**
+	 * the criteria which stop the TS main loop besides the number of
+	 * iterations.
+	 */
+	protected List<TerminationCriterion> terminationCriteria = new ArrayList<TerminationCriterion>();
+
+	/**
+	 * the listeners notified of each new best solution.
+	 */
+	protected List<BestSolutionListener<Integer>> bestSolutionListeners = new ArrayList<BestSolutionListener<Integer>>();
+
+	/**
+	 * the number of iterations since the best solution was improved or the
+	 * search was intensified.
+	 */
+	protected int howManyIterationsWithoutImprovement;
+
+	/**
+	 * the instant the search started, in milliseconds.
+	 */
+	protected long startTime;
+
+	/**
+	 * the last iteration in which the best solution was improved.
+	 */
+	protected int lastImprovementIteration;
+
+	/**
+	 * the number of iterations between two full evaluations of the incumbent
+	 * solution, or zero for none.
+	 */
+	protected int costCheckInterval = 0;
+
+	/**
+	 * flag that indicates whether the neighborhood only contains moves which
+	 * keep the incumbent solution feasible.
+	 */
+	protected boolean feasibleNeighborhood = false;
+
+	/**
+	 * the number of candidates kept in each short list of the candidate-list
+	 * strategy, or zero if every exchange is evaluated.
+	 */
+	protected int candidateListSize = 0;
+
+	/**
+	 * the short lists of the candidate-list strategy.
+	 */
+	private CandidateShortList shortListIn, shortListOut;
+
+	/**
+	 * Constructor for the BinaryTS class.
+	 *
+	 * @param objFunction
+	 *            The objective function being minimized.
+	 * @param tenure
+	 *            The Tabu tenure parameter.
+	 * @param iterations
+	 *            The number of iterations which the TS will be executed.
+	 */
+	public BinaryTS(Logger logger, BinaryEvaluator objFunction, Integer tenure, Integer method, Integer searchMethod, Integer iterations) {
+		this.logger = logger;
+		this.ObjFunction = objFunction;
+		this.domainSize = objFunction.getDomainSize();
+		this.tenure = tenure;
+		this.iterations = iterations;
+		this.method = method;
+		this.searchMethod = searchMethod;
+		this.CL = new IntSet(domainSize);
+		this.RCL = new int[domainSize];
+		this.exchangeDeltas = new double[domainSize];
+		this.incumbentSol = new IntSet(domainSize);
+		this.bestSol = new int[domainSize];
+		this.frequencyMemory = new FrequencyMemory(domainSize);
+		this.solutionHash = new ZobristHash(domainSize);
+		this.eliteBuffer = new int[domainSize];
+		this.relinkingPath = new int[domainSize];
+		setProibitedTuples(Utils.getProibitedTuples(domainSize));
+	}
+
+	public BinaryTS(Logger logger, BinaryEvaluator objFunction, Integer tenure, Integer method, Integer searchMethod, Integer iterations, Integer intensification_max_iterations, Integer how_many_recency_elements_to_take) {
+		this(logger, objFunction, tenure, method, searchMethod, iterations);
+		this.intensification_max_iterations = intensification_max_iterations;
+		this.how_many_recency_elements_to_take = how_many_recency_elements_to_take;
+	}
+
+	/**
+	 * Replaces the prohibited triples of the problem, e.g., by the ones of a
+	 * shared instance, rebuilding their index and the oscillation penalties.
+	 *
+	 * @param proibitedTuples
+	 *            the prohibited triples.
+	 */
+	protected void setProibitedTuples(List<ProibitedTuple> proibitedTuples) {
+		int budget = (oscillation == null) ? 0 : oscillation.getBudget();
+		this.listOfProibitedTuples = proibitedTuples;
+		this.proibitedTupleIndex = new ProibitedTupleIndex(proibitedTuples, domainSize);
+		this.oscillation = new StrategicOscillation(proibitedTupleIndex, domainSize);
+		this.oscillation.setBudget(budget);
+	}
+
+	/**
+	 * Sets the infeasibility budget of the oscillation method, see
+	 * {@link AbstractTS#setInfeasibilityBudget(int)}.
+	 *
+	 * @param budget
+	 *            the number of iterations, or zero for no limit.
+	 */
+	public void setInfeasibilityBudget(int budget) {
+		oscillation.setBudget(budget);
+	}
+
+	/**
+	 * Gives the distance of the incumbent solution to the feasible region,
+	 * see {@link StrategicOscillation#getFeasibilityDistance()}.
+	 *
+	 * @return the number of violated triples.
+	 */
+	public int getFeasibilityDistance() {
+		return oscillation.getFeasibilityDistance();
+	}
+
+	/**
+	 * Turns on or off the long-term memory of the visited solutions, see
+	 * {@link AbstractTS#setVisitedMemory(Integer)}.
+	 *
+	 * @param capacity
+	 *            the maximum number of solutions remembered, or zero to turn
+	 *            the memory off.
+	 */
+	public void setVisitedMemory(int capacity) {
+		this.visitedMemory = (capacity > 0) ? new BoundedLongHashSet(capacity) : null;
+		this.reactiveVisitedMemory = false;
+	}
+
+	/**
+	 * Gives the number of iterations which ended in a solution already
+	 * visited.
+	 *
+	 * @return the number of revisits, which is zero if the memory is off.
+	 */
+	public int getRevisitCount() {
+		return revisits;
+	}
+
+	/**
+	 * Tests whether a move leads to a solution remembered by the memory of
+	 * the visited solutions, while such moves are left out of the
+	 * neighborhood.
+	 *
+	 * @param in
+	 *            the element entering the solution, or -1.
+	 * @param out
+	 *            the element leaving the solution, or -1.
+	 * @return true if the move should be skipped.
+	 */
+	protected boolean leadsToVisited(int in, int out) {
+		if (visitedMemory == null || !avoidVisited)
+			return false;
+		long hash = solutionHash.getHash();
+		if (in != -1 && in != out && !incumbentSol.contains(in))
+			hash ^= solutionHash.getKey(in);
+		if (out != -1 && out != in && incumbentSol.contains(out))
+			hash ^= solutionHash.getKey(out);
+		return visitedMemory.contains(hash);
+	}
+
+	/**
+	 * Remembers the incumbent solution in the memory of the visited
+	 * solutions, counting a revisit if it was already there.
+	 *
+	 * @return true if the incumbent solution was already visited.
+	 */
+	protected boolean rememberIncumbentSol() {
+		if (visitedMemory == null || visitedMemory.add(solutionHash.getHash()))
+			return false;
+		revisits++;
+		return true;
+	}
+
+	/**
+	 * Turns on or off the reactive mode, in which the tabu tenure adapts
+	 * itself to the search, see
+	 * {@link AbstractTS#setReactiveTenure(Integer, Integer)}.
+	 *
+	 * @param minTenure
+	 *            the smallest tenure, or zero to turn the reactive mode off.
+	 * @param maxTenure
+	 *            the largest tenure.
+	 */
+	public void setReactiveTenure(int minTenure, int maxTenure) {
+		if (minTenure == 0) {
+			if (reactiveTenure == null)
+				return;
+			this.reactiveTenure = null;
+			if (reactiveVisitedMemory)
+				setVisitedMemory(0);
+			this.avoidVisited = avoidVisitedBeforeReactive;
+			return;
+		}
+		if (reactiveTenure == null) {
+			this.avoidVisitedBeforeReactive = avoidVisited;
+			if (visitedMemory == null) {
+				setVisitedMemory(ReactiveTenure.VISITED_MEMORY);
+				this.reactiveVisitedMemory = true;
+			}
+		}
+		this.reactiveTenure = new ReactiveTenure(minTenure, maxTenure);
+		this.avoidVisited = false;
+	}
+
+	/**
+	 * Turns on or off the elite pool and the path relinking, see
+	 * {@link AbstractTS#setElitePool(ElitePool, Integer)}.
+	 *
+	 * @param elitePool
+	 *            the pool of elite solutions, or null to turn both off.
+	 * @param pathRelinkingInterval
+	 *            the number of iterations without improvement before a path
+	 *            relinking, or zero to only feed the pool.
+	 */
+	public void setElitePool(ElitePool elitePool, int pathRelinkingInterval) {
+		this.elitePool = elitePool;
+		this.pathRelinkingInterval = pathRelinkingInterval;
+	}
+
+	/**
+	 * Gives the pool of elite solutions.
+	 *
+	 * @return the elite pool, or null if it is off.
+	 */
+	public ElitePool getElitePool() {
+		return elitePool;
+	}
+
+	/**
+	 * Offers the incumbent solution to the elite pool, which is only copied
+	 * if it may enter the pool.
+	 */
+	protected void offerIncumbentSol() {
+		if (!elitePool.accepts(incumbentCost))
+			return;
+		incumbentSol.copyTo(eliteBuffer);
+		elitePool.offer(incumbentCost, eliteBuffer, incumbentSol.size());
+	}
+
+	/**
+	 * Path relinking between two elite solutions picked at random, as in
+	 * {@link AbstractTS#relinkEliteSolutions()}.
+	 */
+	protected void relinkEliteSolutions() {
+		ElitePool.Entry[] pair = elitePool.selectPair(rng);
+		if (pair == null)
+			return;
+		ElitePool.Entry initiating = pair[0], guiding = pair[1];
+
+		int d = 0;
+		for (int elem = 0; elem < domainSize; elem++) {
+			if (initiating.contains(elem) != guiding.contains(elem))
+				relinkingPath[d++] = elem;
+		}
+		int first = Math.max(1, d / 3), last = d - first;
+		if (first > last)
+			return;
+
+		for (int k = 0; k < initiating.size(); k++)
+			eliteBuffer[k] = initiating.get(k);
+		setIncumbentSol(eliteBuffer, initiating.size());
+
+		int target = first;
+		double targetCost = Double.POSITIVE_INFINITY;
+		boolean targetFeasible = false;
+		for (int step = 1; step <= last; step++) {
+			/* the elements not moved yet are in relinkingPath[step-1 .. d-1] */
+			int bestK = step - 1;
+			double minDeltaCost = Double.POSITIVE_INFINITY;
+			for (int k = step - 1; k < d; k++) {
+				int elem = relinkingPath[k];
+				double deltaCost = incumbentSol.contains(elem) ? ObjFunction.evaluateRemovalCost(elem) : ObjFunction.evaluateInsertionCost(elem);
+				if (deltaCost < minDeltaCost) {
+					minDeltaCost = deltaCost;
+					bestK = k;
+				}
+			}
+			int moved = relinkingPath[bestK];
+			relinkingPath[bestK] = relinkingPath[step - 1];
+			relinkingPath[step - 1] = moved;
+			toggleInSolution(moved);
+
+			if (step >= first) {
+				boolean feasible = oscillation.isFeasible();
+				if ((feasible && !targetFeasible) || (feasible == targetFeasible && incumbentCost < targetCost)) {
+					target = step;
+					targetCost = incumbentCost;
+					targetFeasible = feasible;
+				}
+			}
+		}
+		for (int step = last; step > target; step--)
+			toggleInSolution(relinkingPath[step - 1]);
+		if (method != OSCILATION_METHOD)
+			repairSolution();
+
+		CL.clear();
+		for (int elem = 0; elem < domainSize; elem++) {
+			if (!incumbentSol.contains(elem))
+				CL.add(elem);
+		}
+		tabuMemory.clear();
+		if (method == INTENSIFICATION_METHOD)
+			frequencyMemory.clear();
+		is_feasible = oscillation.isFeasible();
+	}
+
+	/**
+	 * Inserts an element into the incumbent solution if it is not there, or
+	 * removes it otherwise.
+	 */
+	private void toggleInSolution(int elem) {
+		if (incumbentSol.contains(elem))
+			removeFromSolution(elem);
+		else
+			insertIntoSolution(elem);
+	}
+
+	/**
+	 * Gives the current tabu tenure, which changes during the search in the
+	 * reactive mode.
+	 *
+	 * @return the tabu tenure.
+	 */
+	public int getTenure() {
+		return (tabuMemory != null) ? tabuMemory.getTenure() : tenure;
+	}
+
+	/**
+	 * Requests the TS main loop to stop at the next iteration, returning the
+	 * best solution found so far. It may be called from any thread.
+	 */
+	public void requestStop() {
+		stopRequested = true;
+	}
+
+	/**
+	 * Gives the best solution found so far by a search, which may still be
+	 * running in another thread. The solution returned is never modified by
+	 * the search.
+	 *
+	 * @return the best solution found so far, or null if the search has not
+	 *         started.
+	 */
+	public Solution<Integer> getBestSol() {
+		return publishedBestSol;
+	}
+
+	/**
+	 * Adds a criterion which stops the search, e.g., one of the
+	 * {@link TerminationCriteria}.
+	 *
+	 * @param criterion
+	 *            the termination criterion.
+	 */
+	public void addTerminationCriterion(TerminationCriterion criterion) {
+		terminationCriteria.add(criterion);
+	}
+
+	/**
+	 * Adds a listener notified of each new best solution as soon as it is
+	 * found.
+	 *
+	 * @param listener
+	 *            the listener.
+	 */
+	public void addBestSolutionListener(BestSolutionListener<Integer> listener) {
+		bestSolutionListeners.add(listener);
+	}
+
+	/* (non-Javadoc)
+	 * @see metaheuristics.tabusearch.SearchProgress#getCurrentIteration()
+	 */
+	@Override
+	public int getCurrentIteration() {
+		return currentIteration;
+	}
+
+	/* (non-Javadoc)
+	 * @see metaheuristics.tabusearch.SearchProgress#getIterationsWithoutImprovement()
+	 */
+	@Override
+	public int getIterationsWithoutImprovement() {
+		return currentIteration - lastImprovementIteration;
+	}
+
+	/* (non-Javadoc)
+	 * @see metaheuristics.tabusearch.SearchProgress#getElapsedTime()
+	 */
+	@Override
+	public long getElapsedTime() {
+		return System.currentTimeMillis() - startTime;
+	}
+
+	/* (non-Javadoc)
+	 * @see metaheuristics.tabusearch.SearchProgress#getBestCost()
+	 */
+	@Override
+	public Double getBestCost() {
+		Solution<Integer> sol = publishedBestSol;
+		return (sol == null) ? null : sol.cost;
+	}
+
+	/**
+	 * Gives the cost of the incumbent solution.
+	 *
+	 * @return the incumbent cost.
+	 */
+	public double getIncumbentCost() {
+		return incumbentCost;
+	}
+
+	/**
+	 * Tests whether the search should stop before the next iteration, either
+	 * because a stop was requested or a termination criterion is met.
+	 *
+	 * @return true if the search should stop.
+	 */
+	protected boolean shouldStop() {
+		if (stopRequested)
+			return true;
+		for (int k = 0; k < terminationCriteria.size(); k++) {
+			if (terminationCriteria.get(k).isMet(this))
+				return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Sets whether the solver should log each new best solution found.
+	 *
+	 * @param verbose
+	 *            true to log the best solutions.
+	 */
+	public void setVerbose(boolean verbose) {
+		this.verbose = verbose;
+	}
+
+	/**
+	 * Sets the seed of the random number generator.
+	 *
+	 * @param seed
+	 *            the seed.
+	 */
+	public void setSeed(long seed) {
+		this.seed = seed;
+		this.rng = new Random(seed);
+	}
+
+	/**
+	 * Gives the seed of the random number generator.
+	 *
+	 * @return the seed.
+	 */
+	public long getSeed() {
+		return seed;
+	}
+
+	/**
+	 * Sets the logger used by the solver.
+	 *
+	 * @param logger
+	 *            the logger.
+	 */
+	public void setLogger(Logger logger) {
+		this.logger = logger;
+	}
+
+	/**
+	 * Sets how often the cost of the incumbent solution, which is updated
+	 * from the cost variation of each move, is checked against a full
+	 * evaluation, see {@link AbstractTS#setCostCheckInterval(int)}.
+	 *
+	 * @param costCheckInterval
+	 *            the number of iterations between two checks, or zero for
+	 *            none.
+	 */
+	public void setCostCheckInterval(int costCheckInterval) {
+		this.costCheckInterval = costCheckInterval;
+	}
+
+	/**
+	 * Turns on or off the feasible neighborhood mode of the default and the
+	 * intensification methods, see
+	 * {@link AbstractTS#setFeasibleNeighborhood(Boolean)}.
+	 *
+	 * @param feasibleNeighborhood
+	 *            true to scan only the feasible moves.
+	 */
+	public void setFeasibleNeighborhood(boolean feasibleNeighborhood) {
+		this.feasibleNeighborhood = feasibleNeighborhood;
+	}
+
+	/**
+	 * Turns on or off the candidate-list strategy, see
+	 * {@link AbstractTS#setCandidateListSize(Integer)}.
+	 *
+	 * @param candidateListSize
+	 *            the number of candidates kept in each short list, or zero to
+	 *            evaluate every exchange.
+	 */
+	public void setCandidateListSize(int candidateListSize) {
+		this.candidateListSize = candidateListSize;
+		if (candidateListSize > 0) {
+			shortListIn = new CandidateShortList(candidateListSize);
+			shortListOut = new CandidateShortList(candidateListSize);
+		}
+	}
+
+	/**
+	 * Replaces the incumbent solution by the best solution, synchronizing the
+	 * objective function and the index of the prohibited triples with it, and
+	 * evaluates it.
+	 */
+	protected void restoreBestSol() {
+		setIncumbentSol(bestSol, bestSize);
+	}
+
+	/**
+	 * Replaces the incumbent solution, synchronizing the objective function
+	 * and the index of the prohibited triples with it, and evaluates it.
+	 *
+	 * @param elements
+	 *            the elements of the new incumbent solution.
+	 * @param count
+	 *            the number of elements.
+	 */
+	protected void setIncumbentSol(int[] elements, int count) {
+		incumbentSol.clear();
+		ObjFunction.reset();
+		proibitedTupleIndex.clear();
+		solutionHash.clear();
+		for (int k = 0; k < count; k++) {
+			int elem = elements[k];
+			incumbentSol.add(elem);
+			ObjFunction.insert(elem);
+			proibitedTupleIndex.insert(elem);
+			solutionHash.toggle(elem);
+		}
+		oscillation.reset();
+		incumbentCost = ObjFunction.evaluate();
+	}
+
+	/**
+	 * Checks the cost of the incumbent solution against a full evaluation,
+	 * keeping the evaluated one.
+	 */
+	protected void checkIncumbentCost() {
+		double cost = ObjFunction.evaluate();
+		if (Math.abs(incumbentCost - cost) > AbstractTS.COST_DRIFT_TOLERANCE * Math.max(1.0, Math.abs(cost)))
+			logger.warning("(Iter. " + currentIteration + ") Incremental cost drift: tracked " + incumbentCost + ", evaluated " + cost);
+		incumbentCost = cost;
+	}
+
+	/**
+	 * Inserts an element into the incumbent solution, keeping the objective
+	 * function, the index of the prohibited triples and the incumbent cost up
+	 * to date.
+	 *
+	 * @param elem
+	 *            the element to be inserted.
+	 */
+	protected void insertIntoSolution(int elem) {
+		double deltaCost = ObjFunction.evaluateInsertionCost(elem);
+		if (!incumbentSol.add(elem))
+			return;
+		incumbentCost += deltaCost;
+		proibitedTupleIndex.insert(elem);
+		oscillation.inserted(elem);
+		solutionHash.toggle(elem);
+		ObjFunction.insert(elem);
+	}
+
+	/**
+	 * Removes an element from the incumbent solution, keeping the objective
+	 * function, the index of the prohibited triples and the incumbent cost up
+	 * to date.
+	 *
+	 * @param elem
+	 *            the element to be removed.
+	 */
+	protected void removeFromSolution(int elem) {
+		double deltaCost = ObjFunction.evaluateRemovalCost(elem);
+		if (!incumbentSol.remove(elem))
+			return;
+		incumbentCost += deltaCost;
+		proibitedTupleIndex.remove(elem);
+		oscillation.removed(elem);
+		solutionHash.toggle(elem);
+		ObjFunction.remove(elem);
+	}
+
+	/**
+	 * Tests whether an element is tabu.
+	 *
+	 * @param elem
+	 *            the element.
+	 * @return true if the element is tabu.
+	 */
+	protected boolean isTabu(int elem) {
+		return tabuMemory.isTabu(elem, currentIteration);
+	}
+
+	/**
+	 * Removes elements from the incumbent solution until no prohibited triple
+	 * is violated. The violated triples are taken in increasing order, and
+	 * from each one the element whose removal is the cheapest leaves the
+	 * solution.
+	 */
+	protected void repairSolution() {
+		int t;
+		while ((t = proibitedTupleIndex.getFirstViolated()) != -1) {
+			double minDeltaCost = Double.POSITIVE_INFINITY;
+			int candToRemove = -1;
+			for (int k = 0; k < 3; k++) {
+				int cand = proibitedTupleIndex.getMember(t, k);
+				double deltaCost = ObjFunction.evaluateRemovalCost(cand);
+				if (deltaCost < minDeltaCost) {
+					candToRemove = cand;
+					minDeltaCost = deltaCost;
+				}
+			}
+			removeFromSolution(candToRemove);
+
+			if (method == INTENSIFICATION_METHOD)
+				frequencyMemory.forget(candToRemove);
+		}
+	}
+
+	/**
+	 * Closes an iteration of the oscillation method, as in
+	 * {@link AbstractTS#updateViolationPenalties()}.
+	 */
+	protected void updateViolationPenalties() {
+		oscillation.endIteration();
+		if (oscillation.isBudgetExhausted()) {
+			repairSolution();
+			oscillation.endIteration();
+		}
+
+		is_feasible = oscillation.isFeasible();
+	}
+
+	/**
+	 * Records one more iteration of each element of the incumbent solution
+	 * in the frequency memory.
+	 */
+	private void updateFrequencyMemory() {
+		for (int k = 0; k < incumbentSol.size(); k++) {
+			frequencyMemory.record(incumbentSol.get(k));
+		}
+	}
+
+	/**
+	 * The TS constructive heuristic, which builds a solution by inserting, in
+	 * a greedy fashion, one of the candidates of least cost variation at a
+	 * time, while the solution improves.
+	 */
+	public void constructiveHeuristic() {
+
+		CL.clear();
+		for (int i = 0; i < domainSize; i++) {
+			CL.add(i);
+		}
+		incumbentSol.clear();
+		ObjFunction.reset();
+		proibitedTupleIndex.clear();
+		oscillation.reset();
+		solutionHash.clear();
+		incumbentCost = 0.0;
+		double previousCost = Double.POSITIVE_INFINITY;
+
+		while (previousCost > incumbentCost && CL.size() > 0) {
+
+			double minCost = Double.POSITIVE_INFINITY;
+			previousCost = incumbentCost;
+			repairSolution();
+
+			for (int k = 0; k < CL.size(); k++) {
+				double deltaCost = ObjFunction.evaluateInsertionCost(CL.get(k));
+				if (deltaCost < minCost)
+					minCost = deltaCost;
+			}
+
+			rclSize = 0;
+			for (int k = 0; k < CL.size(); k++) {
+				int cand = CL.get(k);
+				if (ObjFunction.evaluateInsertionCost(cand) <= minCost)
+					RCL[rclSize++] = cand;
+			}
+
+			int inCand = RCL[rng.nextInt(rclSize)];
+			CL.remove(inCand);
+			insertIntoSolution(inCand);
+
+		}
+
+		if (method == INTENSIFICATION_METHOD)
+			updateFrequencyMemory();
+	}
+
+	/**
+	 * Scans the neighborhood of the incumbent solution (insertions, removals
+	 * and 2-exchanges) for the best admissible move, or the first improving
+	 * one with {@link utils.Utils#FIRST_IMPROVEMENT}, leaving it in
+	 * {@link #bestCandIn}, {@link #bestCandOut} and {@link #minDeltaCost}.
+	 */
+	private void localSearch() {
+
+		int numIn = CL.size(), numOut = incumbentSol.size();
+		double cost = incumbentCost;
+		boolean filter = feasibleNeighborhood && method != OSCILATION_METHOD;
+		boolean shortLists = candidateListSize > 0;
+		minDeltaCost = Double.POSITIVE_INFINITY;
+		bestCandIn = -1;
+		bestCandOut = -1;
+		if (shortLists) {
+			shortListIn.clear();
+			shortListOut.clear();
+		}
+
+		// Evaluate insertions
+		for (int a = 0; a < numIn; a++) {
+			int candIn = CL.get(a);
+			double deltaCost = ObjFunction.evaluateInsertionCost(candIn);
+			if (shortLists)
+				shortListIn.offer(a, deltaCost);
+			if (filter && proibitedTupleIndex.completesTuple(candIn))
+				continue;
+			if (!isTabu(candIn) || cost + deltaCost < bestCost) {
+				if (deltaCost < minDeltaCost && !leadsToVisited(candIn, -1)) {
+					minDeltaCost = deltaCost;
+					bestCandIn = candIn;
+					bestCandOut = -1;
+
+					if (searchMethod == FIRST_IMPROVEMENT) return;
+				}
+			}
+		}
+		// Evaluate removals
+		for (int b = 0; b < numOut; b++) {
+			int candOut = incumbentSol.get(b);
+			double deltaCost = ObjFunction.evaluateRemovalCost(candOut);
+			if (shortLists)
+				shortListOut.offer(b, deltaCost);
+			if (!isTabu(candOut) || cost + deltaCost < bestCost) {
+				double penalizedDeltaCost = deltaCost - oscillation.getPenalty(candOut);
+				if (penalizedDeltaCost < minDeltaCost && !leadsToVisited(-1, candOut)) {
+					minDeltaCost = penalizedDeltaCost;
+					bestCandIn = -1;
+					bestCandOut = candOut;
+
+					if (searchMethod == FIRST_IMPROVEMENT) return;
+				}
+			}
+		}
+		// Evaluate exchanges
+		if (shortLists) {
+			shortListExchanges();
+			return;
+		}
+		for (int a = 0; a < numIn; a++) {
+			int candIn = CL.get(a);
+			boolean tabuIn = isTabu(candIn);
+			int blocking = filter ? proibitedTupleIndex.getCompletedTuple(candIn) : -1;
+			ObjFunction.evaluateExchangeCosts(candIn, incumbentSol, exchangeDeltas);
+			for (int b = 0; b < numOut; b++) {
+				int candOut = incumbentSol.get(b);
+				if (blocking != -1 && (!proibitedTupleIndex.isMember(blocking, candOut) || proibitedTupleIndex.completesTuple(candIn, candOut)))
+					continue;
+				double deltaCost = exchangeDeltas[b];
+				if ((!tabuIn && !isTabu(candOut)) || cost + deltaCost < bestCost) {
+					if (deltaCost < minDeltaCost && !leadsToVisited(candIn, candOut)) {
+						minDeltaCost = deltaCost;
+						bestCandIn = candIn;
+						bestCandOut = candOut;
+
+						if (searchMethod == FIRST_IMPROVEMENT) return;
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Evaluates the exchanges between the short lists of the candidate-list
+	 * strategy, in increasing order of cost variation, stopping the visit of
+	 * the candidates to leave as soon as the sum of the halves of the
+	 * exchange minus the interaction bound of the candidate to enter cannot
+	 * beat {@link #minDeltaCost}.
+	 */
+	private void shortListExchanges() {
+
+		double cost = incumbentCost;
+		boolean filter = feasibleNeighborhood && method != OSCILATION_METHOD;
+		shortListIn.sort();
+		shortListOut.sort();
+
+		for (int p = 0; p < shortListIn.size(); p++) {
+			int candIn = CL.get(shortListIn.getPosition(p));
+			boolean tabuIn = isTabu(candIn);
+			double lowerBound = shortListIn.getDelta(p) - ObjFunction.getInteractionBound(candIn);
+			int blocking = filter ? proibitedTupleIndex.getCompletedTuple(candIn) : -1;
+			for (int q = 0; q < shortListOut.size(); q++) {
+				if (lowerBound + shortListOut.getDelta(q) >= minDeltaCost)
+					break;
+				int candOut = incumbentSol.get(shortListOut.getPosition(q));
+				if (blocking != -1 && (!proibitedTupleIndex.isMember(blocking, candOut) || proibitedTupleIndex.completesTuple(candIn, candOut)))
+					continue;
+				double deltaCost = ObjFunction.evaluateExchangeCost(candIn, candOut);
+				if ((!tabuIn && !isTabu(candOut)) || cost + deltaCost < bestCost) {
+					if (deltaCost < minDeltaCost && !leadsToVisited(candIn, candOut)) {
+						minDeltaCost = deltaCost;
+						bestCandIn = candIn;
+						bestCandOut = candOut;
+
+						if (searchMethod == FIRST_IMPROVEMENT) return;
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Performs the best admissible move of the neighborhood, repairing the
+	 * solution afterwards or, in the oscillation method, updating the
+	 * penalties of the violated triples instead.
+	 */
+	public void neighborhoodMove() {
+
+		if (method != OSCILATION_METHOD) repairSolution();
+
+		localSearch();
+		if (bestCandIn == -1 && bestCandOut == -1 && visitedMemory != null && avoidVisited) {
+			// every admissible move leads to a visited solution
+			avoidVisited = false;
+			localSearch();
+			avoidVisited = true;
+		}
+
+		if (bestCandOut != -1) {
+			removeFromSolution(bestCandOut);
+			if (method == INTENSIFICATION_METHOD)
+				frequencyMemory.forget(bestCandOut);
+			CL.add(bestCandOut);
+			tabuMemory.makeTabu(bestCandOut, currentIteration);
+		}
+		if (bestCandIn != -1) {
+			insertIntoSolution(bestCandIn);
+			CL.remove(bestCandIn);
+			tabuMemory.makeTabu(bestCandIn, currentIteration);
+		}
+
+		if (method == OSCILATION_METHOD) {
+			updateViolationPenalties();
+		} else {
+			repairSolution();
+		}
+
+		if (method == INTENSIFICATION_METHOD) updateFrequencyMemory();
+	}
+
+	/**
+	 * Restarts the search from the best solution, making tabu the
+	 * {@link #how_many_recency_elements_to_take} elements which stayed longest
+	 * in the incumbent solution, and clears the frequency memory.
+	 */
+	private void intensificateBestSolution() {
+
+		restoreBestSol();
+		tabuMemory.clear();
+
+		if (mostFrequent.length < how_many_recency_elements_to_take)
+			mostFrequent = new int[how_many_recency_elements_to_take];
+		int qtd = frequencyMemory.selectMostFrequent(how_many_recency_elements_to_take, mostFrequent);
+		for (int k = 0; k < qtd; k++) {
+			tabuMemory.makeTabu(mostFrequent[k], currentIteration);
+		}
+		frequencyMemory.clear();
+	}
+
+	/**
+	 * The TS mainframe. It consists of a constructive heuristic followed by
+	 * a loop, in which each iteration a neighborhood move is performed on
+	 * the current solution. The best solution is returned as result.
+	 *
+	 * @return The best feasible solution obtained throughout all iterations.
+	 */
+	public Solution<Integer> solve() {
+
+		initialize();
+
+		for (int i = 0; i < iterations; i++) {
+			currentIteration = i;
+			if (shouldStop())
+				break;
+			iterate();
+		}
+
+		return publishedBestSol;
+	}
+
+	/**
+	 * Prepares the search: builds the initial solution with the constructive
+	 * heuristic and resets the memories of the TS. It is the first step of
+	 * {@link #solve()}, exposed so that single iterations can be driven from
+	 * outside, e.g., by benchmarks.
+	 */
+	public void initialize() {
+
+		startTime = System.currentTimeMillis();
+		currentIteration = 0;
+		lastImprovementIteration = 0;
+		howManyIterationsWithoutImprovement = 0;
+		bestSize = 0;
+		bestCost = 0.0;
+		publishBestSol();
+		frequencyMemory.clear();
+		constructiveHeuristic();
+		tabuMemory = new TabuMemory(domainSize, tenure);
+		if (reactiveTenure != null)
+			tabuMemory.setTenure(reactiveTenure.reset(tenure));
+		oscillation.reset();
+		revisits = 0;
+		if (visitedMemory != null) {
+			visitedMemory.clear();
+			rememberIncumbentSol();
+		}
+
+		is_feasible = true;
+	}
+
+	/**
+	 * Performs one iteration of the TS main loop at iteration
+	 * {@link #currentIteration}: a neighborhood move followed by the update
+	 * of the best solution and, in the intensification method, by the
+	 * restart from the best solution when the search stagnates, or by a path
+	 * relinking when the elite pool is on.
+	 */
+	public void iterate() {
+
+		int i = currentIteration;
+		neighborhoodMove();
+		boolean repeated = rememberIncumbentSol();
+		if (reactiveTenure != null)
+			tabuMemory.setTenure(reactiveTenure.update(repeated, i));
+		if (costCheckInterval > 0 && (i + 1) % costCheckInterval == 0)
+			checkIncumbentCost();
+
+		howManyIterationsWithoutImprovement++;
+		updateBestSol(i);
+		if (elitePool != null && is_feasible)
+			offerIncumbentSol();
+
+		if (method == INTENSIFICATION_METHOD && howManyIterationsWithoutImprovement >= intensification_max_iterations) {
+			intensificateBestSolution();
+			howManyIterationsWithoutImprovement = 0;
+		}
+
+		if (elitePool != null && pathRelinkingInterval > 0 && howManyIterationsWithoutImprovement >= pathRelinkingInterval) {
+			relinkEliteSolutions();
+			howManyIterationsWithoutImprovement = 0;
+			updateBestSol(i);
+		}
+	}
+
+	/**
+	 * Replaces the best solution by the incumbent one if it is feasible and
+	 * better, notifying the listeners.
+	 *
+	 * @param i
+	 *            the current iteration.
+	 */
+	private void updateBestSol(int i) {
+		if (is_feasible && bestCost > incumbentCost) {
+			howManyIterationsWithoutImprovement = 0;
+			incumbentSol.copyTo(bestSol);
+			bestSize = incumbentSol.size();
+			bestCost = incumbentCost;
+			publishBestSol();
+			lastImprovementIteration = i;
+			if (verbose)
+				logger.info("(Iter. " + i + ") BestSol = " + publishedBestSol);
+			for (int k = 0; k < bestSolutionListeners.size(); k++)
+				bestSolutionListeners.get(k).newBestSolution(publishedBestSol, i, getElapsedTime());
+		}
+	}
+
+	/**
+	 * Publishes a copy of the best solution to other threads.
+	 */
+	private void publishBestSol() {
+		BinarySolution sol = new BinarySolution(domainSize);
+		for (int k = 0; k < bestSize; k++) {
+			sol.add(bestSol[k]);
+		}
+		sol.cost = bestCost;
+		publishedBestSol = sol;
+	}
+
+}
@@ -0,0 +1,169 @@
+package metaheuristics.tabusearch;
+
+/**
+ * Short list of the candidate-list strategy, which keeps the k best
+ * candidates offered during a scan of the neighborhood, i.e., the ones with
+ * the smallest cost variations. A candidate is known by its position in the
+ * list of candidates scanned, so the short list never allocates once built.
+ *
+ * The candidates are kept in a bounded heap whose root is the worst one kept,
+ * so offering a candidate takes O(log k), and {@link #sort()} leaves them in
+ * increasing order of cost variation. Among candidates of equal cost
+ * variation, the ones at the smallest positions are preferred.
+ */
+public class CandidateShortList {
+
+	/**
+	 * the positions of the candidates kept, in the first {@link #size}
+	 * positions.
+	 */
+	private final int[] positions;
+
+	/**
+	 * the cost variation of each candidate kept.
+	 */
+	private final double[] deltas;
+
+	/**
+	 * the number of candidates kept.
+	 */
+	private int size;
+
+	/**
+	 * Constructor for the CandidateShortList class, with no candidate.
+	 *
+	 * @param capacity
+	 *            the maximum number of candidates kept, i.e., k.
+	 */
+	public CandidateShortList(int capacity) {
+		this.positions = new int[capacity];
+		this.deltas = new double[capacity];
+	}
+
+	/**
+	 * Gives the maximum number of candidates kept.
+	 *
+	 * @return the capacity of the short list.
+	 */
+	public int getCapacity() {
+		return positions.length;
+	}
+
+	/**
+	 * Gives the number of candidates kept.
+	 *
+	 * @return the number of candidates.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Removes all the candidates, before a new scan.
+	 */
+	public void clear() {
+		size = 0;
+	}
+
+	/**
+	 * Offers a candidate, which is kept if the short list is not full or if
+	 * it is better than the worst candidate kept, which then leaves the list.
+	 *
+	 * @param position
+	 *            the position of the candidate in the list scanned.
+	 * @param delta
+	 *            the cost variation of the move of the candidate.
+	 */
+	public void offer(int position, double delta) {
+		if (size < positions.length) {
+			positions[size] = position;
+			deltas[size] = delta;
+			siftUp(size++);
+		} else if (size > 0 && precedes(delta, position, deltas[0], positions[0])) {
+			positions[0] = position;
+			deltas[0] = delta;
+			siftDown(0, size);
+		}
+	}
+
+	/**
+	 * Sorts the candidates kept in increasing order of cost variation, which
+	 * must be done after the scan, before {@link #getPosition(int)} and
+	 * {@link #getDelta(int)} are used.
+	 */
+	public void sort() {
+		/* the root is the worst candidate, so the heap empties backwards */
+		for (int last = size - 1; last > 0; last--) {
+			swap(0, last);
+			siftDown(0, last);
+		}
+	}
+
+	/**
+	 * Gives the position of a candidate in the list scanned.
+	 *
+	 * @param index
+	 *            the rank of the candidate in [0, {@link #size()}).
+	 * @return the position of the candidate.
+	 */
+	public int getPosition(int index) {
+		return positions[index];
+	}
+
+	/**
+	 * Gives the cost variation of the move of a candidate.
+	 *
+	 * @param index
+	 *            the rank of the candidate in [0, {@link #size()}).
+	 * @return the cost variation.
+	 */
+	public double getDelta(int index) {
+		return deltas[index];
+	}
+
+	/**
+	 * Tests whether a candidate is better than another one, i.e., it has a
+	 * smaller cost variation or, if both are equal, a smaller position.
+	 */
+	private static boolean precedes(double deltaA, int positionA, double deltaB, int positionB) {
+		return deltaA < deltaB || (deltaA == deltaB && positionA < positionB);
+	}
+
+	private boolean precedes(int i, int j) {
+		return precedes(deltas[i], positions[i], deltas[j], positions[j]);
+	}
+
+	private void swap(int i, int j) {
+		int position = positions[i];
+		positions[i] = positions[j];
+		positions[j] = position;
+		double delta = deltas[i];
+		deltas[i] = deltas[j];
+		deltas[j] = delta;
+	}
+
+	private void siftUp(int i) {
+		while (i > 0) {
+			int parent = (i - 1) >>> 1;
+			if (!precedes(parent, i))
+				break;
+			swap(i, parent);
+			i = parent;
+		}
+	}
+
+	private void siftDown(int i, int size) {
+		while (true) {
+			int child = 2 * i + 1;
+			if (child >= size)
+				break;
+			if (child + 1 < size && precedes(child, child + 1))
+				child++;
+			if (!precedes(i, child))
+				break;
+			swap(i, child);
+			i = child;
+		}
+	}
+
+}
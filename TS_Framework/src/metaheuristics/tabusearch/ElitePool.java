@@ -0,0 +1,333 @@
+package metaheuristics.tabusearch;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Bounded pool of elite solutions, i.e., of high-quality and diverse
+ * solutions found by the search, for problems whose candidate elements are
+ * the integers in [0, domainSize). It feeds the path relinking of the TS,
+ * which walks between pairs of elite solutions, see
+ * {@link AbstractTS#setElitePool(ElitePool, Integer)}.
+ *
+ * The diversity of the pool is kept with a threshold on the Hamming distance
+ * between solutions: a solution closer than {@link #minDistance} to an elite
+ * solution may only replace it, and only if it is better. A solution far from
+ * all the elite solutions enters the pool while it is not full, and replaces
+ * the worst one otherwise. Duplicates never enter the pool. The solutions are
+ * kept as bit sets, so the distance between two solutions takes
+ * O(domainSize / 64).
+ *
+ * The pool is thread-safe, so it may be shared by the solvers of a parallel
+ * portfolio. The entries are immutable, and {@link #accepts(double)} tells
+ * without locking whether a solution may enter the pool, so offering the
+ * solutions which cannot enter it takes no lock.
+ */
+public class ElitePool {
+
+	/**
+	 * An elite solution, which is immutable.
+	 */
+	public static final class Entry {
+
+		/**
+		 * the cost of the solution.
+		 */
+		private final double cost;
+
+		/**
+		 * the elements of the solution, in increasing order.
+		 */
+		private final int[] elements;
+
+		/**
+		 * the elements of the solution as a bit set.
+		 */
+		private final long[] words;
+
+		private Entry(double cost, int[] elements, long[] words) {
+			this.cost = cost;
+			this.elements = elements;
+			this.words = words;
+		}
+
+		/**
+		 * Gives the cost of the solution.
+		 *
+		 * @return the cost.
+		 */
+		public double getCost() {
+			return cost;
+		}
+
+		/**
+		 * Gives the number of elements of the solution.
+		 *
+		 * @return the size of the solution.
+		 */
+		public int size() {
+			return elements.length;
+		}
+
+		/**
+		 * Gives an element of the solution.
+		 *
+		 * @param index
+		 *            the rank of the element in [0, {@link #size()}), the
+		 *            elements being in increasing order.
+		 * @return the element.
+		 */
+		public int get(int index) {
+			return elements[index];
+		}
+
+		/**
+		 * Tests whether an element is in the solution.
+		 *
+		 * @param elem
+		 *            the element.
+		 * @return true if the element is in the solution.
+		 */
+		public boolean contains(int elem) {
+			return (words[elem >>> 6] & (1L << elem)) != 0;
+		}
+
+		/**
+		 * Gives the Hamming distance to another solution, i.e., the number of
+		 * elements in only one of them.
+		 *
+		 * @param other
+		 *            the other solution.
+		 * @return the distance.
+		 */
+		public int distance(Entry other) {
+			return ElitePool.distance(words, other.words);
+		}
+
+	}
+
+	/**
+	 * the elite solutions, in the first {@link #size} positions.
+	 */
+	private final Entry[] entries;
+
+	/**
+	 * the number of elite solutions.
+	 */
+	private int size;
+
+	/**
+	 * the number of candidate elements.
+	 */
+	private final int domainSize;
+
+	/**
+	 * the smallest Hamming distance between a solution entering the pool and
+	 * the elite solutions it does not replace.
+	 */
+	private final int minDistance;
+
+	/**
+	 * the cost a solution must beat to enter the pool, i.e., the cost of the
+	 * worst elite solution if the pool is full, or infinity otherwise.
+	 */
+	private volatile double threshold = Double.POSITIVE_INFINITY;
+
+	/**
+	 * the bit set of the solution being offered, reused across offers.
+	 */
+	private final long[] scratch;
+
+	/**
+	 * Constructor for the ElitePool class, with no elite solution.
+	 *
+	 * @param capacity
+	 *            the maximum number of elite solutions.
+	 * @param domainSize
+	 *            the number of candidate elements.
+	 * @param minDistance
+	 *            the diversity threshold, at least one.
+	 */
+	public ElitePool(int capacity, int domainSize, int minDistance) {
+		if (capacity < 1 || minDistance < 1)
+			throw new IllegalArgumentException("Invalid elite pool: capacity " + capacity + ", minimum distance " + minDistance);
+		this.entries = new Entry[capacity];
+		this.domainSize = domainSize;
+		this.minDistance = minDistance;
+		this.scratch = new long[(domainSize + 63) >>> 6];
+	}
+
+	private static int distance(long[] a, long[] b) {
+		int d = 0;
+		for (int w = 0; w < a.length; w++) {
+			d += Long.bitCount(a[w] ^ b[w]);
+		}
+		return d;
+	}
+
+	/**
+	 * Tests, without locking, whether a solution of a given cost may enter
+	 * the pool, which is the case if it is better than the worst elite
+	 * solution or the pool is not full.
+	 *
+	 * @param cost
+	 *            the cost of the solution.
+	 * @return false if the solution would be rejected by
+	 *         {@link #offer(double, int[], int)}.
+	 */
+	public boolean accepts(double cost) {
+		return cost < threshold;
+	}
+
+	/**
+	 * Offers a solution to the pool.
+	 *
+	 * @param cost
+	 *            the cost of the solution.
+	 * @param elements
+	 *            the elements of the solution, in any order, which are copied.
+	 * @param count
+	 *            the number of elements.
+	 * @return true if the solution entered the pool.
+	 */
+	public synchronized boolean offer(double cost, int[] elements, int count) {
+		if (!(cost < threshold))
+			return false;
+
+		Arrays.fill(scratch, 0L);
+		for (int k = 0; k < count; k++) {
+			int elem = elements[k];
+			scratch[elem >>> 6] |= 1L << elem;
+		}
+
+		int nearest = -1, nearestDistance = Integer.MAX_VALUE, worst = -1;
+		for (int k = 0; k < size; k++) {
+			int d = distance(scratch, entries[k].words);
+			if (d < nearestDistance) {
+				nearest = k;
+				nearestDistance = d;
+			}
+			if (worst == -1 || entries[k].cost > entries[worst].cost)
+				worst = k;
+		}
+
+		int slot;
+		if (nearestDistance == 0) {
+			return false;
+		} else if (nearestDistance < minDistance) {
+			if (!(cost < entries[nearest].cost))
+				return false;
+			slot = nearest;
+		} else if (size < entries.length) {
+			slot = size++;
+		} else {
+			slot = worst;
+		}
+
+		int[] sorted = Arrays.copyOf(elements, count);
+		Arrays.sort(sorted);
+		entries[slot] = new Entry(cost, sorted, scratch.clone());
+		updateThreshold();
+		return true;
+	}
+
+	private void updateThreshold() {
+		if (size < entries.length) {
+			threshold = Double.POSITIVE_INFINITY;
+			return;
+		}
+		double worstCost = Double.NEGATIVE_INFINITY;
+		for (int k = 0; k < size; k++) {
+			worstCost = Math.max(worstCost, entries[k].cost);
+		}
+		threshold = worstCost;
+	}
+
+	/**
+	 * Selects two distinct elite solutions at random, e.g., the endpoints of
+	 * a path relinking.
+	 *
+	 * @param rng
+	 *            the random number generator.
+	 * @return the two solutions, or null if the pool has less than two.
+	 */
+	public synchronized Entry[] selectPair(Random rng) {
+		if (size < 2)
+			return null;
+		int a = rng.nextInt(size);
+		int b = rng.nextInt(size - 1);
+		if (b >= a)
+			b++;
+		return new Entry[] { entries[a], entries[b] };
+	}
+
+	/**
+	 * Gives the best elite solution.
+	 *
+	 * @return the solution of least cost, or null if the pool is empty.
+	 */
+	public synchronized Entry getBest() {
+		Entry best = null;
+		for (int k = 0; k < size; k++) {
+			if (best == null || entries[k].cost < best.cost)
+				best = entries[k];
+		}
+		return best;
+	}
+
+	/**
+	 * Gives a snapshot of the elite solutions.
+	 *
+	 * @return the elite solutions, in no particular order.
+	 */
+	public synchronized Entry[] getEntries() {
+		return Arrays.copyOf(entries, size);
+	}
+
+	/**
+	 * Gives the number of elite solutions.
+	 *
+	 * @return the size of the pool.
+	 */
+	public synchronized int size() {
+		return size;
+	}
+
+	/**
+	 * Removes all the elite solutions.
+	 */
+	public synchronized void clear() {
+		Arrays.fill(entries, null);
+		size = 0;
+		threshold = Double.POSITIVE_INFINITY;
+	}
+
+	/**
+	 * Gives the maximum number of elite solutions.
+	 *
+	 * @return the capacity of the pool.
+	 */
+	public int getCapacity() {
+		return entries.length;
+	}
+
+	/**
+	 * Gives the number of candidate elements.
+	 *
+	 * @return the size of the domain.
+	 */
+	public int getDomainSize() {
+		return domainSize;
+	}
+
+	/**
+	 * Gives the diversity threshold.
+	 *
+	 * @return the smallest Hamming distance between a solution entering the
+	 *         pool and the elite solutions it does not replace.
+	 */
+	public int getMinDistance() {
+		return minDistance;
+	}
+
+}
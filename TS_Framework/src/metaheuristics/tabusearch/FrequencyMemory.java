@@ -0,0 +1,167 @@
+package metaheuristics.tabusearch;
+
+import java.util.Arrays;
+
+/**
+ * Array based frequency memory of the intensification method, for problems
+ * whose candidate elements are the integers in [0, domainSize). For each
+ * element it keeps the number of iterations it has stayed in the incumbent
+ * solution since it was last remembered, or zero if it is not remembered,
+ * and the instant it was remembered, so that recording, forgetting and
+ * looking up an element take O(1).
+ *
+ * The most frequent elements are selected with a bounded heap in
+ * O(n log k). Among elements of equal frequency, the ones remembered first
+ * are preferred.
+ */
+public class FrequencyMemory {
+
+	/**
+	 * the frequency of each element, or zero if it is not remembered.
+	 */
+	private final int[] count;
+
+	/**
+	 * the instant each element was remembered.
+	 */
+	private final int[] stamp;
+
+	/**
+	 * the next instant.
+	 */
+	private int clock;
+
+	/**
+	 * the heap of the selection of the most frequent elements, whose root is
+	 * the least frequent element selected so far.
+	 */
+	private int[] heap = new int[0];
+
+	/**
+	 * Constructor for the FrequencyMemory class, with no element remembered.
+	 *
+	 * @param domainSize
+	 *            the number of candidate elements.
+	 */
+	public FrequencyMemory(int domainSize) {
+		this.count = new int[domainSize];
+		this.stamp = new int[domainSize];
+	}
+
+	/**
+	 * Records one more iteration of an element in the incumbent solution,
+	 * remembering it if it is not remembered yet.
+	 *
+	 * @param elem
+	 *            the element.
+	 */
+	public void record(int elem) {
+		if (count[elem]++ == 0)
+			stamp[elem] = clock++;
+	}
+
+	/**
+	 * Forgets an element, e.g., when it leaves the incumbent solution.
+	 *
+	 * @param elem
+	 *            the element.
+	 */
+	public void forget(int elem) {
+		count[elem] = 0;
+	}
+
+	/**
+	 * Gives the frequency of an element.
+	 *
+	 * @param elem
+	 *            the element.
+	 * @return the number of iterations the element has been remembered for,
+	 *         or zero if it is not remembered.
+	 */
+	public int getCount(int elem) {
+		return count[elem];
+	}
+
+	/**
+	 * Forgets all the elements.
+	 */
+	public void clear() {
+		Arrays.fill(count, 0);
+		clock = 0;
+	}
+
+	/**
+	 * Tests whether an element is preferred to another one, i.e., it is more
+	 * frequent or, if both are equally frequent, it was remembered first.
+	 */
+	private boolean precedes(int a, int b) {
+		return count[a] > count[b] || (count[a] == count[b] && stamp[a] < stamp[b]);
+	}
+
+	/**
+	 * Selects the most frequent elements, among the remembered ones.
+	 *
+	 * @param k
+	 *            the maximum number of elements.
+	 * @param target
+	 *            the array receiving the elements, from the most frequent
+	 *            one, with at least k positions.
+	 * @return the number of elements selected, which is less than k if fewer
+	 *         elements are remembered.
+	 */
+	public int selectMostFrequent(int k, int[] target) {
+
+		if (heap.length < k)
+			heap = new int[k];
+		int size = 0;
+		for (int elem = 0; elem < count.length; elem++) {
+			if (count[elem] == 0)
+				continue;
+			if (size < k) {
+				heap[size] = elem;
+				siftUp(size++);
+			} else if (size > 0 && precedes(elem, heap[0])) {
+				heap[0] = elem;
+				siftDown(0, size);
+			}
+		}
+
+		/* the root is the least frequent, so the heap empties backwards */
+		int selected = size;
+		while (size > 0) {
+			target[--size] = heap[0];
+			heap[0] = heap[size];
+			siftDown(0, size);
+		}
+		return selected;
+	}
+
+	private void siftUp(int i) {
+		int elem = heap[i];
+		while (i > 0) {
+			int parent = (i - 1) >>> 1;
+			if (!precedes(heap[parent], elem))
+				break;
+			heap[i] = heap[parent];
+			i = parent;
+		}
+		heap[i] = elem;
+	}
+
+	private void siftDown(int i, int size) {
+		int elem = heap[i];
+		while (true) {
+			int child = 2 * i + 1;
+			if (child >= size)
+				break;
+			if (child + 1 < size && precedes(heap[child], heap[child + 1]))
+				child++;
+			if (!precedes(elem, heap[child]))
+				break;
+			heap[i] = heap[child];
+			i = child;
+		}
+		heap[i] = elem;
+	}
+
+}
@@ -0,0 +1,152 @@
+package metaheuristics.tabusearch;
+
+/**
+ * Tenure controller of the reactive tabu search, which adapts the tabu tenure
+ * to the behavior of the search instead of keeping it fixed. Each iteration
+ * ending in a solution already visited is a repetition, which raises the
+ * tenure by a factor of {@link #INCREASE}, since the tenure was too short to
+ * keep the search out of its cycles. When the search goes without repetitions
+ * for longer than the moving average of the interval between them, the tenure
+ * decays by a factor of {@link #DECREASE}, so that it does not stay larger
+ * than needed. The tenure always changes by at least one and is kept within
+ * [minTenure, maxTenure].
+ *
+ * The repetitions are detected by the memory of the visited solutions of the
+ * search, see {@link AbstractTS#setReactiveTenure(Integer, Integer)}.
+ */
+public class ReactiveTenure {
+
+	/**
+	 * the factor applied to the tenure at a repetition.
+	 */
+	public static final double INCREASE = 1.1;
+
+	/**
+	 * the factor applied to the tenure when the repetitions stop.
+	 */
+	public static final double DECREASE = 0.9;
+
+	/**
+	 * the capacity of the memory of the visited solutions turned on by the
+	 * reactive mode when it is off.
+	 */
+	public static final int VISITED_MEMORY = 1 << 16;
+
+	/**
+	 * the weight of the last interval in the moving average of the intervals
+	 * between repetitions.
+	 */
+	private static final double SMOOTHING = 0.1;
+
+	/**
+	 * the smallest tenure.
+	 */
+	private final int minTenure;
+
+	/**
+	 * the largest tenure.
+	 */
+	private final int maxTenure;
+
+	/**
+	 * the current tenure.
+	 */
+	private int tenure;
+
+	/**
+	 * the last iteration in which a repetition was detected.
+	 */
+	private int lastRepetition;
+
+	/**
+	 * the last iteration in which the tenure was changed.
+	 */
+	private int lastChange;
+
+	/**
+	 * the moving average of the number of iterations between two
+	 * repetitions.
+	 */
+	private double repetitionInterval;
+
+	/**
+	 * Constructor for the ReactiveTenure class.
+	 *
+	 * @param minTenure
+	 *            the smallest tenure, at least one.
+	 * @param maxTenure
+	 *            the largest tenure, at least minTenure.
+	 */
+	public ReactiveTenure(int minTenure, int maxTenure) {
+		if (minTenure < 1 || maxTenure < minTenure)
+			throw new IllegalArgumentException("Invalid tenure bounds [" + minTenure + ", " + maxTenure + "]");
+		this.minTenure = minTenure;
+		this.maxTenure = maxTenure;
+		reset(minTenure);
+	}
+
+	/**
+	 * Restarts the controller, at the beginning of a search.
+	 *
+	 * @param tenure
+	 *            the initial tenure, which is brought within the bounds.
+	 * @return the initial tenure.
+	 */
+	public int reset(int tenure) {
+		this.tenure = Math.max(minTenure, Math.min(maxTenure, tenure));
+		this.lastRepetition = 0;
+		this.lastChange = 0;
+		this.repetitionInterval = maxTenure;
+		return this.tenure;
+	}
+
+	/**
+	 * Updates the tenure at the end of an iteration.
+	 *
+	 * @param repeated
+	 *            whether the iteration ended in a solution already visited.
+	 * @param iteration
+	 *            the iteration.
+	 * @return the tenure for the next iteration.
+	 */
+	public int update(boolean repeated, int iteration) {
+		if (repeated) {
+			repetitionInterval += SMOOTHING * ((iteration - lastRepetition) - repetitionInterval);
+			lastRepetition = iteration;
+			tenure = Math.min(maxTenure, Math.max(tenure + 1, (int) Math.ceil(tenure * INCREASE)));
+			lastChange = iteration;
+		} else if (iteration - lastChange > repetitionInterval) {
+			tenure = Math.max(minTenure, Math.min(tenure - 1, (int) Math.floor(tenure * DECREASE)));
+			lastChange = iteration;
+		}
+		return tenure;
+	}
+
+	/**
+	 * Gives the current tenure.
+	 *
+	 * @return the tenure.
+	 */
+	public int getTenure() {
+		return tenure;
+	}
+
+	/**
+	 * Gives the smallest tenure.
+	 *
+	 * @return the lower bound of the tenure.
+	 */
+	public int getMinTenure() {
+		return minTenure;
+	}
+
+	/**
+	 * Gives the largest tenure.
+	 *
+	 * @return the upper bound of the tenure.
+	 */
+	public int getMaxTenure() {
+		return maxTenure;
+	}
+
+}
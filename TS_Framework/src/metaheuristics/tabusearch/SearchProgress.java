@@ -0,0 +1,40 @@
+package metaheuristics.tabusearch;
+
+/**
+ * The progress of a running search, as seen by its
+ * {@link TerminationCriterion termination criteria}. It is implemented by
+ * both the generic {@link AbstractTS} and the primitive {@link BinaryTS}, so
+ * that the same criteria stop either of them.
+ */
+public interface SearchProgress {
+
+	/**
+	 * Gives the current iteration of the TS main loop.
+	 *
+	 * @return the current iteration.
+	 */
+	public abstract int getCurrentIteration();
+
+	/**
+	 * Gives the number of iterations since the best solution was last
+	 * improved.
+	 *
+	 * @return the number of iterations without improvement.
+	 */
+	public abstract int getIterationsWithoutImprovement();
+
+	/**
+	 * Gives the time since the search started.
+	 *
+	 * @return the elapsed time in milliseconds.
+	 */
+	public abstract long getElapsedTime();
+
+	/**
+	 * Gives the cost of the best solution found so far.
+	 *
+	 * @return the best cost, or null if the search has not started.
+	 */
+	public abstract Double getBestCost();
+
+}
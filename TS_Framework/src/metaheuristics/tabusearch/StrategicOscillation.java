@@ -0,0 +1,248 @@
+package metaheuristics.tabusearch;
+
+import java.util.Arrays;
+
+import utils.ProibitedTupleIndex;
+
+/**
+ * Penalties of the strategic oscillation method, which lets the search cross
+ * the infeasible region while penalizing the removal of the elements of the
+ * violated prohibited triples less and less. At each iteration ending in an
+ * infeasible solution, the streak of infeasible iterations grows by one, and
+ * each element of a violated triple has its penalty increased by the length
+ * of the streak; an element which is no longer in a violated triple has its
+ * penalty reset.
+ *
+ * The penalties are not updated at each iteration. Since the streak grows by
+ * one per iteration, the penalty of an element is the sum of the streak
+ * lengths since the element joined a violated triple, so it is enough to
+ * remember that instant: the engine follows the triples whose violation
+ * state changes as elements are inserted into and removed from the solution,
+ * and closing an iteration takes O(1).
+ *
+ * The engine also bounds the number of consecutive infeasible iterations
+ * with an infeasibility budget, and measures how far the solution is from
+ * the feasible region.
+ */
+public class StrategicOscillation {
+
+	/**
+	 * the index of the prohibited triples, synchronized with the solution.
+	 */
+	private final ProibitedTupleIndex index;
+
+	/**
+	 * the number of violated triples each element belongs to.
+	 */
+	private final int[] violatedOf;
+
+	/**
+	 * the length of the streak in the first iteration each element of a
+	 * violated triple was penalized for.
+	 */
+	private final int[] streakStart;
+
+	/**
+	 * the round in which each element last left the violated triples, or -1.
+	 */
+	private final int[] leftAt;
+
+	/**
+	 * the number of iterations closed so far.
+	 */
+	private int round;
+
+	/**
+	 * the number of consecutive iterations which ended in an infeasible
+	 * solution.
+	 */
+	private int streak;
+
+	/**
+	 * the maximum number of consecutive infeasible iterations, or zero for no
+	 * limit.
+	 */
+	private int budget = 0;
+
+	/**
+	 * Constructor for the StrategicOscillation class, for the solution
+	 * currently registered in an index of prohibited triples.
+	 *
+	 * @param index
+	 *            the index of the prohibited triples.
+	 * @param domainSize
+	 *            the number of variables.
+	 */
+	public StrategicOscillation(ProibitedTupleIndex index, int domainSize) {
+		this.index = index;
+		this.violatedOf = new int[domainSize];
+		this.streakStart = new int[domainSize];
+		this.leftAt = new int[domainSize];
+		reset();
+	}
+
+	/**
+	 * Restarts the oscillation for the solution currently registered in the
+	 * index, with no penalties.
+	 */
+	public void reset() {
+		Arrays.fill(violatedOf, 0);
+		Arrays.fill(leftAt, -1);
+		round = 0;
+		streak = 0;
+		for (int i = 0; i < index.getViolatedCount(); i++) {
+			enter(index.getViolated(i));
+		}
+	}
+
+	/**
+	 * Registers the insertion of a variable into the solution, after the
+	 * index has registered it.
+	 *
+	 * @param v
+	 *            the variable inserted.
+	 */
+	public void inserted(int v) {
+		for (int t : index.getTuplesOf(v)) {
+			if (index.isViolated(t))
+				enter(t);
+		}
+	}
+
+	/**
+	 * Registers the removal of a variable from the solution, after the index
+	 * has registered it.
+	 *
+	 * @param v
+	 *            the variable removed.
+	 */
+	public void removed(int v) {
+		for (int t : index.getTuplesOf(v)) {
+			if (index.getCount(t) == index.getDistinct(t) - 1)
+				leave(t);
+		}
+	}
+
+	/**
+	 * Registers a triple which became violated. Its members are penalized
+	 * from the next iteration on, unless they left the violated triples in
+	 * the current iteration, in which case their streak goes on.
+	 */
+	private void enter(int t) {
+		for (int k = 0; k < 3; k++) {
+			int x = index.getMember(t, k);
+			if (isRepeated(t, k))
+				continue;
+			if (violatedOf[x]++ == 0 && leftAt[x] != round)
+				streakStart[x] = streak + 1;
+		}
+	}
+
+	/**
+	 * Registers a triple which is no longer violated.
+	 */
+	private void leave(int t) {
+		for (int k = 0; k < 3; k++) {
+			int x = index.getMember(t, k);
+			if (isRepeated(t, k))
+				continue;
+			if (--violatedOf[x] == 0)
+				leftAt[x] = round;
+		}
+	}
+
+	private boolean isRepeated(int t, int k) {
+		for (int l = 0; l < k; l++) {
+			if (index.getMember(t, l) == index.getMember(t, k))
+				return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Closes an iteration, extending or ending the streak of infeasible
+	 * iterations.
+	 */
+	public void endIteration() {
+		round++;
+		streak = isFeasible() ? 0 : streak + 1;
+	}
+
+	/**
+	 * Gives the penalty of an element, which is subtracted from the cost
+	 * variation of its removal.
+	 *
+	 * @param x
+	 *            the element.
+	 * @return the penalty, which is zero unless the element belongs to a
+	 *         violated triple.
+	 */
+	public double getPenalty(int x) {
+		if (violatedOf[x] == 0)
+			return 0.0;
+		long first = streakStart[x], last = streak;
+		return (last * (last + 1) - (first - 1) * first) / 2;
+	}
+
+	/**
+	 * Tests whether the solution is feasible.
+	 *
+	 * @return true if no prohibited triple is violated.
+	 */
+	public boolean isFeasible() {
+		return index.getViolatedCount() == 0;
+	}
+
+	/**
+	 * Gives the distance of the solution to the feasible region, measured as
+	 * the number of violated triples, which bounds the number of removals
+	 * needed to reach a feasible solution.
+	 *
+	 * @return the number of violated triples.
+	 */
+	public int getFeasibilityDistance() {
+		return index.getViolatedCount();
+	}
+
+	/**
+	 * Gives the number of consecutive iterations which ended in an
+	 * infeasible solution.
+	 *
+	 * @return the length of the streak.
+	 */
+	public int getInfeasibleStreak() {
+		return streak;
+	}
+
+	/**
+	 * Sets the infeasibility budget, i.e., the maximum number of consecutive
+	 * iterations ending in an infeasible solution, after which the solver
+	 * repairs the solution.
+	 *
+	 * @param budget
+	 *            the number of iterations, or zero for no limit.
+	 */
+	public void setBudget(int budget) {
+		this.budget = budget;
+	}
+
+	/**
+	 * Gives the infeasibility budget.
+	 *
+	 * @return the number of iterations, or zero for no limit.
+	 */
+	public int getBudget() {
+		return budget;
+	}
+
+	/**
+	 * Tests whether the streak of infeasible iterations has exhausted the
+	 * infeasibility budget.
+	 *
+	 * @return true if the solution should be repaired.
+	 */
+	public boolean isBudgetExhausted() {
+		return budget > 0 && streak >= budget;
+	}
+
+}
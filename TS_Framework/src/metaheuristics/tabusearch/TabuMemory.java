@@ -0,0 +1,96 @@
+package metaheuristics.tabusearch;
+
+import java.util.Arrays;
+
+/**
+ * Array based tabu memory for problems whose candidate elements are the
+ * integers in [0, domainSize). Instead of keeping the recent moves in a list,
+ * it keeps for each element the last iteration in which it was made tabu, so
+ * that checking whether an element is tabu takes a single comparison,
+ * regardless of the tabu tenure.
+ *
+ * An element made tabu at iteration t is considered tabu up to iteration
+ * t + tenure, which matches a Tabu List of 2*tenure positions updated twice
+ * per iteration. Since the tenure is only applied when an element is tested,
+ * it can be changed during the search, e.g., by a reactive tabu search, and
+ * the new tenure holds at once for all the elements.
+ */
+public class TabuMemory {
+
+	/**
+	 * the last iteration in which each element was made tabu.
+	 */
+	private final int[] tabuSince;
+
+	/**
+	 * the tabu tenure.
+	 */
+	private int tenure;
+
+	/**
+	 * Constructor for the TabuMemory class, with no tabu elements.
+	 *
+	 * @param domainSize
+	 *            the number of candidate elements.
+	 * @param tenure
+	 *            the tabu tenure.
+	 */
+	public TabuMemory(int domainSize, int tenure) {
+		this.tabuSince = new int[domainSize];
+		this.tenure = tenure;
+		clear();
+	}
+
+	/**
+	 * Tests whether an element is tabu.
+	 *
+	 * @param elem
+	 *            the element.
+	 * @param iteration
+	 *            the current iteration.
+	 * @return true if the element is tabu at the given iteration.
+	 */
+	public boolean isTabu(int elem, int iteration) {
+		return tabuSince[elem] >= iteration - tenure;
+	}
+
+	/**
+	 * Makes an element tabu for the next {@link #tenure} iterations.
+	 *
+	 * @param elem
+	 *            the element.
+	 * @param iteration
+	 *            the current iteration.
+	 */
+	public void makeTabu(int elem, int iteration) {
+		tabuSince[elem] = iteration;
+	}
+
+	/**
+	 * Releases all the elements from the tabu condition.
+	 */
+	public void clear() {
+		Arrays.fill(tabuSince, Integer.MIN_VALUE);
+	}
+
+	/**
+	 * Gives the tabu tenure.
+	 *
+	 * @return the tabu tenure.
+	 */
+	public int getTenure() {
+		return tenure;
+	}
+
+	/**
+	 * Changes the tabu tenure, for the elements already tabu as well as for
+	 * the ones made tabu from now on.
+	 *
+	 * @param tenure
+	 *            the new tabu tenure.
+	 */
+	public void setTenure(int tenure) {
+		this.tenure = tenure;
+	}
+
+}
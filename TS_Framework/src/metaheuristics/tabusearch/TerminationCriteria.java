@@ -0,0 +1,61 @@
+package metaheuristics.tabusearch;
+
+/**
+ * Factory of the usual {@link TerminationCriterion termination criteria}.
+ * The search also stops after the number of iterations given to the solver,
+ * or when {@link AbstractTS#requestStop()} (or {@link BinaryTS#requestStop()})
+ * is called.
+ */
+public class TerminationCriteria {
+
+	private TerminationCriteria() {
+	}
+
+	/**
+	 * Stops the search once a wall-clock budget is exhausted.
+	 *
+	 * @param millis
+	 *            the budget in milliseconds, counted from the start of the
+	 *            search.
+	 * @return the criterion.
+	 */
+	public static TerminationCriterion timeBudget(long millis) {
+		return solver -> solver.getElapsedTime() >= millis;
+	}
+
+	/**
+	 * Stops the search at a given instant.
+	 *
+	 * @param deadline
+	 *            the instant, as given by {@link System#currentTimeMillis()}.
+	 * @return the criterion.
+	 */
+	public static TerminationCriterion deadline(long deadline) {
+		return solver -> System.currentTimeMillis() >= deadline;
+	}
+
+	/**
+	 * Stops the search once a solution with cost lower than or equal to a
+	 * target is found.
+	 *
+	 * @param targetCost
+	 *            the target cost.
+	 * @return the criterion.
+	 */
+	public static TerminationCriterion targetCost(double targetCost) {
+		return solver -> solver.getBestCost() != null && solver.getBestCost() <= targetCost;
+	}
+
+	/**
+	 * Stops the search after a number of iterations without improving the
+	 * best solution.
+	 *
+	 * @param iterations
+	 *            the number of iterations without improvement.
+	 * @return the criterion.
+	 */
+	public static TerminationCriterion stagnation(int iterations) {
+		return solver -> solver.getIterationsWithoutImprovement() >= iterations;
+	}
+
+}
@@ -0,0 +1,20 @@
+package metaheuristics.tabusearch;
+
+/**
+ * A criterion which stops the TS main loop. It is checked once per iteration,
+ * before the neighborhood move, so it should be cheap to evaluate.
+ *
+ * @see TerminationCriteria
+ */
+public interface TerminationCriterion {
+
+	/**
+	 * Tests whether the search should stop.
+	 *
+	 * @param solver
+	 *            the progress of the solver running the search.
+	 * @return true if the search should stop.
+	 */
+	public abstract boolean isMet(SearchProgress solver);
+
+}
@@ -0,0 +1,121 @@
+package problems;
+
+import utils.IntSet;
+
+/**
+ * An objective function over binary vectors, i.e., over the subsets of the
+ * variables in [0, domainSize) set to one, specialized for primitive types.
+ * Unlike an {@link Evaluator}, it keeps the current vector itself: the
+ * search sets and resets variables through {@link #insert(int)} and
+ * {@link #remove(int)}, and the cost variations of the moves are always
+ * relative to the current vector, so no element nor cost is ever boxed.
+ * 
+ * @author ccavellucci, fusberti
+ */
+public interface BinaryEvaluator {
+
+	/**
+	 * Gives the size of the problem domain, i.e., the number of binary
+	 * variables.
+	 * 
+	 * @return the size of the problem domain.
+	 */
+	public abstract int getDomainSize();
+
+	/**
+	 * Resets all the variables to zero.
+	 */
+	public abstract void reset();
+
+	/**
+	 * Sets a variable to one.
+	 * 
+	 * @param elem
+	 *            the variable, which must be zero.
+	 */
+	public abstract void insert(int elem);
+
+	/**
+	 * Resets a variable to zero.
+	 * 
+	 * @param elem
+	 *            the variable, which must be one.
+	 */
+	public abstract void remove(int elem);
+
+	/**
+	 * Evaluates the current vector from scratch.
+	 * 
+	 * @return the evaluation of the current vector.
+	 */
+	public abstract double evaluate();
+
+	/**
+	 * Evaluates the cost variation of setting a variable to one, which is
+	 * zero if it already is one.
+	 * 
+	 * @param elem
+	 *            the variable.
+	 * @return the cost variation.
+	 */
+	public abstract double evaluateInsertionCost(int elem);
+
+	/**
+	 * Evaluates the cost variation of resetting a variable to zero, which is
+	 * zero if it already is zero.
+	 * 
+	 * @param elem
+	 *            the variable.
+	 * @return the cost variation.
+	 */
+	public abstract double evaluateRemovalCost(int elem);
+
+	/**
+	 * Evaluates the cost variation of setting a variable to one and
+	 * resetting another one to zero.
+	 * 
+	 * @param elemIn
+	 *            the variable set to one.
+	 * @param elemOut
+	 *            the variable reset to zero.
+	 * @return the cost variation.
+	 */
+	public abstract double evaluateExchangeCost(int elemIn, int elemOut);
+
+	/**
+	 * Evaluates the cost variations of setting a variable to one and
+	 * resetting each one of several variables to zero. It gives the same
+	 * results as calling {@link #evaluateExchangeCost(int, int)} for each
+	 * variable reset, but an evaluator may amortize its setup over all of
+	 * them.
+	 * 
+	 * @param elemIn
+	 *            the variable set to one.
+	 * @param elemsOut
+	 *            the variables reset to zero.
+	 * @param deltas
+	 *            the array receiving the cost variation of the exchange with
+	 *            elemsOut.get(b) at position b.
+	 */
+	public default void evaluateExchangeCosts(int elemIn, IntSet elemsOut, double[] deltas) {
+		for (int b = 0; b < elemsOut.size(); b++) {
+			deltas[b] = evaluateExchangeCost(elemIn, elemsOut.get(b));
+		}
+	}
+
+	/**
+	 * Gives a bound on how much setting a variable to one and resetting any
+	 * other one to zero differs from the two separate moves, see
+	 * {@link problems.Evaluator#getInteractionBound(Object)}. The default bound
+	 * is infinite.
+	 * 
+	 * @param elemIn
+	 *            the variable set to one.
+	 * @return the bound on the interaction between the halves of the
+	 *         exchange.
+	 */
+	public default double getInteractionBound(int elemIn) {
+		return Double.POSITIVE_INFINITY;
+	}
+
+}
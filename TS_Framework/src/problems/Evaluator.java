@@ -1,5 +1,7 @@
 package problems;
 
+import java.util.List;
+
 import solutions.Solution;
 
 /**
@@ -75,6 +77,87 @@ public interface Evaluator<E> {
 	 */
 	public abstract Double evaluateExchangeCost(E elemIn, E elemOut, Solution<E> sol);
 
+	/**
+	 * Evaluates the cost variations of inserting each one of several elements
+	 * into a solution. It gives the same results as calling
+	 * {@link #evaluateInsertionCost(Object, Solution)} for each element, but an
+	 * evaluator may amortize its setup over all the elements and avoid boxing
+	 * the results.
+	 * 
+	 * @param elems
+	 *            the elements under consideration for insertion.
+	 * @param sol
+	 *            the solution for which the insertions are being evaluated.
+	 * @param deltas
+	 *            the array receiving the cost variation of inserting
+	 *            elems.get(k) at position k.
+	 */
+	public default void evaluateInsertionCosts(List<E> elems, Solution<E> sol, double[] deltas) {
+		for (int k = 0; k < elems.size(); k++) {
+			deltas[k] = evaluateInsertionCost(elems.get(k), sol);
+		}
+	}
+
+	/**
+	 * Evaluates the cost variations of removing each one of several elements
+	 * from a solution, see {@link #evaluateInsertionCosts(List, Solution, double[])}.
+	 * 
+	 * @param elems
+	 *            the elements under consideration for removal.
+	 * @param sol
+	 *            the solution for which the removals are being evaluated.
+	 * @param deltas
+	 *            the array receiving the cost variation of removing
+	 *            elems.get(k) at position k.
+	 */
+	public default void evaluateRemovalCosts(List<E> elems, Solution<E> sol, double[] deltas) {
+		for (int k = 0; k < elems.size(); k++) {
+			deltas[k] = evaluateRemovalCost(elems.get(k), sol);
+		}
+	}
+
+	/**
+	 * Evaluates the cost variations of all the exchanges between a set of
+	 * elements considered for insertion and a set of elements considered for
+	 * removal, see {@link #evaluateInsertionCosts(List, Solution, double[])}.
+	 * 
+	 * @param elemsIn
+	 *            the elements under consideration for insertion.
+	 * @param elemsOut
+	 *            the elements under consideration for removal.
+	 * @param sol
+	 *            the solution for which the exchanges are being evaluated.
+	 * @param deltas
+	 *            the array receiving the cost variation of exchanging
+	 *            elemsIn.get(a) and elemsOut.get(b) at position
+	 *            a*elemsOut.size()+b.
+	 */
+	public default void evaluateExchangeCosts(List<E> elemsIn, List<E> elemsOut, Solution<E> sol, double[] deltas) {
+		int numOut = elemsOut.size();
+		for (int a = 0; a < elemsIn.size(); a++) {
+			for (int b = 0; b < numOut; b++) {
+				deltas[a * numOut + b] = evaluateExchangeCost(elemsIn.get(a), elemsOut.get(b), sol);
+			}
+		}
+	}
+
+	/**
+	 * Gives a bound on how much exchanging an element for any other differs
+	 * from inserting it and removing the other one separately, i.e., on
+	 * |exchange(elemIn, elemOut) - insertion(elemIn) - removal(elemOut)| for
+	 * every elemOut. It lets a solver skip the exchanges which cannot beat
+	 * the best move found so far. The default bound is infinite, which skips
+	 * nothing.
+	 * 
+	 * @param elemIn
+	 *            the element under consideration for insertion.
+	 * @return the bound on the interaction between the halves of the
+	 *         exchange.
+	 */
+	public default double getInteractionBound(E elemIn) {
+		return Double.POSITIVE_INFINITY;
+	}
+
 	public abstract int getSize();
 
 }
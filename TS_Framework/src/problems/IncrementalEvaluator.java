@@ -0,0 +1,48 @@
+package problems;
+
+import solutions.Solution;
+
+/**
+ * An {@link Evaluator} which is able to keep an internal state synchronized
+ * with a tracked solution. The state is updated only when a move is actually
+ * applied to the tracked solution (through {@link #applyInsertion(Object)} and
+ * {@link #applyRemoval(Object)}), so that the insertion, removal and exchange
+ * cost evaluations over that solution can be answered without rebuilding the
+ * state at each call.
+ *
+ * Whenever an evaluation method receives a solution other than the tracked
+ * one, the evaluator starts tracking the new solution, rebuilding its state
+ * from scratch.
+ *
+ * @param <E>
+ */
+public interface IncrementalEvaluator<E> extends Evaluator<E> {
+
+	/**
+	 * Starts tracking a solution, rebuilding the internal state from its
+	 * current elements.
+	 *
+	 * @param sol
+	 *            the solution to be tracked.
+	 */
+	public abstract void track(Solution<E> sol);
+
+	/**
+	 * Updates the internal state after an element has been inserted into the
+	 * tracked solution.
+	 *
+	 * @param elem
+	 *            the element inserted.
+	 */
+	public abstract void applyInsertion(E elem);
+
+	/**
+	 * Updates the internal state after an element has been removed from the
+	 * tracked solution.
+	 *
+	 * @param elem
+	 *            the element removed.
+	 */
+	public abstract void applyRemoval(E elem);
+
+}
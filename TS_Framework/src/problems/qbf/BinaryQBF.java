@@ -0,0 +1,233 @@
+package problems.qbf;
+
+import java.util.Arrays;
+
+import problems.BinaryEvaluator;
+import utils.IntSet;
+
+/**
+ * The {@link QBF} as a {@link BinaryEvaluator}: it keeps the current vector
+ * and the contribution of each variable to the QBF given that vector, i.e.,
+ * c_i = A_ii + \sum{j!=i}{x_j*(A_ij + A_ji)}, so that the insertion and
+ * removal costs take O(1), an exchange costs O(1) plus one matrix lookup, and
+ * setting or resetting a variable takes O(n). The cost variations are the
+ * same as the ones of {@link QBF} in its incremental mode.
+ * 
+ * @author ccavellucci, fusberti
+ */
+public class BinaryQBF implements BinaryEvaluator {
+
+	/**
+	 * Dimension of the domain.
+	 */
+	public final int size;
+
+	/**
+	 * The matrix A of coefficients for the QBF f(x) = x'.A.x.
+	 */
+	public final CoefficientMatrix A;
+
+	/**
+	 * The instance holding the coefficients of the QBF.
+	 */
+	private final QBFInstance instance;
+
+	/**
+	 * The current vector.
+	 */
+	protected final double[] variables;
+
+	/**
+	 * The contribution of each variable to the QBF given the current vector.
+	 */
+	protected final double[] contributions;
+
+	/**
+	 * Workspace of the batch exchange evaluation over a sparse matrix, see
+	 * {@link #evaluateExchangeCosts(int, IntSet, double[])}.
+	 */
+	private double[] couplingRow;
+
+	/**
+	 * Constructor for the BinaryQBF class, with all the variables set to
+	 * zero.
+	 * 
+	 * @param instance
+	 *            the instance holding the coefficients of the QBF, which may
+	 *            be shared with other evaluators.
+	 */
+	public BinaryQBF(QBFInstance instance) {
+		this.instance = instance;
+		this.A = instance.getMatrix();
+		this.size = instance.getSize();
+		this.variables = new double[size];
+		this.contributions = new double[size];
+		reset();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see problems.BinaryEvaluator#getDomainSize()
+	 */
+	@Override
+	public int getDomainSize() {
+		return size;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see problems.BinaryEvaluator#reset()
+	 */
+	@Override
+	public void reset() {
+		Arrays.fill(variables, 0.0);
+		for (int i = 0; i < size; i++) {
+			contributions[i] = A.get(i, i);
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see problems.BinaryEvaluator#insert(int)
+	 */
+	@Override
+	public void insert(int elem) {
+		variables[elem] = 1.0;
+		A.addCoupling(elem, contributions, 1.0);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see problems.BinaryEvaluator#remove(int)
+	 */
+	@Override
+	public void remove(int elem) {
+		variables[elem] = 0.0;
+		A.addCoupling(elem, contributions, -1.0);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see problems.BinaryEvaluator#evaluate()
+	 */
+	@Override
+	public double evaluate() {
+		return A.quadraticForm(variables);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see problems.BinaryEvaluator#evaluateInsertionCost(int)
+	 */
+	@Override
+	public double evaluateInsertionCost(int elem) {
+		return insertionDelta(elem);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see problems.BinaryEvaluator#evaluateRemovalCost(int)
+	 */
+	@Override
+	public double evaluateRemovalCost(int elem) {
+		return removalDelta(elem);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see problems.BinaryEvaluator#evaluateExchangeCost(int, int)
+	 */
+	@Override
+	public double evaluateExchangeCost(int in, int out) {
+		return exchangeDelta(in, out);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 * When line in of the matrix is short compared to the number of
+	 * variables reset, as in a sparse matrix, it is scattered into a
+	 * workspace once rather than searched for each variable reset.
+	 */
+	@Override
+	public void evaluateExchangeCosts(int in, IntSet outs, double[] deltas) {
+
+		int numOut = outs.size();
+		if (2L * A.getDegree(in) >= numOut) {
+			for (int b = 0; b < numOut; b++) {
+				deltas[b] = exchangeDelta(in, outs.get(b));
+			}
+			return;
+		}
+
+		if (couplingRow == null)
+			couplingRow = new double[size];
+		A.addCoupling(in, couplingRow, 1.0);
+		for (int b = 0; b < numOut; b++) {
+			int out = outs.get(b);
+			if (in == out)
+				deltas[b] = 0.0;
+			else if (variables[in] == 1)
+				deltas[b] = removalDelta(out);
+			else if (variables[out] == 0)
+				deltas[b] = insertionDelta(in);
+			else
+				deltas[b] = contributions[in] - contributions[out] - couplingRow[out];
+		}
+		A.addCoupling(in, couplingRow, -1.0);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see problems.BinaryEvaluator#getInteractionBound(int)
+	 */
+	@Override
+	public double getInteractionBound(int elemIn) {
+		return instance.getCouplingBounds()[elemIn];
+	}
+
+	/**
+	 * Gives the variation of the QBF from setting a variable to one and
+	 * resetting another one to zero, which unlike
+	 * {@link #evaluateExchangeCost(int, int)} is not overridden by subclasses.
+	 */
+	private double exchangeDelta(int in, int out) {
+
+		if (in == out)
+			return 0.0;
+		if (variables[in] == 1)
+			return removalDelta(out);
+		if (variables[out] == 0)
+			return insertionDelta(in);
+
+		return contributions[in] - contributions[out] - A.coupling(in, out);
+	}
+
+	/**
+	 * Gives the variation of the QBF from setting a variable to one, which
+	 * unlike {@link #evaluateInsertionCost(int)} is not overridden by
+	 * subclasses.
+	 */
+	private double insertionDelta(int elem) {
+		return (variables[elem] == 1) ? 0.0 : contributions[elem];
+	}
+
+	/**
+	 * Gives the variation of the QBF from resetting a variable to zero, which
+	 * unlike {@link #evaluateRemovalCost(int)} is not overridden by
+	 * subclasses.
+	 */
+	private double removalDelta(int elem) {
+		return (variables[elem] == 0) ? 0.0 : -contributions[elem];
+	}
+
+}
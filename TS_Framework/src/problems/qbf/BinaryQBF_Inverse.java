@@ -0,0 +1,66 @@
+package problems.qbf;
+
+import utils.IntSet;
+
+/**
+ * The inverse of the {@link BinaryQBF}, which is used since the TS is set by
+ * default as a minimization procedure.
+ * 
+ * @author ccavellucci, fusberti
+ */
+public class BinaryQBF_Inverse extends BinaryQBF {
+
+	/**
+	 * Constructor for the BinaryQBF_Inverse class.
+	 * 
+	 * @param instance
+	 *            the instance holding the coefficients of the QBF.
+	 */
+	public BinaryQBF_Inverse(QBFInstance instance) {
+		super(instance);
+	}
+
+	/* (non-Javadoc)
+	 * @see problems.qbf.BinaryQBF#evaluate()
+	 */
+	@Override
+	public double evaluate() {
+		return -super.evaluate();
+	}
+
+	/* (non-Javadoc)
+	 * @see problems.qbf.BinaryQBF#evaluateInsertionCost(int)
+	 */
+	@Override
+	public double evaluateInsertionCost(int elem) {
+		return -super.evaluateInsertionCost(elem);
+	}
+
+	/* (non-Javadoc)
+	 * @see problems.qbf.BinaryQBF#evaluateRemovalCost(int)
+	 */
+	@Override
+	public double evaluateRemovalCost(int elem) {
+		return -super.evaluateRemovalCost(elem);
+	}
+
+	/* (non-Javadoc)
+	 * @see problems.qbf.BinaryQBF#evaluateExchangeCost(int, int)
+	 */
+	@Override
+	public double evaluateExchangeCost(int in, int out) {
+		return -super.evaluateExchangeCost(in, out);
+	}
+
+	/* (non-Javadoc)
+	 * @see problems.qbf.BinaryQBF#evaluateExchangeCosts(int, utils.IntSet, double[])
+	 */
+	@Override
+	public void evaluateExchangeCosts(int in, IntSet outs, double[] deltas) {
+		super.evaluateExchangeCosts(in, outs, deltas);
+		for (int b = 0; b < outs.size(); b++) {
+			deltas[b] = -deltas[b];
+		}
+	}
+
+}
@@ -0,0 +1,126 @@
+package problems.qbf;
+
+/**
+ * The upper triangular matrix of coefficients A of a QBF f(x) = x'.A.x, as
+ * seen by the evaluators. Only the elements on and above the diagonal are
+ * stored, and the implementations differ in where they are stored, e.g., in
+ * a packed array on the heap ({@link UpperTriangularMatrix}) or in a memory
+ * mapped file ({@link MappedUpperTriangularMatrix}). A matrix is read-only
+ * once built, so it may be shared by several evaluators.
+ *
+ * @author ccavellucci, fusberti
+ */
+public interface CoefficientMatrix {
+
+	/**
+	 * Gives the dimension of the matrix.
+	 *
+	 * @return the dimension of the matrix.
+	 */
+	public abstract int getSize();
+
+	/**
+	 * Gives element A_ij of the matrix.
+	 *
+	 * @param i
+	 *            the row of the element.
+	 * @param j
+	 *            the column of the element.
+	 * @return the element, which is zero below the diagonal.
+	 */
+	public abstract double get(int i, int j);
+
+	/**
+	 * Gives the interaction coefficient between two distinct variables, i.e.,
+	 * A_ij + A_ji, which is the only element of the pair stored.
+	 *
+	 * @param i
+	 *            the first variable.
+	 * @param j
+	 *            the second variable.
+	 * @return the interaction coefficient between the variables.
+	 */
+	public abstract double coupling(int i, int j);
+
+	/**
+	 * Computes \sum{j!=i}{x_j*(A_ij + A_ji)}, i.e., the dot product of the
+	 * variables with line and column i of the matrix, diagonal excluded.
+	 *
+	 * @param i
+	 *            the line and column considered.
+	 * @param x
+	 *            the values of the variables.
+	 * @return the dot product.
+	 */
+	public abstract double dotCoupling(int i, double[] x);
+
+	/**
+	 * Adds factor*(A_kj + A_jk) to target[j], for every j != k.
+	 *
+	 * @param k
+	 *            the line and column considered.
+	 * @param target
+	 *            the array to be updated.
+	 * @param factor
+	 *            the multiplier of the coefficients.
+	 */
+	public abstract void addCoupling(int k, double[] target, double factor);
+
+	/**
+	 * Gives the number of interaction coefficients of a variable which are
+	 * stored, i.e., the cost of {@link #dotCoupling(int, double[])} and
+	 * {@link #addCoupling(int, double[], double)}, which is n-1 unless the
+	 * matrix is sparse.
+	 *
+	 * @param i
+	 *            the line and column considered.
+	 * @return the number of interaction coefficients stored.
+	 */
+	public default int getDegree(int i) {
+		return getSize() - 1;
+	}
+
+	/**
+	 * Gives the largest absolute interaction coefficient of a variable, i.e.,
+	 * max{j!=i}{|A_ij + A_ji|}, or zero if it interacts with no variable.
+	 *
+	 * @param i
+	 *            the line and column considered.
+	 * @return the largest absolute interaction coefficient.
+	 */
+	public default double maxAbsCoupling(int i) {
+
+		double max = 0.0;
+		for (int j = 0; j < getSize(); j++) {
+			if (j != i)
+				max = Math.max(max, Math.abs(coupling(i, j)));
+		}
+		return max;
+
+	}
+
+	/**
+	 * Computes the quadratic form x'.A.x, i.e., the value of the QBF.
+	 *
+	 * @param x
+	 *            the values of the variables.
+	 * @return the value of the QBF.
+	 */
+	public default double quadraticForm(double[] x) {
+
+		double aux = 0.0, sum = 0.0;
+		int size = getSize();
+		for (int i = 0; i < size; i++) {
+			if (x[i] == 0)
+				continue;
+			for (int j = i; j < size; j++) {
+				aux += x[j] * get(i, j);
+			}
+			sum += aux * x[i];
+			aux = 0.0;
+		}
+		return sum;
+
+	}
+
+}
@@ -0,0 +1,174 @@
+package problems.qbf;
+
+import java.lang.reflect.Constructor;
+
+/**
+ * Dense layout of the coefficients of a QBF, tuned for the evaluation kernels
+ * rather than for memory. Besides the diagonal, it keeps the full symmetric
+ * matrix of interaction coefficients C_ij = A_ij + A_ji (with C_ii = 0), row
+ * by row, so that the column half of a contribution, which is strided in the
+ * packed upper triangle, becomes part of a contiguous row. This takes about
+ * four times the memory of an {@link UpperTriangularMatrix}, and the dimension
+ * is limited to about 46000.
+ *
+ * The kernels of this class are scalar loops. When the jdk.incubator.vector
+ * module is available, {@link #create(CoefficientMatrix)} gives a subclass
+ * whose kernels use SIMD instructions instead.
+ *
+ * @author ccavellucci, fusberti
+ */
+public class DenseCouplingMatrix implements CoefficientMatrix {
+
+	/**
+	 * the name of the subclass using the Vector API, which is built
+	 * separately since the module is still incubating.
+	 */
+	private static final String VECTOR_IMPLEMENTATION = "problems.qbf.vector.VectorCouplingMatrix";
+
+	/**
+	 * Dimension of the matrix.
+	 */
+	protected final int size;
+
+	/**
+	 * The diagonal of the matrix, A_ii.
+	 */
+	protected final double[] diagonal;
+
+	/**
+	 * The interaction coefficients C_ij = A_ij + A_ji, with a zero diagonal,
+	 * row by row.
+	 */
+	protected final double[] couplings;
+
+	/**
+	 * Constructor for the DenseCouplingMatrix class, which copies the
+	 * coefficients of another matrix.
+	 *
+	 * @param A
+	 *            the matrix of coefficients.
+	 */
+	public DenseCouplingMatrix(CoefficientMatrix A) {
+		long length = (long) A.getSize() * A.getSize();
+		if (length > Integer.MAX_VALUE - 8)
+			throw new IllegalArgumentException("Matrix of dimension " + A.getSize() + " is too large for a dense layout");
+		this.size = A.getSize();
+		this.diagonal = new double[size];
+		this.couplings = new double[(int) length];
+		for (int i = 0; i < size; i++) {
+			diagonal[i] = A.get(i, i);
+			for (int j = i + 1; j < size; j++) {
+				double c = A.get(i, j);
+				couplings[i * size + j] = c;
+				couplings[j * size + i] = c;
+			}
+		}
+	}
+
+	/**
+	 * Gives the fastest dense layout available: the one using the Vector API
+	 * when the jdk.incubator.vector module is present (e.g., with
+	 * --add-modules jdk.incubator.vector) and its implementation is in the
+	 * classpath, or the scalar one otherwise.
+	 *
+	 * @param A
+	 *            the matrix of coefficients.
+	 * @return the dense layout of the matrix.
+	 */
+	public static DenseCouplingMatrix create(CoefficientMatrix A) {
+		try {
+			Constructor<?> constructor = Class.forName(VECTOR_IMPLEMENTATION).getConstructor(CoefficientMatrix.class);
+			return (DenseCouplingMatrix) constructor.newInstance(A);
+		} catch (ReflectiveOperationException | LinkageError e) {
+			return new DenseCouplingMatrix(A);
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see problems.qbf.CoefficientMatrix#getSize()
+	 */
+	@Override
+	public int getSize() {
+		return size;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see problems.qbf.CoefficientMatrix#get(int, int)
+	 */
+	@Override
+	public double get(int i, int j) {
+		if (i > j)
+			return 0.0;
+		return (i == j) ? diagonal[i] : couplings[i * size + j];
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see problems.qbf.CoefficientMatrix#coupling(int, int)
+	 */
+	@Override
+	public double coupling(int i, int j) {
+		return couplings[i * size + j];
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see problems.qbf.CoefficientMatrix#dotCoupling(int, double[])
+	 */
+	@Override
+	public double dotCoupling(int i, double[] x) {
+
+		double sum = 0.0;
+		int row = i * size;
+		for (int j = 0; j < size; j++) {
+			sum += x[j] * couplings[row + j];
+		}
+		return sum;
+
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see problems.qbf.CoefficientMatrix#addCoupling(int, double[], double)
+	 */
+	@Override
+	public void addCoupling(int k, double[] target, double factor) {
+
+		int row = k * size;
+		for (int j = 0; j < size; j++) {
+			target[j] += factor * couplings[row + j];
+		}
+
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see problems.qbf.CoefficientMatrix#quadraticForm(double[])
+	 */
+	@Override
+	public double quadraticForm(double[] x) {
+
+		double sum = 0.0;
+		for (int i = 0; i < size; i++) {
+			if (x[i] == 0)
+				continue;
+			double aux = x[i] * diagonal[i];
+			int row = i * size;
+			for (int j = i + 1; j < size; j++) {
+				aux += x[j] * couplings[row + j];
+			}
+			sum += aux * x[i];
+		}
+		return sum;
+
+	}
+
+}
@@ -0,0 +1,242 @@
+package problems.qbf;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * Upper triangular matrix of coefficients of a QBF kept off the heap, in a
+ * read-only memory mapping of an instance in the binary format of
+ * {@link QBFBinaryFormat}. The coefficients are read straight from the mapped
+ * file, packed row by row as in {@link UpperTriangularMatrix}, so the
+ * instance lives in the page cache of the operating system: loading it takes
+ * no time, it is not limited by the maximum size of a Java array, and several
+ * JVMs solving the same instance on the same host share a single copy of it.
+ *
+ * Since a single mapping is limited to 2GB, the payload is mapped in chunks
+ * of 2^{@link #CHUNK_SHIFT} coefficients. The mapping is released when the
+ * matrix is garbage collected.
+ *
+ * @author ccavellucci, fusberti
+ */
+public class MappedUpperTriangularMatrix implements CoefficientMatrix {
+
+	/**
+	 * the base 2 logarithm of the number of coefficients of each chunk.
+	 */
+	public static final int CHUNK_SHIFT = 27;
+
+	/**
+	 * Name of the mapped file.
+	 */
+	private final String filename;
+
+	/**
+	 * Dimension of the matrix.
+	 */
+	private final int size;
+
+	/**
+	 * The checksum of the payload, given by the header of the file.
+	 */
+	private final long checksum;
+
+	/**
+	 * The mapped chunks of the payload, as seen by {@link #doubleChunks} or
+	 * {@link #intChunks}.
+	 */
+	private final MappedByteBuffer[] chunks;
+
+	/**
+	 * The chunks of a payload of float64 coefficients, or null.
+	 */
+	private final DoubleBuffer[] doubleChunks;
+
+	/**
+	 * The chunks of a payload of int32 coefficients, or null.
+	 */
+	private final IntBuffer[] intChunks;
+
+	private final int chunkShift;
+
+	private final long chunkMask;
+
+	/**
+	 * Constructor for the MappedUpperTriangularMatrix class, which maps a
+	 * binary instance. Only the header is read; the checksum of the payload
+	 * may be checked with {@link #verifyChecksum()}.
+	 *
+	 * @param filename
+	 *            name of the binary instance.
+	 * @throws IOException
+	 *             if the file cannot be mapped or is not a valid binary
+	 *             instance.
+	 */
+	public MappedUpperTriangularMatrix(String filename) throws IOException {
+		this(filename, CHUNK_SHIFT);
+	}
+
+	/**
+	 * Constructor for the MappedUpperTriangularMatrix class with chunks of
+	 * 2^chunkShift coefficients.
+	 */
+	MappedUpperTriangularMatrix(String filename, int chunkShift) throws IOException {
+
+		this.filename = filename;
+		this.chunkShift = chunkShift;
+		this.chunkMask = (1L << chunkShift) - 1;
+
+		try (FileChannel channel = FileChannel.open(Paths.get(filename), StandardOpenOption.READ)) {
+
+			QBFBinaryFormat.Header header = QBFBinaryFormat.readHeader(channel, filename);
+			this.size = header.size;
+			this.checksum = header.checksum;
+
+			long length = header.length();
+			int width = header.width();
+			int numChunks = (int) ((length + chunkMask) >>> chunkShift);
+			chunks = new MappedByteBuffer[numChunks];
+			doubleChunks = (header.type == QBFBinaryFormat.TYPE_FLOAT64) ? new DoubleBuffer[numChunks] : null;
+			intChunks = (header.type == QBFBinaryFormat.TYPE_INT32) ? new IntBuffer[numChunks] : null;
+
+			for (int c = 0; c < numChunks; c++) {
+				long first = (long) c << chunkShift;
+				long count = Math.min(1L << chunkShift, length - first);
+				chunks[c] = channel.map(FileChannel.MapMode.READ_ONLY, QBFBinaryFormat.HEADER_SIZE + first * width, count * width);
+				ByteBuffer chunk = chunks[c].duplicate().order(ByteOrder.LITTLE_ENDIAN);
+				if (doubleChunks != null)
+					doubleChunks[c] = chunk.asDoubleBuffer();
+				else
+					intChunks[c] = chunk.asIntBuffer();
+			}
+		}
+
+	}
+
+	/**
+	 * Checks the payload against the checksum of the header, which reads the
+	 * whole file and therefore also brings it into the page cache.
+	 *
+	 * @throws IOException
+	 *             if the payload does not match the checksum.
+	 */
+	public void verifyChecksum() throws IOException {
+
+		CRC32 crc = new CRC32();
+		for (MappedByteBuffer chunk : chunks) {
+			crc.update(chunk.duplicate());
+		}
+		if (crc.getValue() != checksum)
+			throw new IOException(filename + " is corrupted: checksum mismatch");
+
+	}
+
+	/**
+	 * Gives the position of element (i,j), with i <= j, in the payload.
+	 *
+	 * @param i
+	 *            the row of the element.
+	 * @param j
+	 *            the column of the element.
+	 * @return the position of the element in the payload.
+	 */
+	public long index(int i, int j) {
+		return (long) i * size - (long) i * (i - 1) / 2 + (j - i);
+	}
+
+	/**
+	 * Gives the coefficient at a position of the payload.
+	 */
+	private double value(long pos) {
+		int c = (int) (pos >>> chunkShift);
+		int offset = (int) (pos & chunkMask);
+		return (doubleChunks != null) ? doubleChunks[c].get(offset) : intChunks[c].get(offset);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see problems.qbf.CoefficientMatrix#getSize()
+	 */
+	@Override
+	public int getSize() {
+		return size;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see problems.qbf.CoefficientMatrix#get(int, int)
+	 */
+	@Override
+	public double get(int i, int j) {
+		if (i > j)
+			return 0.0;
+		return value(index(i, j));
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see problems.qbf.CoefficientMatrix#coupling(int, int)
+	 */
+	@Override
+	public double coupling(int i, int j) {
+		return (i < j) ? value(index(i, j)) : value(index(j, i));
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see problems.qbf.CoefficientMatrix#dotCoupling(int, double[])
+	 */
+	@Override
+	public double dotCoupling(int i, double[] x) {
+
+		double sum = 0.0;
+
+		/* column i, above the diagonal, stepping one row at a time */
+		long pos = i;
+		for (int j = 0; j < i; j++) {
+			sum += x[j] * value(pos);
+			pos += size - j - 1;
+		}
+
+		/* line i, after the diagonal, which is contiguous */
+		pos = index(i, i) + 1;
+		for (int j = i + 1; j < size; j++, pos++) {
+			sum += x[j] * value(pos);
+		}
+
+		return sum;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see problems.qbf.CoefficientMatrix#addCoupling(int, double[], double)
+	 */
+	@Override
+	public void addCoupling(int k, double[] target, double factor) {
+
+		long pos = k;
+		for (int j = 0; j < k; j++) {
+			target[j] += factor * value(pos);
+			pos += size - j - 1;
+		}
+
+		pos = index(k, k) + 1;
+		for (int j = k + 1; j < size; j++, pos++) {
+			target[j] += factor * value(pos);
+		}
+
+	}
+
+}
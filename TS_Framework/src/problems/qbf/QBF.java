@@ -1,12 +1,10 @@
 package problems.qbf;
 
-import java.io.BufferedReader;
-import java.io.FileReader;
 import java.io.IOException;
-import java.io.Reader;
-import java.io.StreamTokenizer;
 import java.util.Arrays;
-import problems.Evaluator;
+import java.util.List;
+
+import problems.IncrementalEvaluator;
 import solutions.Solution;
 
 /**
@@ -20,10 +18,14 @@ import solutions.Solution;
  * problem: a survey. J Comb Optim (2014) 28:58–81. DOI
  * 10.1007/s10878-014-9734-0.
  * 
+ * The coefficients belong to a {@link QBFInstance}, which may be shared by
+ * several QBF objects, while the variables and contributions are the
+ * evaluation workspace of a single solver.
+ * 
  * @author ccavellucci, fusberti
  *
  */
-public class QBF implements Evaluator<Integer> {
+public class QBF implements IncrementalEvaluator<Integer> {
 
 	/**
 	 * Dimension of the domain.
@@ -33,17 +35,52 @@ public class QBF implements Evaluator<Integer> {
 	/**
 	 * The array of numbers representing the domain.
 	 */
-	public final Double[] variables;
+	public final double[] variables;
+
+	/**
+	 * The instance holding the coefficients of the QBF.
+	 */
+	public final QBFInstance instance;
+
+	/**
+	 * The matrix A of coefficients for the QBF f(x) = x'.A.x, which is upper
+	 * triangular.
+	 */
+	public final CoefficientMatrix A;
+
+	/**
+	 * The contribution of each variable to the QBF given the solution being
+	 * tracked, i.e., c_i = A_ii + \sum{j!=i}{x_j*(A_ij + A_ji)}. It is only
+	 * allocated when the incremental mode is on.
+	 */
+	protected double[] contributions;
+
+	/**
+	 * The solution mirrored by {@link #variables} and {@link #contributions}
+	 * in the incremental mode, or null if the incremental mode is off.
+	 */
+	protected Solution<Integer> trackedSol;
+
+	/**
+	 * Workspace of the batch exchange evaluation: the elements considered for
+	 * removal and their contributions.
+	 */
+	private int[] outElements;
+
+	private double[] outContributions;
 
 	/**
-	 * The matrix A of coefficients for the QBF f(x) = x'.A.x
+	 * Workspace of the batch exchange evaluation over a sparse matrix: the
+	 * interaction coefficients of the element considered for insertion,
+	 * scattered by {@link CoefficientMatrix#addCoupling(int, double[], double)}
+	 * and zeroed again afterwards.
 	 */
-	public Double[][] A;
+	private double[] couplingRow;
 
 	/**
 	 * The constructor for QuadracticBinaryFunction class. The filename of the
-	 * input for setting matrix of coefficients A of the QBF. The dimension of
-	 * the array of variables x is returned from the {@link #readInput} method.
+	 * input for setting matrix of coefficients A of the QBF, which is read by
+	 * {@link QBFInstance#readInput(String)}.
 	 * 
 	 * @param filename
 	 *            Name of the file containing the input for setting the QBF.
@@ -51,10 +88,33 @@ public class QBF implements Evaluator<Integer> {
 	 *             Necessary for I/O operations.
 	 */
 	public QBF(String filename) throws IOException {
-		size = readInput(filename);
+		this(QBFInstance.readInput(filename));
+	}
+
+	/**
+	 * Constructor for a QBF evaluating an instance already loaded. Only the
+	 * evaluation workspace is allocated, the coefficients are shared with the
+	 * instance.
+	 * 
+	 * @param instance
+	 *            the instance holding the coefficients of the QBF.
+	 */
+	public QBF(QBFInstance instance) {
+		this.instance = instance;
+		this.A = instance.getMatrix();
+		size = instance.getSize();
 		variables = allocateVariables();
 	}
 
+	/**
+	 * Gives the instance holding the coefficients of the QBF.
+	 * 
+	 * @return the instance.
+	 */
+	public QBFInstance getInstance() {
+		return instance;
+	}
+
 	/**
 	 * Evaluates the value of a solution by transforming it into a vector. This
 	 * is required to perform the matrix multiplication which defines a QBF.
@@ -83,6 +143,91 @@ public class QBF implements Evaluator<Integer> {
 		return size;
 	}
 
+	/**
+	 * {@inheritDoc} Turns on the incremental mode, in which {@link #variables}
+	 * and {@link #contributions} are kept synchronized with the tracked
+	 * solution, so that evaluating an insertion or a removal costs O(1) and an
+	 * exchange costs O(1) plus one matrix lookup. Passing null turns the
+	 * incremental mode off.
+	 */
+	@Override
+	public void track(Solution<Integer> sol) {
+
+		trackedSol = sol;
+		if (sol == null) {
+			contributions = null;
+			return;
+		}
+
+		setVariables(sol);
+		if (contributions == null)
+			contributions = new double[size];
+		for (int i = 0; i < size; i++) {
+			contributions[i] = computeContributionQBF(i);
+		}
+
+	}
+
+	/**
+	 * {@inheritDoc} Only the contributions of the other variables need to be
+	 * updated, which takes O(n).
+	 */
+	@Override
+	public void applyInsertion(Integer elem) {
+
+		if (variables[elem] == 1)
+			return;
+		variables[elem] = 1.0;
+		updateContributions(elem, 1.0);
+
+	}
+
+	/**
+	 * {@inheritDoc} Only the contributions of the other variables need to be
+	 * updated, which takes O(n).
+	 */
+	@Override
+	public void applyRemoval(Integer elem) {
+
+		if (variables[elem] == 0)
+			return;
+		variables[elem] = 0.0;
+		updateContributions(elem, -1.0);
+
+	}
+
+	/**
+	 * Adds (or subtracts) the interaction terms of variable k to the
+	 * contributions of all other variables.
+	 *
+	 * @param k
+	 *            index of the variable which changed its value.
+	 * @param sign
+	 *            1.0 if the variable was set, -1.0 if it was reset.
+	 */
+	private void updateContributions(int k, double sign) {
+
+		A.addCoupling(k, contributions, sign);
+
+	}
+
+	/**
+	 * Makes sure the evaluator state reflects the solution under evaluation.
+	 * In the incremental mode the state is rebuilt only when a solution other
+	 * than the tracked one is given.
+	 *
+	 * @param sol
+	 *            the solution under evaluation.
+	 */
+	private void synchronize(Solution<Integer> sol) {
+
+		if (trackedSol == null)
+			setVariables(sol);
+		else if (trackedSol != sol)
+			track(sol);
+
+	}
+
 	/**
 	 * {@inheritDoc} In the case of a QBF, the evaluation correspond to
 	 * computing a matrix multiplication x'.A.x. A better way to evaluate this
@@ -95,7 +240,7 @@ public class QBF implements Evaluator<Integer> {
 	@Override
 	public Double evaluate(Solution<Integer> sol) {
 
-		setVariables(sol);
+		synchronize(sol);
 		return sol.cost = evaluateQBF();
 
 	}
@@ -108,19 +253,7 @@ public class QBF implements Evaluator<Integer> {
 	 */
 	public Double evaluateQBF() {
 
-		Double aux = (double) 0, sum = (double) 0;
-		Double vecAux[] = new Double[size];
-
-		for (int i = 0; i < size; i++) {
-			for (int j = 0; j < size; j++) {
-				aux += variables[j] * A[i][j];
-			}
-			vecAux[i] = aux;
-			sum += aux * variables[i];
-			aux = (double) 0;
-		}
-
-		return sum;
+		return A.quadraticForm(variables);
 
 	}
 
@@ -133,7 +266,7 @@ public class QBF implements Evaluator<Integer> {
 	@Override
 	public Double evaluateInsertionCost(Integer elem, Solution<Integer> sol) {
 
-		setVariables(sol);
+		synchronize(sol);
 		return evaluateInsertionQBF(elem);
 
 	}
@@ -149,10 +282,7 @@ public class QBF implements Evaluator<Integer> {
 	 */
 	public Double evaluateInsertionQBF(int i) {
 
-		if (variables[i] == 1)
-			return 0.0;
-
-		return evaluateContributionQBF(i);
+		return insertionDelta(i);
 	}
 
 	/*
@@ -164,7 +294,7 @@ public class QBF implements Evaluator<Integer> {
 	@Override
 	public Double evaluateRemovalCost(Integer elem, Solution<Integer> sol) {
 
-		setVariables(sol);
+		synchronize(sol);
 		return evaluateRemovalQBF(elem);
 
 	}
@@ -180,10 +310,7 @@ public class QBF implements Evaluator<Integer> {
 	 */
 	public Double evaluateRemovalQBF(int i) {
 
-		if (variables[i] == 0)
-			return 0.0;
-
-		return -evaluateContributionQBF(i);
+		return removalDelta(i);
 
 	}
 
@@ -196,11 +323,24 @@ public class QBF implements Evaluator<Integer> {
 	@Override
 	public Double evaluateExchangeCost(Integer elemIn, Integer elemOut, Solution<Integer> sol) {
 
-		setVariables(sol);
+		synchronize(sol);
 		return evaluateExchangeQBF(elemIn, elemOut);
 
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * 
+	 * The exchange of in and out differs from the two separate moves by the
+	 * interaction coefficient A_in,out + A_out,in, whose absolute value is
+	 * bounded by {@link QBFInstance#getCouplingBounds()}, which also holds for
+	 * the inverse QBF.
+	 */
+	@Override
+	public double getInteractionBound(Integer elemIn) {
+		return instance.getCouplingBounds()[elemIn];
+	}
+
 	/**
 	 * Determines the contribution to the QBF objective function from the
 	 * exchange of two elements one belonging to the solution and the other not.
@@ -216,22 +356,121 @@ public class QBF implements Evaluator<Integer> {
 	 */
 	public Double evaluateExchangeQBF(int in, int out) {
 
-		Double sum = 0.0;
+		double sum = 0.0;
 
 		if (in == out)
 			return 0.0;
 		if (variables[in] == 1)
-			return evaluateRemovalQBF(out);
+			return removalDelta(out);
 		if (variables[out] == 0)
-			return evaluateInsertionQBF(in);
+			return insertionDelta(in);
 
 		sum += evaluateContributionQBF(in);
 		sum -= evaluateContributionQBF(out);
-		sum -= (A[in][out] + A[out][in]);
+		sum -= A.coupling(in, out);
 
 		return sum;
 	}
 
+	/**
+	 * Gives the variation of the QBF from setting a variable to one, which
+	 * unlike {@link #evaluateInsertionQBF(int)} is not overridden by
+	 * subclasses, so that {@link #evaluateExchangeQBF(int, int)} does not
+	 * negate it twice in {@link QBF_Inverse}.
+	 */
+	private double insertionDelta(int i) {
+		return (variables[i] == 1) ? 0.0 : evaluateContributionQBF(i);
+	}
+
+	/**
+	 * Gives the variation of the QBF from resetting a variable to zero, which
+	 * unlike {@link #evaluateRemovalQBF(int)} is not overridden by subclasses.
+	 */
+	private double removalDelta(int i) {
+		return (variables[i] == 0) ? 0.0 : -evaluateContributionQBF(i);
+	}
+
+	/**
+	 * {@inheritDoc} The state is synchronized once for all the elements, and
+	 * the variations are computed as in {@link #evaluateInsertionQBF(int)}.
+	 */
+	@Override
+	public void evaluateInsertionCosts(List<Integer> elems, Solution<Integer> sol, double[] deltas) {
+
+		synchronize(sol);
+		for (int k = 0; k < elems.size(); k++) {
+			int i = elems.get(k);
+			deltas[k] = (variables[i] == 1) ? 0.0 : evaluateContributionQBF(i);
+		}
+
+	}
+
+	/**
+	 * {@inheritDoc} The state is synchronized once for all the elements, and
+	 * the variations are computed as in {@link #evaluateRemovalQBF(int)}.
+	 */
+	@Override
+	public void evaluateRemovalCosts(List<Integer> elems, Solution<Integer> sol, double[] deltas) {
+
+		synchronize(sol);
+		for (int k = 0; k < elems.size(); k++) {
+			int i = elems.get(k);
+			deltas[k] = (variables[i] == 0) ? 0.0 : -evaluateContributionQBF(i);
+		}
+
+	}
+
+	/**
+	 * {@inheritDoc} The state is synchronized once, the contribution of each
+	 * element is computed once instead of once per exchange, and the
+	 * variations are computed as in {@link #evaluateExchangeQBF(int, int)},
+	 * so that each exchange only takes a matrix lookup.
+	 */
+	@Override
+	public void evaluateExchangeCosts(List<Integer> elemsIn, List<Integer> elemsOut, Solution<Integer> sol, double[] deltas) {
+
+		synchronize(sol);
+		int numOut = elemsOut.size();
+		if (outElements == null || outElements.length < numOut) {
+			outElements = new int[Math.max(numOut, size)];
+			outContributions = new double[Math.max(numOut, size)];
+		}
+		for (int b = 0; b < numOut; b++) {
+			outElements[b] = elemsOut.get(b);
+			outContributions[b] = evaluateContributionQBF(outElements[b]);
+		}
+
+		for (int a = 0; a < elemsIn.size(); a++) {
+			int in = elemsIn.get(a);
+			double inContribution = evaluateContributionQBF(in);
+			int row = a * numOut;
+
+			/* a short line of the matrix is scattered rather than searched for each element out */
+			boolean scatter = 2L * A.getDegree(in) < numOut;
+			if (scatter) {
+				if (couplingRow == null)
+					couplingRow = new double[size];
+				A.addCoupling(in, couplingRow, 1.0);
+			}
+			for (int b = 0; b < numOut; b++) {
+				int out = outElements[b];
+				double sum;
+				if (in == out)
+					sum = 0.0;
+				else if (variables[in] == 1)
+					sum = (variables[out] == 0) ? 0.0 : -outContributions[b];
+				else if (variables[out] == 0)
+					sum = inContribution;
+				else
+					sum = inContribution - outContributions[b] - (scatter ? couplingRow[out] : A.coupling(in, out));
+				deltas[row + b] = sum;
+			}
+			if (scatter)
+				A.addCoupling(in, couplingRow, -1.0);
+		}
+
+	}
+
 	/**
 	 * Determines the contribution to the QBF objective function from the
 	 * insertion of an element. This method is faster than evaluating the whole
@@ -239,59 +478,32 @@ public class QBF implements Evaluator<Integer> {
 	 * matrix A needs to be evaluated when inserting a new element into the
 	 * solution. This method is different from {@link #evaluateInsertionQBF(int)},
 	 * since it disregards the fact that the element might already be in the
-	 * solution.
+	 * solution. In the incremental mode the contribution is already known.
 	 * 
 	 * @param i
 	 *            index of the element being inserted into the solution.
 	 * @return the variation of the objective function resulting from the
 	 *         insertion.
 	 */
-	private Double evaluateContributionQBF(int i) {
+	private double evaluateContributionQBF(int i) {
 
-		Double sum = 0.0;
+		if (contributions != null)
+			return contributions[i];
 
-		for (int j = 0; j < size; j++) {
-			if (i != j)
-				sum += variables[j] * (A[i][j] + A[j][i]);
-		}
-		sum += A[i][i];
-
-		return sum;
+		return computeContributionQBF(i);
 	}
 
 	/**
-	 * Responsible for setting the QBF function parameters by reading the
-	 * necessary input from an external file. this method reads the domain's
-	 * dimension and matrix {@link #A}.
+	 * Computes the contribution of an element from one line and one column of
+	 * matrix A, regardless of the incremental mode.
 	 * 
-	 * @param filename
-	 *            Name of the file containing the input for setting the black
-	 *            box function.
-	 * @return The dimension of the domain.
-	 * @throws IOException
-	 *             Necessary for I/O operations.
+	 * @param i
+	 *            index of the element.
+	 * @return the contribution of the element to the QBF.
 	 */
-	protected Integer readInput(String filename) throws IOException {
-
-		Reader fileInst = new BufferedReader(new FileReader(filename));
-		StreamTokenizer stok = new StreamTokenizer(fileInst);
-
-		stok.nextToken();
-		Integer _size = (int) stok.nval;
-		A = new Double[_size][_size];
-
-		for (int i = 0; i < _size; i++) {
-			for (int j = i; j < _size; j++) {
-				stok.nextToken();
-				A[i][j] = stok.nval;
-				//A[j][i] = A[i][j];
-				if (j>i)
-					A[j][i] = 0.0;
-			}
-		}
-
-		return _size;
+	private double computeContributionQBF(int i) {
 
+		return A.dotCoupling(i, variables) + A.get(i, i);
 	}
 
 	/**
@@ -300,8 +512,8 @@ public class QBF implements Evaluator<Integer> {
 	 * 
 	 * @return a pointer to the array of domain variables.
 	 */
-	protected Double[] allocateVariables() {
-		Double[] _variables = new Double[size];
+	protected double[] allocateVariables() {
+		double[] _variables = new double[size];
 		return _variables;
 	}
 
@@ -319,7 +531,7 @@ public class QBF implements Evaluator<Integer> {
 
 		for (int i = 0; i < size; i++) {
 			for (int j = i; j < size; j++) {
-				System.out.print(A[i][j] + " ");
+				System.out.print(A.get(i, j) + " ");
 			}
 			System.out.println();
 		}
@@ -0,0 +1,305 @@
+package problems.qbf;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * Compact binary format for QBF instances, loaded straight into the packed
+ * array of an {@link UpperTriangularMatrix}. A file holds a header followed by
+ * the upper triangle of matrix A, packed row by row as in
+ * {@link UpperTriangularMatrix}. The header and the payload are little-endian.
+ *
+ * <pre>
+ * int32   magic number, "QBFB"
+ * int32   version of the format
+ * int32   dimension of the domain
+ * int32   type of the coefficients, {@link #TYPE_INT32} or {@link #TYPE_FLOAT64}
+ * int64   CRC32 checksum of the payload
+ * ...     the n*(n+1)/2 coefficients
+ * </pre>
+ *
+ * The coefficients are written as int32 whenever all of them are integers,
+ * which is the case of the instances in the text format.
+ *
+ * @author ccavellucci, fusberti
+ */
+public class QBFBinaryFormat {
+
+	/**
+	 * the first four bytes of a binary instance.
+	 */
+	public static final int MAGIC = 0x42464251;
+
+	/**
+	 * the version of the format.
+	 */
+	public static final int VERSION = 1;
+
+	/**
+	 * the type of integer coefficients.
+	 */
+	public static final int TYPE_INT32 = 1;
+
+	/**
+	 * the type of double precision coefficients.
+	 */
+	public static final int TYPE_FLOAT64 = 2;
+
+	/**
+	 * the extension given to the files written by the converter.
+	 */
+	public static final String EXTENSION = ".qbfb";
+
+	/**
+	 * the size of the header, in bytes.
+	 */
+	static final int HEADER_SIZE = 24;
+
+	/**
+	 * the size of the buffer through which the payload is transferred, in
+	 * bytes.
+	 */
+	private static final int BUFFER_SIZE = 1 << 16;
+
+	/**
+	 * The contents of the header of a binary instance.
+	 */
+	static class Header {
+
+		final int size;
+
+		final int type;
+
+		final long checksum;
+
+		Header(int size, int type, long checksum) {
+			this.size = size;
+			this.type = type;
+			this.checksum = checksum;
+		}
+
+		/**
+		 * Gives the number of bytes of each coefficient.
+		 */
+		int width() {
+			return (type == TYPE_INT32) ? Integer.BYTES : Double.BYTES;
+		}
+
+		/**
+		 * Gives the number of coefficients of the payload.
+		 */
+		long length() {
+			return (long) size * (size + 1) / 2;
+		}
+
+	}
+
+	private QBFBinaryFormat() {
+	}
+
+	/**
+	 * Tests whether a file holds an instance in the binary format, by looking
+	 * at its magic number.
+	 *
+	 * @param filename
+	 *            name of the file.
+	 * @return true if the file is a binary instance.
+	 * @throws IOException
+	 *             Necessary for I/O operations.
+	 */
+	public static boolean isBinary(String filename) throws IOException {
+
+		try (FileChannel channel = FileChannel.open(Paths.get(filename), StandardOpenOption.READ)) {
+			ByteBuffer magic = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN);
+			while (magic.hasRemaining() && channel.read(magic) != -1)
+				;
+			return !magic.hasRemaining() && magic.getInt(0) == MAGIC;
+		}
+
+	}
+
+	/**
+	 * Reads the matrix of coefficients of a binary instance. The payload is
+	 * transferred through a direct buffer in bulk into the packed array of
+	 * the matrix, and checked against the checksum of the header.
+	 *
+	 * @param filename
+	 *            name of the file.
+	 * @return the matrix of coefficients.
+	 * @throws IOException
+	 *             if the file cannot be read or is not a valid binary
+	 *             instance.
+	 */
+	public static UpperTriangularMatrix read(String filename) throws IOException {
+
+		try (FileChannel channel = FileChannel.open(Paths.get(filename), StandardOpenOption.READ)) {
+
+			Header header = readHeader(channel, filename);
+			int type = header.type;
+			int width = header.width();
+			UpperTriangularMatrix A = new UpperTriangularMatrix(header.size);
+			double[] values = A.values;
+
+			CRC32 crc = new CRC32();
+			ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE - BUFFER_SIZE % width).order(ByteOrder.LITTLE_ENDIAN);
+			int[] ints = (type == TYPE_INT32) ? new int[buffer.capacity() / width] : null;
+			int pos = 0;
+			while (pos < values.length) {
+				buffer.clear();
+				buffer.limit((int) Math.min(buffer.capacity(), (long) (values.length - pos) * width));
+				readFully(channel, buffer, filename);
+				buffer.flip();
+				crc.update(buffer);
+				buffer.flip();
+				int count = buffer.remaining() / width;
+				if (type == TYPE_INT32) {
+					buffer.asIntBuffer().get(ints, 0, count);
+					for (int k = 0; k < count; k++) {
+						values[pos + k] = ints[k];
+					}
+				} else {
+					buffer.asDoubleBuffer().get(values, pos, count);
+				}
+				pos += count;
+			}
+			if (crc.getValue() != header.checksum)
+				throw new IOException(filename + " is corrupted: checksum mismatch");
+
+			return A;
+		}
+
+	}
+
+	/**
+	 * Reads and validates the header of a binary instance, including the size
+	 * of the file, leaving the channel at the start of the payload.
+	 *
+	 * @param channel
+	 *            the channel of the file, at its start.
+	 * @param filename
+	 *            name of the file, for the error messages.
+	 * @return the header.
+	 * @throws IOException
+	 *             if the file is not a valid binary instance.
+	 */
+	static Header readHeader(FileChannel channel, String filename) throws IOException {
+
+		ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+		readFully(channel, buffer, filename);
+		buffer.flip();
+		if (buffer.getInt() != MAGIC)
+			throw new IOException(filename + " is not a binary QBF instance");
+		int version = buffer.getInt();
+		if (version != VERSION)
+			throw new IOException(filename + " has unsupported version " + version);
+		int size = buffer.getInt();
+		int type = buffer.getInt();
+		long checksum = buffer.getLong();
+		if (size < 0 || (type != TYPE_INT32 && type != TYPE_FLOAT64))
+			throw new IOException(filename + " has an invalid header");
+
+		Header header = new Header(size, type, checksum);
+		if (channel.size() != HEADER_SIZE + header.length() * header.width())
+			throw new IOException(filename + " has " + channel.size() + " bytes, which does not match its header");
+		return header;
+
+	}
+
+	/**
+	 * Writes a matrix of coefficients as a binary instance, as int32
+	 * coefficients if all of them are integers, or as float64 otherwise.
+	 *
+	 * @param A
+	 *            the matrix of coefficients.
+	 * @param filename
+	 *            name of the file, which is overwritten if it exists.
+	 * @throws IOException
+	 *             Necessary for I/O operations.
+	 */
+	public static void write(CoefficientMatrix A, String filename) throws IOException {
+
+		int n = A.getSize();
+		int type = isIntegral(A) ? TYPE_INT32 : TYPE_FLOAT64;
+		int width = (type == TYPE_INT32) ? Integer.BYTES : Double.BYTES;
+
+		try (FileChannel channel = FileChannel.open(Paths.get(filename), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+
+			/* the payload goes first, leaving room for the header, whose checksum is known only at the end */
+			channel.position(HEADER_SIZE);
+			CRC32 crc = new CRC32();
+			ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+			for (int i = 0; i < n; i++) {
+				for (int j = i; j < n; j++) {
+					if (buffer.remaining() < width)
+						flush(channel, buffer, crc);
+					if (type == TYPE_INT32)
+						buffer.putInt((int) A.get(i, j));
+					else
+						buffer.putDouble(A.get(i, j));
+				}
+			}
+			flush(channel, buffer, crc);
+
+			ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+			header.putInt(MAGIC).putInt(VERSION).putInt(A.getSize()).putInt(type).putLong(crc.getValue());
+			header.flip();
+			channel.position(0);
+			while (header.hasRemaining())
+				channel.write(header);
+		}
+
+	}
+
+	private static boolean isIntegral(CoefficientMatrix A) {
+		for (int i = 0; i < A.getSize(); i++) {
+			for (int j = i; j < A.getSize(); j++) {
+				double value = A.get(i, j);
+				if (value != (int) value)
+					return false;
+			}
+		}
+		return true;
+	}
+
+	static void flush(FileChannel channel, ByteBuffer buffer, CRC32 crc) throws IOException {
+		buffer.flip();
+		crc.update(buffer);
+		buffer.flip();
+		while (buffer.hasRemaining())
+			channel.write(buffer);
+		buffer.clear();
+	}
+
+	static void readFully(FileChannel channel, ByteBuffer buffer, String filename) throws IOException {
+		while (buffer.hasRemaining()) {
+			if (channel.read(buffer) == -1)
+				throw new IOException(filename + " ended unexpectedly");
+		}
+	}
+
+	/**
+	 * Converts instances from the text format into the binary format. Each
+	 * instance is written next to the original file, with the
+	 * {@link #EXTENSION} extension appended to its name.
+	 *
+	 * Usage: QBFBinaryFormat [text instance]...
+	 */
+	public static void main(String[] args) throws IOException {
+
+		for (String filename : args) {
+			Path target = Paths.get(filename + EXTENSION);
+			long startTime = System.currentTimeMillis();
+			QBFInstance instance = QBFInstance.readTextInput(filename);
+			write(instance.getMatrix(), target.toString());
+			System.out.println(filename + " -> " + target + " (n = " + instance.getSize() + ", " + (System.currentTimeMillis() - startTime) + " ms)");
+		}
+
+	}
+
+}
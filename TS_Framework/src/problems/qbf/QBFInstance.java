@@ -0,0 +1,217 @@
+package problems.qbf;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StreamTokenizer;
+import java.util.Collections;
+import java.util.List;
+
+import utils.ProibitedTuple;
+import utils.Utils;
+
+/**
+ * The read-only data of a QBF instance with prohibited triples: the dimension
+ * of the domain, the upper triangular matrix of coefficients and the list of
+ * prohibited triples. An instance holds no evaluation state, so a single
+ * instance can be shared by any number of {@link QBF} evaluators, each one
+ * owned by a solver running in its own thread. The matrix must not be
+ * modified once the instance is built, and it may either be loaded on the heap
+ * or mapped from a binary file (see {@link #mapInput(String)}).
+ *
+ * @author ccavellucci, fusberti
+ */
+public class QBFInstance {
+
+	/**
+	 * Dimension of the domain.
+	 */
+	private final int size;
+
+	/**
+	 * The matrix A of coefficients for the QBF f(x) = x'.A.x, which is upper
+	 * triangular.
+	 */
+	private final CoefficientMatrix A;
+
+	/**
+	 * The prohibited triples of the instance.
+	 */
+	private final List<ProibitedTuple> proibitedTuples;
+
+	/**
+	 * The largest absolute interaction coefficient of each variable, computed
+	 * on the first request, see {@link #getCouplingBounds()}.
+	 */
+	private volatile double[] couplingBounds;
+
+	/**
+	 * Constructor for the QBFInstance class. The prohibited triples are
+	 * generated according to the dimension of the matrix.
+	 *
+	 * @param A
+	 *            the matrix of coefficients.
+	 */
+	public QBFInstance(CoefficientMatrix A) {
+		this.size = A.getSize();
+		this.A = A;
+		this.proibitedTuples = Collections.unmodifiableList(Utils.getProibitedTuples(size));
+	}
+
+	private QBFInstance(CoefficientMatrix A, List<ProibitedTuple> proibitedTuples) {
+		this.size = A.getSize();
+		this.A = A;
+		this.proibitedTuples = proibitedTuples;
+	}
+
+	/**
+	 * Gives the dimension of the domain.
+	 *
+	 * @return the dimension of the domain.
+	 */
+	public int getSize() {
+		return size;
+	}
+
+	/**
+	 * Gives the matrix of coefficients, which must not be modified.
+	 *
+	 * @return the matrix of coefficients.
+	 */
+	public CoefficientMatrix getMatrix() {
+		return A;
+	}
+
+	/**
+	 * Gives a copy of the instance whose matrix has the dense layout of
+	 * {@link DenseCouplingMatrix}, which speeds up the evaluations at the cost
+	 * of about four times the memory. The layout uses the Vector API when it
+	 * is available, see {@link DenseCouplingMatrix#create(CoefficientMatrix)}.
+	 *
+	 * @return the instance with the dense layout.
+	 */
+	public QBFInstance toDense() {
+		return new QBFInstance(DenseCouplingMatrix.create(A), proibitedTuples);
+	}
+
+	/**
+	 * Gives, for each variable i, the largest absolute interaction
+	 * coefficient max{j!=i}{|A_ij + A_ji|}, which bounds how much exchanging
+	 * i for another variable differs from inserting i and removing the other
+	 * variable separately. The bounds are computed on the first request, see
+	 * {@link CoefficientMatrix#maxAbsCoupling(int)}, and then shared by all
+	 * the evaluators of the instance.
+	 *
+	 * @return the array of bounds, which must not be modified.
+	 */
+	public double[] getCouplingBounds() {
+		double[] bounds = couplingBounds;
+		if (bounds == null) {
+			bounds = new double[size];
+			for (int i = 0; i < size; i++) {
+				bounds[i] = A.maxAbsCoupling(i);
+			}
+			couplingBounds = bounds;
+		}
+		return bounds;
+	}
+
+	/**
+	 * Gives a copy of the instance whose matrix has the sparse layout of
+	 * {@link SparseCouplingMatrix}, which takes O(degree) per evaluation
+	 * instead of O(n), or the instance itself if its matrix already has that
+	 * layout.
+	 *
+	 * @return the instance with the sparse layout.
+	 */
+	public QBFInstance toSparse() {
+		if (A instanceof SparseCouplingMatrix)
+			return this;
+		return new QBFInstance(SparseCouplingMatrix.fromMatrix(A), proibitedTuples);
+	}
+
+	/**
+	 * Gives the prohibited triples of the instance.
+	 *
+	 * @return an unmodifiable list of the prohibited triples.
+	 */
+	public List<ProibitedTuple> getProibitedTuples() {
+		return proibitedTuples;
+	}
+
+	/**
+	 * Responsible for reading an instance from an external file, either in
+	 * the binary format of {@link QBFBinaryFormat}, in one of the sparse
+	 * formats of {@link QBFSparseFormat} or in the text format, which holds
+	 * the domain's dimension followed by the upper triangle of matrix A, line
+	 * by line. The format is detected from the contents of the file, and the
+	 * instances in a sparse format get a {@link SparseCouplingMatrix}.
+	 *
+	 * @param filename
+	 *            Name of the file containing the instance.
+	 * @return The instance read.
+	 * @throws IOException
+	 *             Necessary for I/O operations.
+	 */
+	public static QBFInstance readInput(String filename) throws IOException {
+
+		if (QBFBinaryFormat.isBinary(filename))
+			return new QBFInstance(QBFBinaryFormat.read(filename));
+		if (QBFSparseFormat.isBinary(filename))
+			return new QBFInstance(QBFSparseFormat.read(filename));
+		if (QBFSparseFormat.isMatrixMarket(filename))
+			return new QBFInstance(QBFSparseFormat.readMatrixMarket(filename));
+		return readTextInput(filename);
+
+	}
+
+	/**
+	 * Maps an instance in the binary format of {@link QBFBinaryFormat},
+	 * without loading its coefficients on the heap, see
+	 * {@link MappedUpperTriangularMatrix}. This is the way to solve instances
+	 * too large for the heap, or to share an instance between several JVMs.
+	 *
+	 * @param filename
+	 *            Name of the file containing the binary instance.
+	 * @return The instance mapped.
+	 * @throws IOException
+	 *             Necessary for I/O operations.
+	 */
+	public static QBFInstance mapInput(String filename) throws IOException {
+
+		return new QBFInstance(new MappedUpperTriangularMatrix(filename));
+
+	}
+
+	/**
+	 * Reads an instance in the text format.
+	 *
+	 * @param filename
+	 *            Name of the file containing the instance.
+	 * @return The instance read.
+	 * @throws IOException
+	 *             Necessary for I/O operations.
+	 */
+	public static QBFInstance readTextInput(String filename) throws IOException {
+
+		try (Reader fileInst = new BufferedReader(new FileReader(filename))) {
+			StreamTokenizer stok = new StreamTokenizer(fileInst);
+
+			stok.nextToken();
+			int _size = (int) stok.nval;
+			UpperTriangularMatrix _A = new UpperTriangularMatrix(_size);
+
+			for (int i = 0; i < _size; i++) {
+				for (int j = i; j < _size; j++) {
+					stok.nextToken();
+					_A.set(i, j, stok.nval);
+				}
+			}
+
+			return new QBFInstance(_A);
+		}
+
+	}
+
+}
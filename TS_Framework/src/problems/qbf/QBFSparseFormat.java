@@ -0,0 +1,404 @@
+package problems.qbf;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * Sparse formats for QBF instances, read into a {@link SparseCouplingMatrix}
+ * in O(n + nnz) time and memory, so that instances with a dimension far
+ * beyond the dense formats can be solved.
+ *
+ * The text format is the coordinate format of Matrix Market: a header line,
+ * comment lines starting with %, a line with the number of rows, columns and
+ * elements, then one line "i j value" per element, with 1-based indices.
+ * With the general symmetry, the elements are the ones of matrix A, in any
+ * position. With the symmetric one, only one element of each pair is listed
+ * and the matrix is A = S, so the interaction coefficient of a pair is twice
+ * the element listed.
+ *
+ * <pre>
+ * %%MatrixMarket matrix coordinate real general
+ * % a comment
+ * 3 3 4
+ * 1 1 -2
+ * 1 3 5
+ * 2 2 1.5
+ * 3 2 -1
+ * </pre>
+ *
+ * The binary format holds a header followed by the compressed sparse rows of
+ * {@link SparseCouplingMatrix}. The header and the payload are little-endian.
+ *
+ * <pre>
+ * int32   magic number, "QBFS"
+ * int32   version of the format
+ * int32   dimension of the domain
+ * int32   type of the coefficients, {@link QBFBinaryFormat#TYPE_INT32} or {@link QBFBinaryFormat#TYPE_FLOAT64}
+ * int64   number of nonzero elements above the diagonal, nnz
+ * int64   CRC32 checksum of the payload
+ * ...     the n coefficients of the diagonal
+ * ...     the n+1 int32 starts of the rows
+ * ...     the nnz int32 columns of the elements
+ * ...     the nnz coefficients of the elements
+ * </pre>
+ *
+ * @author ccavellucci, fusberti
+ */
+public class QBFSparseFormat {
+
+	/**
+	 * the first four bytes of a sparse binary instance.
+	 */
+	public static final int MAGIC = 0x53464251;
+
+	/**
+	 * the version of the format.
+	 */
+	public static final int VERSION = 1;
+
+	/**
+	 * the extension given to the files written by the converter.
+	 */
+	public static final String EXTENSION = ".qbfs";
+
+	/**
+	 * the first characters of a Matrix Market file.
+	 */
+	private static final String MATRIX_MARKET_BANNER = "%%MatrixMarket";
+
+	/**
+	 * the size of the header, in bytes.
+	 */
+	static final int HEADER_SIZE = 32;
+
+	/**
+	 * the size of the buffer through which the payload is transferred, in
+	 * bytes.
+	 */
+	private static final int BUFFER_SIZE = 1 << 16;
+
+	private QBFSparseFormat() {
+	}
+
+	/**
+	 * Tests whether a file holds an instance in the sparse binary format, by
+	 * looking at its magic number.
+	 *
+	 * @param filename
+	 *            name of the file.
+	 * @return true if the file is a sparse binary instance.
+	 * @throws IOException
+	 *             Necessary for I/O operations.
+	 */
+	public static boolean isBinary(String filename) throws IOException {
+
+		try (FileChannel channel = FileChannel.open(Paths.get(filename), StandardOpenOption.READ)) {
+			ByteBuffer magic = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN);
+			while (magic.hasRemaining() && channel.read(magic) != -1)
+				;
+			return !magic.hasRemaining() && magic.getInt(0) == MAGIC;
+		}
+
+	}
+
+	/**
+	 * Tests whether a file holds an instance in the Matrix Market format, by
+	 * looking at its first line.
+	 *
+	 * @param filename
+	 *            name of the file.
+	 * @return true if the file is a Matrix Market instance.
+	 * @throws IOException
+	 *             Necessary for I/O operations.
+	 */
+	public static boolean isMatrixMarket(String filename) throws IOException {
+
+		try (BufferedReader reader = new BufferedReader(new FileReader(filename))) {
+			String line = reader.readLine();
+			return line != null && line.startsWith(MATRIX_MARKET_BANNER);
+		}
+
+	}
+
+	/**
+	 * Reads the matrix of coefficients of an instance in the Matrix Market
+	 * coordinate format.
+	 *
+	 * @param filename
+	 *            name of the file.
+	 * @return the matrix of coefficients.
+	 * @throws IOException
+	 *             if the file cannot be read or is not a valid Matrix Market
+	 *             instance.
+	 */
+	public static SparseCouplingMatrix readMatrixMarket(String filename) throws IOException {
+
+		try (BufferedReader reader = new BufferedReader(new FileReader(filename))) {
+
+			String[] banner = reader.readLine().trim().toLowerCase().split("\\s+");
+			if (banner.length != 5 || !banner[0].equals(MATRIX_MARKET_BANNER.toLowerCase()) || !banner[1].equals("matrix") || !banner[2].equals("coordinate"))
+				throw new IOException(filename + " is not a Matrix Market instance in the coordinate format");
+			if (!banner[3].equals("real") && !banner[3].equals("integer"))
+				throw new IOException(filename + " has unsupported field " + banner[3]);
+			boolean symmetric = banner[4].equals("symmetric");
+			if (!symmetric && !banner[4].equals("general"))
+				throw new IOException(filename + " has unsupported symmetry " + banner[4]);
+
+			String[] dimensions = nextLine(reader, filename);
+			if (dimensions.length != 3 || !dimensions[0].equals(dimensions[1]))
+				throw new IOException(filename + " does not hold a square matrix");
+			int size = Integer.parseInt(dimensions[0]);
+			long count = Long.parseLong(dimensions[2]);
+			if (count > Integer.MAX_VALUE - 8)
+				throw new IOException(filename + " has too many elements");
+
+			int[] rows = new int[(int) count];
+			int[] columns = new int[(int) count];
+			double[] values = new double[(int) count];
+			for (int k = 0; k < count; k++) {
+				String[] element = nextLine(reader, filename);
+				if (element.length != 3)
+					throw new IOException(filename + " has a malformed element: " + String.join(" ", element));
+				rows[k] = Integer.parseInt(element[0]) - 1;
+				columns[k] = Integer.parseInt(element[1]) - 1;
+				values[k] = Double.parseDouble(element[2]);
+				if (symmetric && rows[k] != columns[k])
+					values[k] *= 2;
+			}
+
+			try {
+				return SparseCouplingMatrix.fromElements(size, rows, columns, values, (int) count);
+			} catch (IllegalArgumentException e) {
+				throw new IOException(filename + ": " + e.getMessage());
+			}
+		}
+
+	}
+
+	/**
+	 * Gives the fields of the next line which is neither empty nor a comment.
+	 */
+	private static String[] nextLine(BufferedReader reader, String filename) throws IOException {
+		String line;
+		do {
+			line = reader.readLine();
+			if (line == null)
+				throw new IOException(filename + " ended unexpectedly");
+			line = line.trim();
+		} while (line.isEmpty() || line.charAt(0) == '%');
+		return line.split("\\s+");
+	}
+
+	/**
+	 * Reads the matrix of coefficients of a sparse binary instance, checked
+	 * against the checksum of the header.
+	 *
+	 * @param filename
+	 *            name of the file.
+	 * @return the matrix of coefficients.
+	 * @throws IOException
+	 *             if the file cannot be read or is not a valid sparse binary
+	 *             instance.
+	 */
+	public static SparseCouplingMatrix read(String filename) throws IOException {
+
+		try (FileChannel channel = FileChannel.open(Paths.get(filename), StandardOpenOption.READ)) {
+
+			ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+			QBFBinaryFormat.readFully(channel, header, filename);
+			header.flip();
+			if (header.getInt() != MAGIC)
+				throw new IOException(filename + " is not a sparse binary QBF instance");
+			int version = header.getInt();
+			if (version != VERSION)
+				throw new IOException(filename + " has unsupported version " + version);
+			int size = header.getInt();
+			int type = header.getInt();
+			long nonZeros = header.getLong();
+			long checksum = header.getLong();
+			if (size < 0 || nonZeros < 0 || nonZeros > Integer.MAX_VALUE - 8 || (type != QBFBinaryFormat.TYPE_INT32 && type != QBFBinaryFormat.TYPE_FLOAT64))
+				throw new IOException(filename + " has an invalid header");
+			int width = (type == QBFBinaryFormat.TYPE_INT32) ? Integer.BYTES : Double.BYTES;
+			if (channel.size() != HEADER_SIZE + (size + nonZeros) * width + (size + 1 + nonZeros) * Integer.BYTES)
+				throw new IOException(filename + " has " + channel.size() + " bytes, which does not match its header");
+
+			Payload payload = new Payload(channel, filename);
+			double[] diagonal = new double[size];
+			payload.readCoefficients(diagonal, size, type);
+			int[] rowStart = new int[size + 1];
+			payload.readInts(rowStart, size + 1);
+			int[] rowColumns = new int[(int) nonZeros];
+			payload.readInts(rowColumns, (int) nonZeros);
+			double[] rowValues = new double[(int) nonZeros];
+			payload.readCoefficients(rowValues, (int) nonZeros, type);
+			if (payload.crc.getValue() != checksum)
+				throw new IOException(filename + " is corrupted: checksum mismatch");
+
+			try {
+				return new SparseCouplingMatrix(diagonal, rowStart, rowColumns, rowValues);
+			} catch (IllegalArgumentException e) {
+				throw new IOException(filename + ": " + e.getMessage());
+			}
+		}
+
+	}
+
+	/**
+	 * Writes a sparse matrix of coefficients as a binary instance, as int32
+	 * coefficients if all of them are integers, or as float64 otherwise.
+	 *
+	 * @param A
+	 *            the matrix of coefficients.
+	 * @param filename
+	 *            name of the file, which is overwritten if it exists.
+	 * @throws IOException
+	 *             Necessary for I/O operations.
+	 */
+	public static void write(SparseCouplingMatrix A, String filename) throws IOException {
+
+		int n = A.getSize(), nonZeros = A.getNonZeros();
+		double[] diagonal = A.diagonal(), rowValues = A.rowValues();
+		int type = (isIntegral(diagonal, n) && isIntegral(rowValues, nonZeros)) ? QBFBinaryFormat.TYPE_INT32 : QBFBinaryFormat.TYPE_FLOAT64;
+
+		try (FileChannel channel = FileChannel.open(Paths.get(filename), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+
+			/* the payload goes first, leaving room for the header, whose checksum is known only at the end */
+			channel.position(HEADER_SIZE);
+			CRC32 crc = new CRC32();
+			ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+			for (int i = 0; i < n; i++) {
+				putCoefficient(channel, buffer, crc, type, diagonal[i]);
+			}
+			for (int start : A.rowStart()) {
+				if (buffer.remaining() < Integer.BYTES)
+					QBFBinaryFormat.flush(channel, buffer, crc);
+				buffer.putInt(start);
+			}
+			for (int k = 0; k < nonZeros; k++) {
+				if (buffer.remaining() < Integer.BYTES)
+					QBFBinaryFormat.flush(channel, buffer, crc);
+				buffer.putInt(A.rowColumns()[k]);
+			}
+			for (int k = 0; k < nonZeros; k++) {
+				putCoefficient(channel, buffer, crc, type, rowValues[k]);
+			}
+			QBFBinaryFormat.flush(channel, buffer, crc);
+
+			ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+			header.putInt(MAGIC).putInt(VERSION).putInt(n).putInt(type).putLong(nonZeros).putLong(crc.getValue());
+			header.flip();
+			channel.position(0);
+			while (header.hasRemaining())
+				channel.write(header);
+		}
+
+	}
+
+	private static void putCoefficient(FileChannel channel, ByteBuffer buffer, CRC32 crc, int type, double value) throws IOException {
+		if (buffer.remaining() < Double.BYTES)
+			QBFBinaryFormat.flush(channel, buffer, crc);
+		if (type == QBFBinaryFormat.TYPE_INT32)
+			buffer.putInt((int) value);
+		else
+			buffer.putDouble(value);
+	}
+
+	private static boolean isIntegral(double[] values, int length) {
+		for (int k = 0; k < length; k++) {
+			if (values[k] != (int) values[k])
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * The payload of a sparse binary instance, read section by section in
+	 * bulk through a direct buffer while its checksum is computed.
+	 */
+	private static class Payload {
+
+		private final FileChannel channel;
+
+		private final String filename;
+
+		private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+
+		private final int[] ints = new int[BUFFER_SIZE / Integer.BYTES];
+
+		private final CRC32 crc = new CRC32();
+
+		Payload(FileChannel channel, String filename) {
+			this.channel = channel;
+			this.filename = filename;
+		}
+
+		/**
+		 * Reads the next part of a section into the buffer, at most a number
+		 * of elements of a given width, and gives the number of elements
+		 * read.
+		 */
+		private int fill(int elements, int width) throws IOException {
+			buffer.clear();
+			buffer.limit((int) Math.min(buffer.capacity(), (long) elements * width));
+			QBFBinaryFormat.readFully(channel, buffer, filename);
+			buffer.flip();
+			crc.update(buffer);
+			buffer.flip();
+			return buffer.remaining() / width;
+		}
+
+		void readInts(int[] target, int length) throws IOException {
+			for (int pos = 0; pos < length;) {
+				int count = fill(length - pos, Integer.BYTES);
+				buffer.asIntBuffer().get(target, pos, count);
+				pos += count;
+			}
+		}
+
+		void readCoefficients(double[] target, int length, int type) throws IOException {
+			for (int pos = 0; pos < length;) {
+				if (type == QBFBinaryFormat.TYPE_INT32) {
+					int count = fill(length - pos, Integer.BYTES);
+					buffer.asIntBuffer().get(ints, 0, count);
+					for (int k = 0; k < count; k++) {
+						target[pos + k] = ints[k];
+					}
+					pos += count;
+				} else {
+					int count = fill(length - pos, Double.BYTES);
+					buffer.asDoubleBuffer().get(target, pos, count);
+					pos += count;
+				}
+			}
+		}
+
+	}
+
+	/**
+	 * Converts instances from any format into the sparse binary format. Each
+	 * instance is written next to the original file, with the
+	 * {@link #EXTENSION} extension appended to its name.
+	 *
+	 * Usage: QBFSparseFormat [instance]...
+	 */
+	public static void main(String[] args) throws IOException {
+
+		for (String filename : args) {
+			Path target = Paths.get(filename + EXTENSION);
+			long startTime = System.currentTimeMillis();
+			SparseCouplingMatrix A = (SparseCouplingMatrix) QBFInstance.readInput(filename).toSparse().getMatrix();
+			write(A, target.toString());
+			System.out.println(filename + " -> " + target + " (n = " + A.getSize() + ", nnz = " + A.getNonZeros() + ", " + (System.currentTimeMillis() - startTime) + " ms)");
+		}
+
+	}
+
+}
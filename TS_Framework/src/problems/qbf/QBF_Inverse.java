@@ -1,6 +1,9 @@
 package problems.qbf;
 
 import java.io.IOException;
+import java.util.List;
+
+import solutions.Solution;
 
 /**
  * Class representing the inverse of the Quadractic Binary Function
@@ -24,6 +27,16 @@ public class QBF_Inverse extends QBF {
 		super(filename);
 	}
 
+	/**
+	 * Constructor for the QBF_Inverse class, for an instance already loaded.
+	 * 
+	 * @param instance
+	 *            the instance holding the coefficients of the QBF.
+	 */
+	public QBF_Inverse(QBFInstance instance) {
+		super(instance);
+	}
+
 
 	/* (non-Javadoc)
 	 * @see problems.qbf.QBF#evaluate()
@@ -56,5 +69,38 @@ public class QBF_Inverse extends QBF {
 	public Double evaluateExchangeQBF(int in, int out) {
 		return -super.evaluateExchangeQBF(in,out);
 	}
+	
+	/* (non-Javadoc)
+	 * @see problems.qbf.QBF#evaluateInsertionCosts(java.util.List, solutions.Solution, double[])
+	 */
+	@Override
+	public void evaluateInsertionCosts(List<Integer> elems, Solution<Integer> sol, double[] deltas) {
+		super.evaluateInsertionCosts(elems, sol, deltas);
+		negate(deltas, elems.size());
+	}
+	
+	/* (non-Javadoc)
+	 * @see problems.qbf.QBF#evaluateRemovalCosts(java.util.List, solutions.Solution, double[])
+	 */
+	@Override
+	public void evaluateRemovalCosts(List<Integer> elems, Solution<Integer> sol, double[] deltas) {
+		super.evaluateRemovalCosts(elems, sol, deltas);
+		negate(deltas, elems.size());
+	}
+	
+	/* (non-Javadoc)
+	 * @see problems.qbf.QBF#evaluateExchangeCosts(java.util.List, java.util.List, solutions.Solution, double[])
+	 */
+	@Override
+	public void evaluateExchangeCosts(List<Integer> elemsIn, List<Integer> elemsOut, Solution<Integer> sol, double[] deltas) {
+		super.evaluateExchangeCosts(elemsIn, elemsOut, sol, deltas);
+		negate(deltas, elemsIn.size() * elemsOut.size());
+	}
+	
+	private static void negate(double[] deltas, int length) {
+		for (int k = 0; k < length; k++) {
+			deltas[k] = -deltas[k];
+		}
+	}
 
 }
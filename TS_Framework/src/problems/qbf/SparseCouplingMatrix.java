@@ -0,0 +1,443 @@
+package problems.qbf;
+
+import java.util.Arrays;
+
+/**
+ * Sparse layout of the coefficients of a QBF, for instances in which most
+ * interaction coefficients are zero. Besides the diagonal, the nonzero
+ * elements above the diagonal are kept twice: in compressed sparse rows
+ * (CSR), where row i holds the elements A_ij with j > i in increasing order
+ * of j, and in compressed sparse columns (CSC), where column i holds the
+ * elements A_ji with j < i in increasing order of j. Line i and column i of
+ * the matrix, i.e., the neighbors of variable i, are then two contiguous
+ * slices, so a contribution and the update of the contributions after a move
+ * take O(degree) instead of O(n), and the full evaluation takes O(n + nnz).
+ *
+ * The memory taken is about 24 bytes per nonzero element, so the layout pays
+ * off below a density of about one third, and it has no limit on the
+ * dimension other than the number of nonzero elements, which is limited to
+ * about 2^31.
+ *
+ * @author ccavellucci, fusberti
+ */
+public class SparseCouplingMatrix implements CoefficientMatrix {
+
+	/**
+	 * Dimension of the matrix.
+	 */
+	private final int size;
+
+	/**
+	 * The diagonal of the matrix, A_ii.
+	 */
+	private final double[] diagonal;
+
+	/**
+	 * The start of each row in {@link #rowColumns} and {@link #rowValues},
+	 * with one more position for the end of the last row.
+	 */
+	private final int[] rowStart;
+
+	/**
+	 * The column of each element of the rows, in increasing order within a
+	 * row.
+	 */
+	private final int[] rowColumns;
+
+	/**
+	 * The value of each element of the rows.
+	 */
+	private final double[] rowValues;
+
+	/**
+	 * The start of each column in {@link #columnRows} and
+	 * {@link #columnValues}, with one more position for the end of the last
+	 * column.
+	 */
+	private final int[] columnStart;
+
+	/**
+	 * The row of each element of the columns, in increasing order within a
+	 * column.
+	 */
+	private final int[] columnRows;
+
+	/**
+	 * The value of each element of the columns.
+	 */
+	private final double[] columnValues;
+
+	/**
+	 * Constructor for the SparseCouplingMatrix class, from the diagonal and
+	 * the compressed sparse rows of the elements above the diagonal. The
+	 * arrays are kept, not copied, and the compressed sparse columns are
+	 * built from them.
+	 *
+	 * @param diagonal
+	 *            the diagonal of the matrix, whose length is the dimension.
+	 * @param rowStart
+	 *            the start of each row in the other arrays, followed by the
+	 *            number of elements.
+	 * @param rowColumns
+	 *            the column of each element, greater than its row, in
+	 *            increasing order within a row.
+	 * @param rowValues
+	 *            the value of each element.
+	 */
+	public SparseCouplingMatrix(double[] diagonal, int[] rowStart, int[] rowColumns, double[] rowValues) {
+		this.size = diagonal.length;
+		this.diagonal = diagonal;
+		this.rowStart = rowStart;
+		this.rowColumns = rowColumns;
+		this.rowValues = rowValues;
+		validate();
+
+		int nonZeros = rowStart[size];
+		this.columnStart = new int[size + 1];
+		this.columnRows = new int[nonZeros];
+		this.columnValues = new double[nonZeros];
+		transpose(size, rowStart, rowColumns, rowValues, columnStart, columnRows, columnValues);
+	}
+
+	/**
+	 * Checks the compressed sparse rows given to the constructor.
+	 */
+	private void validate() {
+		if (rowStart.length != size + 1 || rowStart[0] != 0 || rowStart[size] > rowColumns.length || rowStart[size] > rowValues.length)
+			throw new IllegalArgumentException("Malformed compressed sparse rows");
+		for (int i = 0; i < size; i++) {
+			if (rowStart[i + 1] < rowStart[i])
+				throw new IllegalArgumentException("Row " + i + " has a negative length");
+			for (int k = rowStart[i]; k < rowStart[i + 1]; k++) {
+				int j = rowColumns[k];
+				if (j <= i || j >= size || (k > rowStart[i] && j <= rowColumns[k - 1]))
+					throw new IllegalArgumentException("Element (" + i + "," + j + ") is out of place");
+			}
+		}
+	}
+
+	/**
+	 * Builds a sparse matrix from a list of elements (i, j, value) in any
+	 * order. The elements below the diagonal are moved to the symmetric
+	 * position, which leaves the QBF unchanged, the repeated elements are
+	 * summed, and the elements which end up being zero are left out.
+	 *
+	 * @param size
+	 *            the dimension of the matrix.
+	 * @param rows
+	 *            the row of each element.
+	 * @param columns
+	 *            the column of each element.
+	 * @param values
+	 *            the value of each element.
+	 * @param count
+	 *            the number of elements, in the first positions of the
+	 *            arrays.
+	 * @return the sparse matrix.
+	 */
+	public static SparseCouplingMatrix fromElements(int size, int[] rows, int[] columns, double[] values, int count) {
+
+		double[] diagonal = new double[size];
+		int[] columnStart = new int[size + 1];
+		for (int k = 0; k < count; k++) {
+			int i = rows[k], j = columns[k];
+			if (i < 0 || i >= size || j < 0 || j >= size)
+				throw new IllegalArgumentException("Element (" + i + "," + j + ") is out of a matrix of dimension " + size);
+			if (i == j)
+				diagonal[i] += values[k];
+			else
+				columnStart[Math.max(i, j) + 1]++;
+		}
+
+		/* bucket the elements by column, then transpose, which sorts the columns of each row */
+		for (int j = 0; j < size; j++) {
+			columnStart[j + 1] += columnStart[j];
+		}
+		int nonZeros = columnStart[size];
+		int[] columnRows = new int[nonZeros];
+		double[] columnValues = new double[nonZeros];
+		int[] next = columnStart.clone();
+		for (int k = 0; k < count; k++) {
+			int i = rows[k], j = columns[k];
+			if (i == j)
+				continue;
+			int pos = next[Math.max(i, j)]++;
+			columnRows[pos] = Math.min(i, j);
+			columnValues[pos] = values[k];
+		}
+		int[] rowStart = new int[size + 1];
+		int[] rowColumns = new int[nonZeros];
+		double[] rowValues = new double[nonZeros];
+		transpose(size, columnStart, columnRows, columnValues, rowStart, rowColumns, rowValues);
+
+		/* the repeated elements are now next to each other in their row */
+		int length = 0;
+		for (int i = 0; i < size; i++) {
+			int start = length;
+			for (int k = rowStart[i]; k < rowStart[i + 1]; k++) {
+				if (length > start && rowColumns[length - 1] == rowColumns[k]) {
+					rowValues[length - 1] += rowValues[k];
+				} else {
+					rowColumns[length] = rowColumns[k];
+					rowValues[length++] = rowValues[k];
+				}
+			}
+			int end = length;
+			length = start;
+			for (int k = start; k < end; k++) {
+				if (rowValues[k] != 0) {
+					rowColumns[length] = rowColumns[k];
+					rowValues[length++] = rowValues[k];
+				}
+			}
+			rowStart[i] = start;
+		}
+		rowStart[size] = length;
+
+		return new SparseCouplingMatrix(diagonal, rowStart, trim(rowColumns, length), trim(rowValues, length));
+	}
+
+	/**
+	 * Builds the sparse layout of another matrix, leaving out its zero
+	 * elements, which takes O(n^2).
+	 *
+	 * @param A
+	 *            the matrix of coefficients.
+	 * @return the sparse matrix.
+	 */
+	public static SparseCouplingMatrix fromMatrix(CoefficientMatrix A) {
+
+		int n = A.getSize();
+		double[] diagonal = new double[n];
+		int[] rowStart = new int[n + 1];
+		for (int i = 0; i < n; i++) {
+			diagonal[i] = A.get(i, i);
+			int degree = 0;
+			for (int j = i + 1; j < n; j++) {
+				if (A.get(i, j) != 0)
+					degree++;
+			}
+			rowStart[i + 1] = rowStart[i] + degree;
+		}
+		int[] rowColumns = new int[rowStart[n]];
+		double[] rowValues = new double[rowStart[n]];
+		int pos = 0;
+		for (int i = 0; i < n; i++) {
+			for (int j = i + 1; j < n; j++) {
+				double value = A.get(i, j);
+				if (value != 0) {
+					rowColumns[pos] = j;
+					rowValues[pos++] = value;
+				}
+			}
+		}
+		return new SparseCouplingMatrix(diagonal, rowStart, rowColumns, rowValues);
+	}
+
+	/**
+	 * Transposes a compressed sparse matrix, i.e., builds the compressed
+	 * sparse columns from the rows or the other way around. The target is
+	 * sorted within each of its lines, since the source is visited line by
+	 * line.
+	 */
+	private static void transpose(int size, int[] start, int[] index, double[] values, int[] targetStart, int[] targetIndex, double[] targetValues) {
+
+		int nonZeros = start[size];
+		for (int k = 0; k < nonZeros; k++) {
+			targetStart[index[k] + 1]++;
+		}
+		for (int j = 0; j < size; j++) {
+			targetStart[j + 1] += targetStart[j];
+		}
+		int[] next = new int[size];
+		System.arraycopy(targetStart, 0, next, 0, size);
+		for (int i = 0; i < size; i++) {
+			for (int k = start[i]; k < start[i + 1]; k++) {
+				int pos = next[index[k]]++;
+				targetIndex[pos] = i;
+				targetValues[pos] = values[k];
+			}
+		}
+
+	}
+
+	private static int[] trim(int[] array, int length) {
+		return (array.length == length) ? array : Arrays.copyOf(array, length);
+	}
+
+	private static double[] trim(double[] array, int length) {
+		return (array.length == length) ? array : Arrays.copyOf(array, length);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see problems.qbf.CoefficientMatrix#getSize()
+	 */
+	@Override
+	public int getSize() {
+		return size;
+	}
+
+	/**
+	 * Gives the number of nonzero elements above the diagonal.
+	 *
+	 * @return the number of nonzero interaction coefficients.
+	 */
+	public int getNonZeros() {
+		return rowStart[size];
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * The degree is the number of nonzero elements in line i and column i,
+	 * diagonal excluded.
+	 */
+	@Override
+	public int getDegree(int i) {
+		return (rowStart[i + 1] - rowStart[i]) + (columnStart[i + 1] - columnStart[i]);
+	}
+
+	/**
+	 * Gives the diagonal of the matrix, A_ii, which must not be modified.
+	 */
+	double[] diagonal() {
+		return diagonal;
+	}
+
+	/**
+	 * Gives the compressed sparse rows of the matrix, which must not be
+	 * modified.
+	 */
+	int[] rowStart() {
+		return rowStart;
+	}
+
+	int[] rowColumns() {
+		return rowColumns;
+	}
+
+	double[] rowValues() {
+		return rowValues;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see problems.qbf.CoefficientMatrix#get(int, int)
+	 */
+	@Override
+	public double get(int i, int j) {
+		if (i > j)
+			return 0.0;
+		return (i == j) ? diagonal[i] : find(i, j);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see problems.qbf.CoefficientMatrix#coupling(int, int)
+	 */
+	@Override
+	public double coupling(int i, int j) {
+		return (i < j) ? find(i, j) : find(j, i);
+	}
+
+	/**
+	 * Looks element A_ij, with i < j, up in row i, by binary search, which
+	 * takes O(log degree).
+	 */
+	private double find(int i, int j) {
+		int low = rowStart[i], high = rowStart[i + 1] - 1;
+		while (low <= high) {
+			int mid = (low + high) >>> 1;
+			int column = rowColumns[mid];
+			if (column < j)
+				low = mid + 1;
+			else if (column > j)
+				high = mid - 1;
+			else
+				return rowValues[mid];
+		}
+		return 0.0;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see problems.qbf.CoefficientMatrix#dotCoupling(int, double[])
+	 */
+	@Override
+	public double dotCoupling(int i, double[] x) {
+
+		double sum = 0.0;
+		for (int k = columnStart[i]; k < columnStart[i + 1]; k++) {
+			sum += x[columnRows[k]] * columnValues[k];
+		}
+		for (int k = rowStart[i]; k < rowStart[i + 1]; k++) {
+			sum += x[rowColumns[k]] * rowValues[k];
+		}
+		return sum;
+
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see problems.qbf.CoefficientMatrix#addCoupling(int, double[], double)
+	 */
+	@Override
+	public void addCoupling(int k, double[] target, double factor) {
+
+		for (int p = columnStart[k]; p < columnStart[k + 1]; p++) {
+			target[columnRows[p]] += factor * columnValues[p];
+		}
+		for (int p = rowStart[k]; p < rowStart[k + 1]; p++) {
+			target[rowColumns[p]] += factor * rowValues[p];
+		}
+
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see problems.qbf.CoefficientMatrix#maxAbsCoupling(int)
+	 */
+	@Override
+	public double maxAbsCoupling(int i) {
+
+		double max = 0.0;
+		for (int k = columnStart[i]; k < columnStart[i + 1]; k++) {
+			max = Math.max(max, Math.abs(columnValues[k]));
+		}
+		for (int k = rowStart[i]; k < rowStart[i + 1]; k++) {
+			max = Math.max(max, Math.abs(rowValues[k]));
+		}
+		return max;
+
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see problems.qbf.CoefficientMatrix#quadraticForm(double[])
+	 */
+	@Override
+	public double quadraticForm(double[] x) {
+
+		double sum = 0.0;
+		for (int i = 0; i < size; i++) {
+			if (x[i] == 0)
+				continue;
+			double aux = x[i] * diagonal[i];
+			for (int k = rowStart[i]; k < rowStart[i + 1]; k++) {
+				aux += x[rowColumns[k]] * rowValues[k];
+			}
+			sum += aux * x[i];
+		}
+		return sum;
+
+	}
+
+}
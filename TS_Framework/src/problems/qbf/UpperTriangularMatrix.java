@@ -0,0 +1,174 @@
+package problems.qbf;
+
+/**
+ * Primitive storage for the upper triangular matrix of coefficients of a QBF.
+ * Only the elements on and above the diagonal are kept, packed row by row in a
+ * single array of doubles, so that row i holds A_ii, A_i(i+1), ..., A_i(n-1).
+ * Elements below the diagonal are implicitly zero. This takes about half of
+ * the memory of a full square matrix and avoids boxing the coefficients.
+ * Since the array is indexed by an int, the dimension is limited to about
+ * 65000; larger instances should be mapped with
+ * {@link MappedUpperTriangularMatrix}.
+ *
+ * @author ccavellucci, fusberti
+ */
+public class UpperTriangularMatrix implements CoefficientMatrix {
+
+	/**
+	 * Dimension of the matrix.
+	 */
+	private final int size;
+
+	/**
+	 * The packed elements on and above the diagonal, transferred in bulk by
+	 * {@link QBFBinaryFormat}.
+	 */
+	final double[] values;
+
+	/**
+	 * Constructor for the UpperTriangularMatrix class, with all elements set
+	 * to zero.
+	 *
+	 * @param size
+	 *            dimension of the matrix.
+	 */
+	public UpperTriangularMatrix(int size) {
+		long length = (long) size * (size + 1) / 2;
+		if (length > Integer.MAX_VALUE - 8)
+			throw new IllegalArgumentException("Matrix of dimension " + size + " is too large to be packed");
+		this.size = size;
+		this.values = new double[(int) length];
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see problems.qbf.CoefficientMatrix#getSize()
+	 */
+	@Override
+	public int getSize() {
+		return size;
+	}
+
+	/**
+	 * Gives the position of element (i,j), with i <= j, in the packed array.
+	 *
+	 * @param i
+	 *            the row of the element.
+	 * @param j
+	 *            the column of the element.
+	 * @return the position of the element in the packed array.
+	 */
+	public int index(int i, int j) {
+		return (int) ((long) i * size - (long) i * (i - 1) / 2) + (j - i);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see problems.qbf.CoefficientMatrix#get(int, int)
+	 */
+	@Override
+	public double get(int i, int j) {
+		if (i > j)
+			return 0.0;
+		return values[index(i, j)];
+	}
+
+	/**
+	 * Sets element A_ij of the matrix, with i <= j.
+	 *
+	 * @param i
+	 *            the row of the element.
+	 * @param j
+	 *            the column of the element.
+	 * @param value
+	 *            the new value of the element.
+	 */
+	public void set(int i, int j, double value) {
+		if (i > j)
+			throw new IllegalArgumentException("Element (" + i + "," + j + ") is below the diagonal");
+		values[index(i, j)] = value;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see problems.qbf.CoefficientMatrix#coupling(int, int)
+	 */
+	@Override
+	public double coupling(int i, int j) {
+		return (i < j) ? values[index(i, j)] : values[index(j, i)];
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see problems.qbf.CoefficientMatrix#dotCoupling(int, double[])
+	 */
+	@Override
+	public double dotCoupling(int i, double[] x) {
+
+		double sum = 0.0;
+
+		/* column i, above the diagonal, stepping one row at a time */
+		int pos = i;
+		for (int j = 0; j < i; j++) {
+			sum += x[j] * values[pos];
+			pos += size - j - 1;
+		}
+
+		/* line i, after the diagonal, which is contiguous */
+		pos = index(i, i) + 1;
+		for (int j = i + 1; j < size; j++, pos++) {
+			sum += x[j] * values[pos];
+		}
+
+		return sum;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see problems.qbf.CoefficientMatrix#addCoupling(int, double[], double)
+	 */
+	@Override
+	public void addCoupling(int k, double[] target, double factor) {
+
+		int pos = k;
+		for (int j = 0; j < k; j++) {
+			target[j] += factor * values[pos];
+			pos += size - j - 1;
+		}
+
+		pos = index(k, k) + 1;
+		for (int j = k + 1; j < size; j++, pos++) {
+			target[j] += factor * values[pos];
+		}
+
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see problems.qbf.CoefficientMatrix#quadraticForm(double[])
+	 */
+	@Override
+	public double quadraticForm(double[] x) {
+
+		double aux = 0.0, sum = 0.0;
+		for (int i = 0; i < size; i++) {
+			if (x[i] == 0)
+				continue;
+			int pos = index(i, i);
+			for (int j = i; j < size; j++, pos++) {
+				aux += x[j] * values[pos];
+			}
+			sum += aux * x[i];
+			aux = 0.0;
+		}
+		return sum;
+
+	}
+
+}
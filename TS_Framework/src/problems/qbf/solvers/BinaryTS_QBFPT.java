@@ -0,0 +1,100 @@
+package problems.qbf.solvers;
+
+import static utils.Utils.*;
+import java.io.IOException;
+import java.util.logging.Logger;
+
+import metaheuristics.tabusearch.BinaryTS;
+import problems.qbf.BinaryQBF_Inverse;
+import problems.qbf.QBFInstance;
+import solutions.Solution;
+
+/**
+ * Metaheuristic TS (Tabu Search) for obtaining an optimal solution to a QBF
+ * with prohibited triples, on the primitive engine of {@link BinaryTS}. It
+ * runs the same search as {@link TS_QBFPT} without boxing elements or costs
+ * in the main loop. Since by default this TS considers minimization problems,
+ * an inverse QBF function is adopted.
+ * 
+ * @author ccavellucci, fusberti
+ */
+public class BinaryTS_QBFPT extends BinaryTS {
+
+	/**
+	 * Constructor for the BinaryTS_QBFPT class. An inverse QBF objective
+	 * function is passed as argument for the superclass constructor.
+	 * 
+	 * @param tenure
+	 *            The Tabu tenure parameter.
+	 * @param iterations
+	 *            The number of iterations which the TS will be executed.
+	 * @param instance
+	 *            The QBF instance, which may be shared with other solvers.
+	 */
+	public BinaryTS_QBFPT(Logger logger, Integer tenure, Integer iterations, Integer method, Integer searchMethod, QBFInstance instance) {
+		super(logger, new BinaryQBF_Inverse(instance), tenure, method, searchMethod, iterations);
+		setProibitedTuples(instance.getProibitedTuples());
+	}
+
+	//Intensification constructor
+	public BinaryTS_QBFPT(Logger logger, Integer tenure, Integer iterations, Integer method, Integer searchMethod, QBFInstance instance, Integer intensification_max_iterations, Integer how_many_recency_elements_to_take) {
+		super(logger, new BinaryQBF_Inverse(instance), tenure, method, searchMethod, iterations, intensification_max_iterations, how_many_recency_elements_to_take);
+		setProibitedTuples(instance.getProibitedTuples());
+	}
+
+	/**
+	 * Constructor for the BinaryTS_QBFPT class, which reads the instance
+	 * from a file.
+	 * 
+	 * @param filename
+	 *            Name of the file for which the objective function parameters
+	 *            should be read.
+	 * @throws IOException
+	 *             necessary for I/O operations.
+	 */
+	public BinaryTS_QBFPT(Logger logger, Integer tenure, Integer iterations, Integer method, Integer searchMethod, String filename) throws IOException {
+		this(logger, tenure, iterations, method, searchMethod, QBFInstance.readInput(filename));
+	}
+
+	/**
+	 * A main method used for testing the TS metaheuristic.
+	 * 
+	 */
+	public static void main(String[] args) throws IOException {
+
+		Logger logger = TS_QBFPT.setUpLogger("results\\BINARY_DEFAULT_METHOD_final.txt");
+
+		// a reactive run adapts the tenure within these bounds, replacing a sweep over fixed tenures
+		Integer minTenure = 2, maxTenure = 50;
+		Integer localSearchMethods[] = {FIRST_IMPROVEMENT, BEST_IMPROVEMENT};
+
+		String instances[] = {
+								"instances/qbf200",
+								"instances/qbf400"};
+
+		for (String instance : instances)
+		{
+			QBFInstance qbfInstance = QBFInstance.readInput(instance);
+			for(Integer localSearchMethod : localSearchMethods)
+			{
+				logger.info("----------------------------------------------------------------");
+				logger.info("Going to start a new parameter configuration");
+				logger.info("Execution for "+instance);
+				logger.info("Local search Method = "+(localSearchMethod==FIRST_IMPROVEMENT?"FIRST_IMPROVEMENT":"BEST_IMPROVEMENT"));
+				logger.info("Tenure = reactive in ["+minTenure+", "+maxTenure+"]");
+				long startTime = System.currentTimeMillis();
+				BinaryTS_QBFPT tabusearch = new BinaryTS_QBFPT(logger, minTenure, 100000, DEFAULT_METHOD, localSearchMethod, qbfInstance);
+				tabusearch.setReactiveTenure(minTenure, maxTenure);
+				Solution<Integer> bestSol = tabusearch.solve();
+				logger.info("maxVal = " + bestSol);
+				logger.info("Final tenure = "+tabusearch.getTenure()+", repetitions = "+tabusearch.getRevisitCount());
+				long endTime   = System.currentTimeMillis();
+				long totalTime = endTime - startTime;
+				logger.info("Time = "+(double)totalTime/(double)1000+" seg");
+				logger.info("\n\n\n");
+			}
+		}
+
+	}
+
+}
@@ -0,0 +1,312 @@
+package problems.qbf.solvers;
+
+import static utils.Utils.*;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.logging.Logger;
+
+import metaheuristics.tabusearch.ElitePool;
+import metaheuristics.tabusearch.TerminationCriteria;
+import problems.qbf.QBFInstance;
+import solutions.Solution;
+import utils.Utils;
+
+/**
+ * Runs a portfolio of TS configurations (search method, local search method,
+ * tenure and seed) for the same QBF instance concurrently on a bounded thread
+ * pool. All the solvers share a single copy of the instance. The runner keeps
+ * the global best solution found across the runs, as reported by each run as
+ * soon as it is found, and stops all of them as soon as a target cost or a
+ * wall-clock budget is reached. The runs may also share a pool of elite
+ * solutions, which each of them feeds and relinks.
+ *
+ * @author ccavellucci, fusberti
+ */
+public class PortfolioRunner {
+
+	/**
+	 * A TS configuration of the portfolio.
+	 */
+	public static class Configuration {
+
+		public final Integer method;
+		public final Integer searchMethod;
+		public final Integer tenure;
+		public final Integer iterations;
+		public final Integer intensification_max_iterations;
+		public final Integer how_many_recency_elements_to_take;
+		public final long seed;
+
+		public Configuration(Integer method, Integer searchMethod, Integer tenure, Integer iterations, Integer intensification_max_iterations, Integer how_many_recency_elements_to_take, long seed) {
+			this.method = method;
+			this.searchMethod = searchMethod;
+			this.tenure = tenure;
+			this.iterations = iterations;
+			this.intensification_max_iterations = intensification_max_iterations;
+			this.how_many_recency_elements_to_take = how_many_recency_elements_to_take;
+			this.seed = seed;
+		}
+
+		@Override
+		public String toString() {
+			String methodName = (method == DEFAULT_METHOD) ? "DEFAULT_METHOD" : (method == INTENSIFICATION_METHOD) ? "INTENSIFICATION_METHOD" : "OSCILATION_METHOD";
+			return methodName + ", " + (searchMethod == FIRST_IMPROVEMENT ? "FIRST_IMPROVEMENT" : "BEST_IMPROVEMENT") + ", tenure=" + tenure + ", seed=" + seed;
+		}
+
+	}
+
+	private final Logger logger;
+
+	private final QBFInstance instance;
+
+	private final Integer threads;
+
+	private final List<Configuration> configurations = new ArrayList<Configuration>();
+
+	/**
+	 * the target cost, which stops all runs once reached, or null.
+	 */
+	private Double targetCost = null;
+
+	/**
+	 * the wall-clock budget in milliseconds, or zero for no budget.
+	 */
+	private long timeBudget = 0;
+
+	/**
+	 * the pool of elite solutions shared by the runs, or null.
+	 */
+	private ElitePool elitePool = null;
+
+	/**
+	 * the number of iterations without improvement before a run relinks
+	 * elite solutions.
+	 */
+	private Integer pathRelinkingInterval = 0;
+
+	/**
+	 * the solvers of the runs, while the portfolio is running.
+	 */
+	private final List<TS_QBFPT> solvers = new ArrayList<TS_QBFPT>();
+
+	private Solution<Integer> bestSol;
+
+	private Configuration bestConfiguration;
+
+	/**
+	 * Constructor for the PortfolioRunner class.
+	 *
+	 * @param logger
+	 *            the logger of the portfolio, also given to the solvers.
+	 * @param instance
+	 *            the QBF instance, shared by all the runs.
+	 * @param threads
+	 *            the number of runs executed at the same time.
+	 */
+	public PortfolioRunner(Logger logger, QBFInstance instance, Integer threads) {
+		this.logger = logger;
+		this.instance = instance;
+		this.threads = threads;
+	}
+
+	/**
+	 * Adds a configuration to the portfolio.
+	 *
+	 * @param configuration
+	 *            the configuration.
+	 */
+	public void addConfiguration(Configuration configuration) {
+		configurations.add(configuration);
+	}
+
+	/**
+	 * Sets a target cost: all runs stop once a solution with cost lower than
+	 * or equal to it is found.
+	 *
+	 * @param targetCost
+	 *            the target cost, or null for no target.
+	 */
+	public void setTargetCost(Double targetCost) {
+		this.targetCost = targetCost;
+	}
+
+	/**
+	 * Sets a wall-clock budget: all runs stop once it is exhausted.
+	 *
+	 * @param timeBudget
+	 *            the budget in milliseconds, or zero for no budget.
+	 */
+	public void setTimeBudget(long timeBudget) {
+		this.timeBudget = timeBudget;
+	}
+
+	/**
+	 * Sets a pool of elite solutions shared by all the runs, see
+	 * {@link metaheuristics.tabusearch.AbstractTS#setElitePool(ElitePool, Integer)}.
+	 *
+	 * @param elitePool
+	 *            the elite pool, or null for none.
+	 * @param pathRelinkingInterval
+	 *            the number of iterations without improvement before a run
+	 *            relinks elite solutions, or zero to only feed the pool.
+	 */
+	public void setElitePool(ElitePool elitePool, Integer pathRelinkingInterval) {
+		this.elitePool = elitePool;
+		this.pathRelinkingInterval = pathRelinkingInterval;
+	}
+
+	/**
+	 * Gives the best solution found across all the runs.
+	 *
+	 * @return the best solution.
+	 */
+	public synchronized Solution<Integer> getBestSol() {
+		return bestSol;
+	}
+
+	/**
+	 * Gives the configuration which found the best solution.
+	 *
+	 * @return the configuration.
+	 */
+	public synchronized Configuration getBestConfiguration() {
+		return bestConfiguration;
+	}
+
+	/**
+	 * Runs all the configurations of the portfolio, returning the best
+	 * solution found.
+	 *
+	 * @return the best solution found across all the runs.
+	 * @throws InterruptedException
+	 *             if the thread is interrupted while waiting for the runs.
+	 */
+	public Solution<Integer> run() throws InterruptedException {
+
+		long deadline = System.currentTimeMillis() + timeBudget;
+		List<Future<Solution<Integer>>> futures = new ArrayList<Future<Solution<Integer>>>();
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+		try {
+			for (Configuration configuration : configurations) {
+				solvers.add(makeSolver(configuration, deadline));
+			}
+			for (TS_QBFPT solver : solvers) {
+				futures.add(executor.submit(solver::solve));
+			}
+			for (int i = 0; i < futures.size(); i++) {
+				updateBestSol(futures.get(i).get(), configurations.get(i));
+			}
+		} catch (ExecutionException e) {
+			throw new IllegalStateException("A run of the portfolio failed", e.getCause());
+		} finally {
+			stopSolvers();
+			executor.shutdownNow();
+		}
+
+		return bestSol;
+
+	}
+
+	private TS_QBFPT makeSolver(Configuration configuration, long deadline) {
+
+		TS_QBFPT solver;
+		if (configuration.method == INTENSIFICATION_METHOD) {
+			solver = new TS_QBFPT(logger, configuration.tenure, configuration.iterations, configuration.method, configuration.searchMethod, instance, configuration.intensification_max_iterations, configuration.how_many_recency_elements_to_take);
+		} else {
+			solver = new TS_QBFPT(logger, configuration.tenure, configuration.iterations, configuration.method, configuration.searchMethod, instance);
+		}
+		solver.setSeed(configuration.seed);
+		solver.setVerbose(false);
+		if (elitePool != null)
+			solver.setElitePool(elitePool, pathRelinkingInterval);
+		if (timeBudget > 0)
+			solver.addTerminationCriterion(TerminationCriteria.deadline(deadline));
+		solver.addBestSolutionListener((sol, iteration, elapsedTime) -> updateBestSol(sol, configuration));
+		return solver;
+
+	}
+
+	/**
+	 * Stops the runs still going, e.g., after another run failed, since they
+	 * do not check for interrupts, and forgets their solvers. It holds the
+	 * lock of {@link #updateBestSol(Solution, Configuration)}, which iterates
+	 * over the solvers.
+	 */
+	private synchronized void stopSolvers() {
+
+		for (TS_QBFPT solver : solvers) {
+			solver.requestStop();
+		}
+		solvers.clear();
+
+	}
+
+	/**
+	 * Receives a new best solution of one of the runs, stopping all of them
+	 * if the target cost is reached.
+	 */
+	private synchronized void updateBestSol(Solution<Integer> sol, Configuration configuration) {
+
+		if (bestSol != null && sol.cost >= bestSol.cost)
+			return;
+		bestSol = sol;
+		bestConfiguration = configuration;
+		logger.info("Portfolio BestSol = " + bestSol + " (" + bestConfiguration + ")");
+
+		if (targetCost != null && bestSol.cost <= targetCost) {
+			for (TS_QBFPT solver : solvers) {
+				solver.requestStop();
+			}
+		}
+
+	}
+
+	/**
+	 * A main method running a portfolio of the three search methods with
+	 * different tenures and seeds, sharing an elite pool.
+	 *
+	 * Usage: PortfolioRunner [instance] [time budget in ms] [target cost]
+	 */
+	public static void main(String[] args) throws IOException, InterruptedException {
+
+		String filename = (args.length > 0) ? args[0] : "instances/qbf200";
+		long timeBudget = (args.length > 1) ? Long.parseLong(args[1]) : 60000;
+		Double targetCost = (args.length > 2) ? Double.valueOf(args[2]) : null;
+
+		Logger logger = TS_QBFPT.setUpLogger("results\\PORTFOLIO.txt");
+		QBFInstance instance = QBFInstance.readInput(filename);
+
+		PortfolioRunner portfolio = new PortfolioRunner(logger, instance, Runtime.getRuntime().availableProcessors());
+		portfolio.setTimeBudget(timeBudget);
+		portfolio.setTargetCost(targetCost);
+		portfolio.setElitePool(new ElitePool(20, instance.getSize(), Math.max(2, instance.getSize() / 20)), 1000);
+
+		Integer methods[] = {DEFAULT_METHOD, INTENSIFICATION_METHOD, OSCILATION_METHOD};
+		Integer tenures[] = {2, 18};
+		int seedsPerConfiguration = 2;
+		long masterSeed = 0;
+
+		int run = 0;
+		for (Integer method : methods)
+			for (Integer tenure : tenures)
+				for (int k = 0; k < seedsPerConfiguration; k++)
+					portfolio.addConfiguration(new Configuration(method, BEST_IMPROVEMENT, tenure, 100000, 500, 18, Utils.splitSeed(masterSeed, run++)));
+
+		long startTime = System.currentTimeMillis();
+		Solution<Integer> bestSol = portfolio.run();
+		long totalTime = System.currentTimeMillis() - startTime;
+
+		logger.info("Execution for " + filename);
+		logger.info("maxVal = " + bestSol);
+		logger.info("Best configuration = " + portfolio.getBestConfiguration());
+		logger.info("Time = " + (double) totalTime / (double) 1000 + " seg");
+
+	}
+
+}
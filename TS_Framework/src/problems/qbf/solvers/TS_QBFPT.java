@@ -6,16 +6,21 @@ import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
 import java.util.logging.FileHandler;
 import java.util.logging.Logger;
 import java.util.logging.SimpleFormatter;
 
 import metaheuristics.tabusearch.AbstractTS;
+import metaheuristics.tabusearch.CandidateShortList;
+import metaheuristics.tabusearch.TabuMemory;
+import problems.qbf.QBFInstance;
 import problems.qbf.QBF_Inverse;
+import solutions.BinarySolution;
 import solutions.Solution;
 import utils.Neighbor;
 import utils.ProibitedTuple;
-import utils.Recency;
 import utils.Utils;
 
 
@@ -32,6 +37,30 @@ public class TS_QBFPT extends AbstractTS<Integer> {
 	
 	private final Integer fake = new Integer(-1);
 	
+	/**
+	 * the minimum number of moves evaluated by a single task of the parallel
+	 * neighborhood scan.
+	 */
+	private static final int PARALLEL_SCAN_THRESHOLD = 2048;
+	
+	/**
+	 * the number of exchange moves evaluated by each batch evaluation of the
+	 * sequential neighborhood scan, which bounds the size of its buffer.
+	 */
+	private static final int EXCHANGE_BATCH_SIZE = 1 << 14;
+	
+	/**
+	 * the pool running the parallel neighborhood scan, or null if the scan is
+	 * sequential.
+	 */
+	private ForkJoinPool neighborhoodPool;
+	
+	/**
+	 * the short lists of the candidate-list strategy: the best candidates to
+	 * enter and to leave the solution found by the current scan.
+	 */
+	private CandidateShortList shortListIn, shortListOut;
+	
 	/**
 	 * Constructor for the TS_QBF class. An inverse QBF objective function is
 	 * passed as argument for the superclass constructor.
@@ -47,21 +76,51 @@ public class TS_QBFPT extends AbstractTS<Integer> {
 	 *             necessary for I/O operations.
 	 */
 	public TS_QBFPT(Logger logger, Integer tenure, Integer iterations, Integer method, Integer searchMethod, String filename) throws IOException {
-		super(logger, new QBF_Inverse(filename), tenure, method, searchMethod, iterations);
+		this(logger, tenure, iterations, method, searchMethod, QBFInstance.readInput(filename));
 	}
 	
 	//Intensification constructor
 	public TS_QBFPT(Logger logger, Integer tenure, Integer iterations, Integer method, Integer searchMethod, String filename, Integer intensification_max_iterations, Integer how_many_recency_elements_to_take) throws IOException {
-		super(logger, new QBF_Inverse(filename), tenure, method, searchMethod, iterations, intensification_max_iterations, how_many_recency_elements_to_take);
+		this(logger, tenure, iterations, method, searchMethod, QBFInstance.readInput(filename), intensification_max_iterations, how_many_recency_elements_to_take);
 	}
 	
-	/* (non-Javadoc)
-	 * @see metaheuristics.tabusearch.AbstractTS#makeCL()
+	/**
+	 * Constructor for the TS_QBF class over an instance already loaded. The
+	 * instance may be shared with other solvers, since each solver owns its
+	 * QBF evaluation workspace.
+	 * 
+	 * @param tenure
+	 *            The Tabu tenure parameter.
+	 * @param iterations
+	 *            The number of iterations which the TS will be executed.
+	 * @param instance
+	 *            The QBF instance.
+	 */
+	public TS_QBFPT(Logger logger, Integer tenure, Integer iterations, Integer method, Integer searchMethod, QBFInstance instance) {
+		super(logger, new QBF_Inverse(instance), tenure, method, searchMethod, iterations);
+		setProibitedTuples(instance.getProibitedTuples());
+		setIncrementalEvaluation(true);
+		setIncrementalCost(true);
+	}
+	
+	//Intensification constructor over an instance already loaded
+	public TS_QBFPT(Logger logger, Integer tenure, Integer iterations, Integer method, Integer searchMethod, QBFInstance instance, Integer intensification_max_iterations, Integer how_many_recency_elements_to_take) {
+		super(logger, new QBF_Inverse(instance), tenure, method, searchMethod, iterations, intensification_max_iterations, how_many_recency_elements_to_take);
+		setProibitedTuples(instance.getProibitedTuples());
+		setIncrementalEvaluation(true);
+		setIncrementalCost(true);
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 * 
+	 * The candidate list is a {@link BinarySolution}, so that removing a
+	 * candidate which enters the solution takes O(1).
 	 */
 	@Override
 	public ArrayList<Integer> makeCL() {
 
-		ArrayList<Integer> _CL = new ArrayList<Integer>();
+		ArrayList<Integer> _CL = new BinarySolution(ObjFunction.getDomainSize());
 		for (int i = 0; i < ObjFunction.getDomainSize(); i++) {
 			Integer cand = new Integer(i);
 			_CL.add(cand);
@@ -98,6 +157,19 @@ public class TS_QBFPT extends AbstractTS<Integer> {
 
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * 
+	 * The QBF candidate elements are the variable indices, so the array based
+	 * tabu memory is used instead of the Tabu List.
+	 */
+	@Override
+	public TabuMemory makeTabuMemory() {
+
+		return new TabuMemory(ObjFunction.getDomainSize(), tenure);
+
+	}
+
 	/* (non-Javadoc)
 	 * @see metaheuristics.tabusearch.AbstractTS#updateCL()
 	 */
@@ -108,39 +180,91 @@ public class TS_QBFPT extends AbstractTS<Integer> {
 
 	}
 	
-	@Override
-	public ArrayList<Double> makeViolationPenaltiesList() {
-		ArrayList<Double> _violationPenalties = new ArrayList<Double>();
-		for (int i = 0; i < ObjFunction.getDomainSize(); i++) {
-			Double penalty = new Double(0.0);
-			_violationPenalties.add(penalty);
-		}
-
-		return _violationPenalties;
-	}
-
 	/**
 	 * {@inheritDoc}
 	 * 
 	 * This createEmptySol instantiates an empty solution and it attributes a
 	 * zero cost, since it is known that a QBF solution with all variables set
-	 * to zero has also zero cost.
+	 * to zero has also zero cost. The solution is a {@link BinarySolution},
+	 * which gives O(1) membership tests, insertions and removals.
 	 */
 	@Override
 	public Solution<Integer> createEmptySol() {
-		Solution<Integer> sol = new Solution<Integer>();
+		Solution<Integer> sol = new BinarySolution(ObjFunction.getDomainSize());
 		sol.cost = 0.0;
 		return sol;
 	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 * The QBF candidate elements are the variable indices themselves.
+	 */
+	@Override
+	public int toIndex(Integer elem) {
+		return elem;
+	}
+
+	/* (non-Javadoc)
+	 * @see metaheuristics.tabusearch.AbstractTS#fromIndex(int)
+	 */
+	@Override
+	public Integer fromIndex(int index) {
+		return index;
+	}
+
+	/* (non-Javadoc)
+	 * @see metaheuristics.tabusearch.AbstractTS#copySol(solutions.Solution)
+	 */
+	@Override
+	public Solution<Integer> copySol(Solution<Integer> sol) {
+		return new BinarySolution(sol, ObjFunction.getDomainSize());
+	}
+	
+	/**
+	 * Turns on the parallel best-improvement mode, in which the insertion,
+	 * removal and exchange moves are split among the workers of a
+	 * {@link ForkJoinPool}. The scan only reads the state of the objective
+	 * function, hence it requires the incremental evaluation; otherwise, as
+	 * well as with {@link utils.Utils#FIRST_IMPROVEMENT} or with the short
+	 * lists of the candidate-list strategy, see
+	 * {@link #setCandidateListSize(Integer)}, the neighborhood is scanned
+	 * sequentially.
+	 * 
+	 * @param pool
+	 *            the pool running the scan, or null for a sequential scan.
+	 */
+	public void setNeighborhoodPool(ForkJoinPool pool) {
+		this.neighborhoodPool = pool;
+	}
 	
 	private Neighbor localSearch()
 	{
+		boolean shortLists = candidateListSize > 0;
+		if (neighborhoodPool != null && incrementalEvaluation && this.searchMethod == BEST_IMPROVEMENT && !shortLists)
+			return parallelLocalSearch();
+		
+		int numIn = CL.size(), numOut = incumbentSol.size();
+		double cost = incumbentSol.cost, bestCost = bestSol.cost;
+		double minDeltaCost = Double.POSITIVE_INFINITY;
+		boolean filter = filtersInfeasibleMoves();
 		Neighbor n = new Neighbor();
-		for (Integer candIn : CL) {
-			Double deltaCost = ObjFunction.evaluateInsertionCost(candIn, incumbentSol);
-			if (!TL.contains(candIn) || incumbentSol.cost+deltaCost < bestSol.cost) {
-				if (deltaCost < n.getMinDeltaCost()) {
-					n.setMinDeltaCost(deltaCost);
+		if (shortLists)
+			clearShortLists();
+		
+		// Evaluate insertions
+		insertionDeltas = ensureCapacity(insertionDeltas, numIn);
+		ObjFunction.evaluateInsertionCosts(CL, incumbentSol, insertionDeltas);
+		for (int a = 0; a < numIn; a++) {
+			Integer candIn = CL.get(a);
+			double deltaCost = insertionDeltas[a];
+			if (shortLists)
+				shortListIn.offer(a, deltaCost);
+			if (filter && proibitedTupleIndex.completesTuple(candIn))
+				continue;
+			if (!isTabu(candIn) || cost+deltaCost < bestCost) {
+				if (deltaCost < minDeltaCost && !leadsToVisited(candIn, null)) {
+					n.setMinDeltaCost(minDeltaCost = deltaCost);
 					n.setBestCandIn(candIn);
 					n.setBestCandOut(null);
 					
@@ -149,11 +273,17 @@ public class TS_QBFPT extends AbstractTS<Integer> {
 			}
 		}
 		// Evaluate removals
-		for (Integer candOut : incumbentSol) {
-			Double deltaCost = ObjFunction.evaluateRemovalCost(candOut, incumbentSol);
-			if (!TL.contains(candOut) || incumbentSol.cost+deltaCost < bestSol.cost) {
-				if (deltaCost - violationPenalties.get(candOut) < n.getMinDeltaCost()) {
-					n.setMinDeltaCost(deltaCost - violationPenalties.get(candOut));
+		removalDeltas = ensureCapacity(removalDeltas, numOut);
+		ObjFunction.evaluateRemovalCosts(incumbentSol, incumbentSol, removalDeltas);
+		for (int b = 0; b < numOut; b++) {
+			Integer candOut = incumbentSol.get(b);
+			double deltaCost = removalDeltas[b];
+			if (shortLists)
+				shortListOut.offer(b, deltaCost);
+			if (!isTabu(candOut) || cost+deltaCost < bestCost) {
+				double penalizedDeltaCost = deltaCost - oscillation.getPenalty(candOut);
+				if (penalizedDeltaCost < minDeltaCost && !leadsToVisited(null, candOut)) {
+					n.setMinDeltaCost(minDeltaCost = penalizedDeltaCost);
 					n.setBestCandIn(null);
 					n.setBestCandOut(candOut);
 					
@@ -161,13 +291,89 @@ public class TS_QBFPT extends AbstractTS<Integer> {
 				}
 			}
 		}
-		// Evaluate exchanges
-		for (Integer candIn : CL) {
-			for (Integer candOut : incumbentSol) {
-				Double deltaCost = ObjFunction.evaluateExchangeCost(candIn, candOut, incumbentSol);
-				if ((!TL.contains(candIn) && !TL.contains(candOut)) || incumbentSol.cost+deltaCost < bestSol.cost) {
-					if (deltaCost < n.getMinDeltaCost()) {
-						n.setMinDeltaCost(deltaCost);
+		// Evaluate exchanges, a batch of candidates to enter at a time
+		if (numOut == 0)
+			return n;
+		if (shortLists)
+			return shortListExchanges(n);
+		int batchIn = Math.max(1, EXCHANGE_BATCH_SIZE / numOut);
+		exchangeDeltas = ensureCapacity(exchangeDeltas, Math.min(numIn, batchIn) * numOut);
+		for (int from = 0; from < numIn; from += batchIn) {
+			int to = Math.min(numIn, from + batchIn);
+			ObjFunction.evaluateExchangeCosts(CL.subList(from, to), incumbentSol, incumbentSol, exchangeDeltas);
+			for (int a = from; a < to; a++) {
+				Integer candIn = CL.get(a);
+				int blocking = filter ? proibitedTupleIndex.getCompletedTuple(candIn) : -1;
+				int row = (a - from) * numOut;
+				for (int b = 0; b < numOut; b++) {
+					Integer candOut = incumbentSol.get(b);
+					double deltaCost = exchangeDeltas[row + b];
+					if (blocking != -1 && (!proibitedTupleIndex.isMember(blocking, candOut) || proibitedTupleIndex.completesTuple(candIn, candOut)))
+						continue;
+					if ((!isTabu(candIn) && !isTabu(candOut)) || cost+deltaCost < bestCost) {
+						if (deltaCost < minDeltaCost && !leadsToVisited(candIn, candOut)) {
+							n.setMinDeltaCost(minDeltaCost = deltaCost);
+							n.setBestCandIn(candIn);
+							n.setBestCandOut(candOut);
+							
+							if(this.searchMethod == FIRST_IMPROVEMENT) return n;
+						}
+					}
+				}
+			}
+		}
+		
+		return n;
+	}
+	
+	/**
+	 * Makes sure the short lists of the candidate-list strategy hold
+	 * {@link #candidateListSize} candidates, and empties them.
+	 */
+	private void clearShortLists()
+	{
+		if (shortListIn == null || shortListIn.getCapacity() != candidateListSize) {
+			shortListIn = new CandidateShortList(candidateListSize);
+			shortListOut = new CandidateShortList(candidateListSize);
+		}
+		shortListIn.clear();
+		shortListOut.clear();
+	}
+	
+	/**
+	 * Evaluates the exchanges between the short lists of the candidate-list
+	 * strategy, which were filled by the scan of the insertions and removals.
+	 * Both lists are visited in increasing order of cost variation, and since
+	 * an exchange costs at least the sum of its halves minus the interaction
+	 * bound of the candidate to enter, the visit of the candidates to leave
+	 * stops as soon as that sum cannot beat the best move found so far.
+	 * 
+	 * @param n
+	 *            the best move among the insertions and removals.
+	 * @return the best admissible move.
+	 */
+	private Neighbor shortListExchanges(Neighbor n)
+	{
+		double cost = incumbentSol.cost, bestCost = bestSol.cost;
+		double minDeltaCost = n.getMinDeltaCost();
+		boolean filter = filtersInfeasibleMoves();
+		shortListIn.sort();
+		shortListOut.sort();
+		
+		for (int p = 0; p < shortListIn.size(); p++) {
+			Integer candIn = CL.get(shortListIn.getPosition(p));
+			double lowerBound = shortListIn.getDelta(p) - ObjFunction.getInteractionBound(candIn);
+			int blocking = filter ? proibitedTupleIndex.getCompletedTuple(candIn) : -1;
+			for (int q = 0; q < shortListOut.size(); q++) {
+				if (lowerBound + shortListOut.getDelta(q) >= minDeltaCost)
+					break;
+				Integer candOut = incumbentSol.get(shortListOut.getPosition(q));
+				if (blocking != -1 && (!proibitedTupleIndex.isMember(blocking, candOut) || proibitedTupleIndex.completesTuple(candIn, candOut)))
+					continue;
+				double deltaCost = ObjFunction.evaluateExchangeCost(candIn, candOut, incumbentSol);
+				if ((!isTabu(candIn) && !isTabu(candOut)) || cost+deltaCost < bestCost) {
+					if (deltaCost < minDeltaCost && !leadsToVisited(candIn, candOut)) {
+						n.setMinDeltaCost(minDeltaCost = deltaCost);
 						n.setBestCandIn(candIn);
 						n.setBestCandOut(candOut);
 						
@@ -180,14 +386,114 @@ public class TS_QBFPT extends AbstractTS<Integer> {
 		return n;
 	}
 	
-	private void updateRecencyList()
+	/**
+	 * Best-improvement scan of the neighborhood split among the workers of
+	 * {@link #neighborhoodPool}. The moves are numbered in the same order as
+	 * in the sequential scan (insertions, removals, then exchanges) and, among
+	 * moves of equal cost, the one with the smallest number is chosen, so the
+	 * result is exactly the one of the sequential scan.
+	 * 
+	 * @return the best admissible move.
+	 */
+	private Neighbor parallelLocalSearch()
+	{
+		Integer[] candsIn = CL.toArray(new Integer[0]);
+		Integer[] candsOut = incumbentSol.toArray(new Integer[0]);
+		long numMoves = (long) candsIn.length + candsOut.length + (long) candsIn.length * candsOut.length;
+		
+		return neighborhoodPool.invoke(new NeighborhoodScan(candsIn, candsOut, 0, numMoves));
+	}
+	
+	/**
+	 * Scans a range of moves of the neighborhood, splitting it into halves
+	 * while it is larger than {@link #PARALLEL_SCAN_THRESHOLD}.
+	 */
+	@SuppressWarnings("serial")
+	private class NeighborhoodScan extends RecursiveTask<Neighbor>
 	{
-		for(Integer val : incumbentSol)
+		private final Integer[] candsIn, candsOut;
+		private final long from, to;
+		
+		NeighborhoodScan(Integer[] candsIn, Integer[] candsOut, long from, long to)
+		{
+			this.candsIn = candsIn;
+			this.candsOut = candsOut;
+			this.from = from;
+			this.to = to;
+		}
+		
+		@Override
+		protected Neighbor compute()
 		{
-			Recency<Integer> element = findOnRecencyList(val);
-			if(element == null)  listOfRecency.add(new Recency<Integer>(val));
-			else element.increment();
+			if (to - from > PARALLEL_SCAN_THRESHOLD) {
+				long mid = (from + to) >>> 1;
+				NeighborhoodScan left = new NeighborhoodScan(candsIn, candsOut, from, mid);
+				NeighborhoodScan right = new NeighborhoodScan(candsIn, candsOut, mid, to);
+				right.fork();
+				Neighbor nLeft = left.compute();
+				Neighbor nRight = right.join();
+				return (nRight.getMinDeltaCost() < nLeft.getMinDeltaCost()) ? nRight : nLeft;
+			}
+			
+			Neighbor n = new Neighbor();
+			for (long k = from; k < to; k++) {
+				scoreMove(k, n);
+			}
+			return n;
 		}
+		
+		private void scoreMove(long k, Neighbor n)
+		{
+			int numIn = candsIn.length, numOut = candsOut.length;
+			if (k < numIn) {
+				Integer candIn = candsIn[(int) k];
+				if (filtersInfeasibleMoves() && proibitedTupleIndex.completesTuple(candIn))
+					return;
+				Double deltaCost = ObjFunction.evaluateInsertionCost(candIn, incumbentSol);
+				if ((!isTabu(candIn) || incumbentSol.cost+deltaCost < bestSol.cost) && deltaCost < n.getMinDeltaCost() && !leadsToVisited(candIn, null)) {
+					n.setMinDeltaCost(deltaCost);
+					n.setBestCandIn(candIn);
+					n.setBestCandOut(null);
+				}
+			} else if (k < numIn + numOut) {
+				Integer candOut = candsOut[(int) (k - numIn)];
+				Double deltaCost = ObjFunction.evaluateRemovalCost(candOut, incumbentSol);
+				if ((!isTabu(candOut) || incumbentSol.cost+deltaCost < bestSol.cost) && deltaCost - oscillation.getPenalty(candOut) < n.getMinDeltaCost() && !leadsToVisited(null, candOut)) {
+					n.setMinDeltaCost(deltaCost - oscillation.getPenalty(candOut));
+					n.setBestCandIn(null);
+					n.setBestCandOut(candOut);
+				}
+			} else {
+				long pair = k - numIn - numOut;
+				Integer candIn = candsIn[(int) (pair / numOut)];
+				Integer candOut = candsOut[(int) (pair % numOut)];
+				if (filtersInfeasibleMoves() && proibitedTupleIndex.completesTuple(candIn, candOut))
+					return;
+				Double deltaCost = ObjFunction.evaluateExchangeCost(candIn, candOut, incumbentSol);
+				if (((!isTabu(candIn) && !isTabu(candOut)) || incumbentSol.cost+deltaCost < bestSol.cost) && deltaCost < n.getMinDeltaCost() && !leadsToVisited(candIn, candOut)) {
+					n.setMinDeltaCost(deltaCost);
+					n.setBestCandIn(candIn);
+					n.setBestCandOut(candOut);
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Registers one of the two halves of a move as tabu. When using the Tabu
+	 * List, the oldest entry leaves the list and an empty move is registered
+	 * with the {@link #fake} element.
+	 * 
+	 * @param cand
+	 *            the element moved, or null if no element was moved.
+	 */
+	private void updateTabu(Integer cand)
+	{
+		if (tabuMemory == null) {
+			TL.poll();
+			if (cand == null) cand = fake;
+		}
+		if (cand != null) makeTabu(cand);
 	}
 	
 	/**
@@ -202,32 +508,28 @@ public class TS_QBFPT extends AbstractTS<Integer> {
 		if (this.method != OSCILATION_METHOD) repairSolution();
 		
 		Neighbor n = localSearch();
+		if (n.getBestCandIn() == null && n.getBestCandOut() == null && visitedMemory != null && avoidVisited) {
+			// every admissible move leads to a visited solution
+			avoidVisited = false;
+			n = localSearch();
+			avoidVisited = true;
+		}
 		
 		// Implement the best non-tabu move
-		TL.poll();
 		if (n.getBestCandOut() != null) {
-			incumbentSol.remove(n.getBestCandOut());
+			removeFromSolution(n.getBestCandOut());
 			
-			//remove element from recency
-			if(this.method == INTENSIFICATION_METHOD)
-			{
-				Recency<Integer> element = findOnRecencyList(n.getBestCandOut());
-				if(null != element)  listOfRecency.remove(listOfRecency.indexOf(element));
-			}
+			//remove element from the frequency memory
+			if(this.method == INTENSIFICATION_METHOD) frequencyMemory.forget(n.getBestCandOut());
 			
 			CL.add(n.getBestCandOut());
-			TL.add(n.getBestCandOut());
-		} else {
-			TL.add(fake);
 		}
-		TL.poll();
+		updateTabu(n.getBestCandOut());
 		if (n.getBestCandIn() != null) {
-			incumbentSol.add(n.getBestCandIn());
+			insertIntoSolution(n.getBestCandIn());
 			CL.remove(n.getBestCandIn());
-			TL.add(n.getBestCandIn());
-		} else {
-			TL.add(fake);
 		}
+		updateTabu(n.getBestCandIn());
 
 		if (this.method == OSCILATION_METHOD) {
 			updateViolationPenalties();
@@ -235,9 +537,9 @@ public class TS_QBFPT extends AbstractTS<Integer> {
 			repairSolution();	
 		}
 		
-		if(this.method == INTENSIFICATION_METHOD) updateRecencyList();
+		if(this.method == INTENSIFICATION_METHOD) updateFrequencyMemory();
 		
-		ObjFunction.evaluate(incumbentSol);
+		evaluateIncumbentSol();
 	}
 	
 
@@ -268,7 +570,8 @@ public class TS_QBFPT extends AbstractTS<Integer> {
 		
 		Logger logger = setUpLogger("results\\DEFAULT_METHOD_final.txt");
 		
-		Integer tenures[] = {2, 18};
+		// a reactive run adapts the tenure within these bounds, replacing a sweep over fixed tenures
+		Integer minTenure = 2, maxTenure = 50;
 		Integer localSearchMethods[] = {FIRST_IMPROVEMENT, BEST_IMPROVEMENT};
 		
 		String instances[] = {
@@ -278,26 +581,30 @@ public class TS_QBFPT extends AbstractTS<Integer> {
 		Integer intensification_qtds_to_tabu[] = {18};
 		
 		for (String instance : instances)
-		for(Integer localSearchMethod : localSearchMethods)
-		for(Integer tenure:tenures)
-		//for(Integer intensification_qtd_run : intensification_qtds_run)
-		//for(Integer intensification_qtd_to_tabu : intensification_qtds_to_tabu)
 		{
-			logger.info("----------------------------------------------------------------");
-			logger.info("Going to start a new parameter configuration");
-			logger.info("Execution for "+instance);
-			logger.info("Local search Method = "+(localSearchMethod==FIRST_IMPROVEMENT?"FIRST_IMPROVEMENT":"BEST_IMPROVEMENT"));
-			logger.info("Tenure = "+tenure);
-			//logger.info("Intensification run quantity = "+intensification_qtd_run);
-			//logger.info("Intensification to tabu qtd = "+intensification_qtd_to_tabu);
-			long startTime = System.currentTimeMillis();
-			TS_QBFPT tabusearch = new TS_QBFPT(logger, tenure, 100000, DEFAULT_METHOD, localSearchMethod, instance);
-			Solution<Integer> bestSol = tabusearch.solve();
-			logger.info("maxVal = " + bestSol);
-			long endTime   = System.currentTimeMillis();
-			long totalTime = endTime - startTime;
-			logger.info("Time = "+(double)totalTime/(double)1000+" seg");
-			logger.info("\n\n\n");
+			QBFInstance qbfInstance = QBFInstance.readInput(instance);
+			for(Integer localSearchMethod : localSearchMethods)
+			//for(Integer intensification_qtd_run : intensification_qtds_run)
+			//for(Integer intensification_qtd_to_tabu : intensification_qtds_to_tabu)
+			{
+				logger.info("----------------------------------------------------------------");
+				logger.info("Going to start a new parameter configuration");
+				logger.info("Execution for "+instance);
+				logger.info("Local search Method = "+(localSearchMethod==FIRST_IMPROVEMENT?"FIRST_IMPROVEMENT":"BEST_IMPROVEMENT"));
+				logger.info("Tenure = reactive in ["+minTenure+", "+maxTenure+"]");
+				//logger.info("Intensification run quantity = "+intensification_qtd_run);
+				//logger.info("Intensification to tabu qtd = "+intensification_qtd_to_tabu);
+				long startTime = System.currentTimeMillis();
+				TS_QBFPT tabusearch = new TS_QBFPT(logger, minTenure, 100000, DEFAULT_METHOD, localSearchMethod, qbfInstance);
+				tabusearch.setReactiveTenure(minTenure, maxTenure);
+				Solution<Integer> bestSol = tabusearch.solve();
+				logger.info("maxVal = " + bestSol);
+				logger.info("Final tenure = "+tabusearch.getTenure()+", repetitions = "+tabusearch.getRevisitCount());
+				long endTime   = System.currentTimeMillis();
+				long totalTime = endTime - startTime;
+				logger.info("Time = "+(double)totalTime/(double)1000+" seg");
+				logger.info("\n\n\n");
+			}
 		}
 		
 		
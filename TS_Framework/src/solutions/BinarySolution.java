@@ -0,0 +1,250 @@
+package solutions;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+
+/**
+ * A solution whose elements are the indices of the binary variables set to one,
+ * i.e., integers in [0, domainSize). Besides the list of elements, it keeps a
+ * membership mask and the position of each element in the list, so that
+ * membership tests, insertions and removals take O(1). Removing an element
+ * moves the last element of the list to its position, hence the order of the
+ * elements is not preserved.
+ *
+ * Since it is still a {@link Solution}, it can be used wherever the generic
+ * API is expected, including as a candidate list.
+ */
+@SuppressWarnings("serial")
+public class BinarySolution extends Solution<Integer> {
+
+	/**
+	 * the membership mask of the elements.
+	 */
+	private final BitSet members;
+
+	/**
+	 * the position of each element in the list, or -1 if it is absent.
+	 */
+	private final int[] positions;
+
+	/**
+	 * Creates an empty solution.
+	 *
+	 * @param domainSize
+	 *            the number of elements that may enter the solution.
+	 */
+	public BinarySolution(int domainSize) {
+		super();
+		members = new BitSet(domainSize);
+		positions = new int[domainSize];
+		Arrays.fill(positions, -1);
+	}
+
+	/**
+	 * Creates a copy of a solution.
+	 *
+	 * @param sol
+	 *            the solution to be copied.
+	 */
+	public BinarySolution(BinarySolution sol) {
+		super(sol);
+		members = (BitSet) sol.members.clone();
+		positions = sol.positions.clone();
+	}
+
+	/**
+	 * Creates a copy of a generic solution.
+	 *
+	 * @param sol
+	 *            the solution to be copied.
+	 * @param domainSize
+	 *            the number of elements that may enter the solution.
+	 */
+	public BinarySolution(Solution<Integer> sol, int domainSize) {
+		this(domainSize);
+		for (Integer elem : sol) {
+			add(elem);
+		}
+		cost = sol.cost;
+	}
+
+	/**
+	 * Gives the number of elements that may enter the solution.
+	 *
+	 * @return the size of the domain.
+	 */
+	public int getDomainSize() {
+		return positions.length;
+	}
+
+	/**
+	 * Tests whether an element belongs to the solution in O(1).
+	 *
+	 * @param elem
+	 *            the element.
+	 * @return true if the element is in the solution.
+	 */
+	public boolean contains(int elem) {
+		return members.get(elem);
+	}
+
+	/**
+	 * Gives the membership mask of the solution. The mask must not be
+	 * modified.
+	 *
+	 * @return the membership mask.
+	 */
+	public BitSet getMembers() {
+		return members;
+	}
+
+	@Override
+	public boolean contains(Object o) {
+		return (o instanceof Integer) && inDomain((Integer) o) && members.get((Integer) o);
+	}
+
+	@Override
+	public int indexOf(Object o) {
+		if (!(o instanceof Integer) || !inDomain((Integer) o))
+			return -1;
+		return positions[(Integer) o];
+	}
+
+	@Override
+	public int lastIndexOf(Object o) {
+		return indexOf(o);
+	}
+
+	/**
+	 * {@inheritDoc} An element already in the solution is not inserted again.
+	 */
+	@Override
+	public boolean add(Integer elem) {
+		if (members.get(elem))
+			return false;
+		members.set(elem);
+		positions[elem] = size();
+		return super.add(elem);
+	}
+
+	@Override
+	public boolean addAll(Collection<? extends Integer> c) {
+		boolean changed = false;
+		for (Integer elem : c) {
+			changed |= add(elem);
+		}
+		return changed;
+	}
+
+	/**
+	 * {@inheritDoc} The last element of the solution takes the place of the
+	 * removed one.
+	 */
+	@Override
+	public Integer remove(int index) {
+		int last = size() - 1;
+		Integer elem = get(index);
+		if (index != last) {
+			Integer moved = get(last);
+			super.set(index, moved);
+			positions[moved] = index;
+		}
+		super.remove(last);
+		members.clear(elem);
+		positions[elem] = -1;
+		return elem;
+	}
+
+	@Override
+	public boolean remove(Object o) {
+		int index = indexOf(o);
+		if (index == -1)
+			return false;
+		remove(index);
+		return true;
+	}
+
+	@Override
+	public boolean removeIf(Predicate<? super Integer> filter) {
+		boolean changed = false;
+		for (int i = size() - 1; i >= 0; i--) {
+			if (filter.test(get(i))) {
+				remove(i);
+				changed = true;
+			}
+		}
+		return changed;
+	}
+
+	@Override
+	public boolean removeAll(Collection<?> c) {
+		return removeIf(c::contains);
+	}
+
+	@Override
+	public boolean retainAll(Collection<?> c) {
+		return removeIf(elem -> !c.contains(elem));
+	}
+
+	@Override
+	public Integer set(int index, Integer elem) {
+		Integer old = get(index);
+		if (old.equals(elem))
+			return old;
+		if (members.get(elem))
+			throw new IllegalArgumentException("Element " + elem + " is already in the solution");
+		members.clear(old);
+		positions[old] = -1;
+		members.set(elem);
+		positions[elem] = index;
+		return super.set(index, elem);
+	}
+
+	@Override
+	public void clear() {
+		for (Integer elem : this) {
+			positions[elem] = -1;
+		}
+		members.clear();
+		super.clear();
+	}
+
+	@Override
+	public void sort(Comparator<? super Integer> c) {
+		super.sort(c);
+		for (int i = 0; i < size(); i++) {
+			positions[get(i)] = i;
+		}
+	}
+
+	@Override
+	public void add(int index, Integer elem) {
+		throw new UnsupportedOperationException("Elements can only be appended to a BinarySolution");
+	}
+
+	@Override
+	public boolean addAll(int index, Collection<? extends Integer> c) {
+		throw new UnsupportedOperationException("Elements can only be appended to a BinarySolution");
+	}
+
+	@Override
+	public void replaceAll(UnaryOperator<Integer> operator) {
+		throw new UnsupportedOperationException("Elements of a BinarySolution can not be replaced in bulk");
+	}
+
+	@Override
+	protected void removeRange(int fromIndex, int toIndex) {
+		for (int i = toIndex - 1; i >= fromIndex; i--) {
+			remove(i);
+		}
+	}
+
+	private boolean inDomain(int elem) {
+		return elem >= 0 && elem < positions.length;
+	}
+
+}
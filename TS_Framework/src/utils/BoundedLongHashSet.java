@@ -0,0 +1,176 @@
+package utils;
+
+import java.util.Arrays;
+
+/**
+ * Open addressing set of primitive longs with a fixed capacity, meant to
+ * remember the hashes of the solutions visited by a search. A key is looked
+ * up in a short window of consecutive slots from its home slot, so adding and
+ * looking up a key take O(1) and never allocate. When the window of a new key
+ * is full, the key added or refreshed least recently in the window is
+ * evicted, so the set forgets the oldest keys rather than growing.
+ *
+ * The slots are marked as empty with the key zero, so the key zero is stored
+ * as {@link #ZERO_KEY}; the two are the same key for this set.
+ */
+public class BoundedLongHashSet {
+
+	/**
+	 * the number of slots in which a key may be stored.
+	 */
+	private static final int WINDOW = 8;
+
+	/**
+	 * the key standing for zero, which marks the empty slots.
+	 */
+	private static final long ZERO_KEY = 0x8000000000000000L;
+
+	/**
+	 * the keys, or zero for the empty slots.
+	 */
+	private final long[] keys;
+
+	/**
+	 * the instant each key was added or refreshed.
+	 */
+	private final int[] stamps;
+
+	/**
+	 * the number of slots minus one, the number of slots being a power of
+	 * two.
+	 */
+	private final int mask;
+
+	/**
+	 * the next instant.
+	 */
+	private int clock;
+
+	/**
+	 * the number of keys stored.
+	 */
+	private int size;
+
+	/**
+	 * the number of keys evicted so far.
+	 */
+	private long evictions;
+
+	/**
+	 * Creates an empty set.
+	 *
+	 * @param capacity
+	 *            the maximum number of keys, rounded up to a power of two of
+	 *            at least {@link #WINDOW}.
+	 */
+	public BoundedLongHashSet(int capacity) {
+		int slots = Integer.highestOneBit(Math.max(WINDOW, capacity) - 1) << 1;
+		keys = new long[slots];
+		stamps = new int[slots];
+		mask = slots - 1;
+	}
+
+	/**
+	 * Gives the home slot of a key, spreading the bits of the key since its
+	 * low bits alone may be poorly distributed.
+	 */
+	private int home(long key) {
+		long h = key * 0x9E3779B97F4A7C15L;
+		return (int) (h ^ (h >>> 32)) & mask;
+	}
+
+	/**
+	 * Tests whether a key is in the set.
+	 *
+	 * @param key
+	 *            the key.
+	 * @return true if the key was added and has not been evicted since.
+	 */
+	public boolean contains(long key) {
+		if (key == 0)
+			key = ZERO_KEY;
+		int slot = home(key);
+		for (int k = 0; k < WINDOW; k++, slot = (slot + 1) & mask) {
+			long current = keys[slot];
+			if (current == key)
+				return true;
+			if (current == 0)
+				return false;
+		}
+		return false;
+	}
+
+	/**
+	 * Adds a key to the set, or refreshes it if it is already there, evicting
+	 * the least recent key of its window if the window is full. Since slots
+	 * are only emptied all at once, by {@link #clear()}, the keys of a window
+	 * come before its empty slots, and a lookup stops at the first empty one.
+	 *
+	 * @param key
+	 *            the key.
+	 * @return true if the key was not in the set.
+	 */
+	public boolean add(long key) {
+		if (key == 0)
+			key = ZERO_KEY;
+		int slot = home(key), oldest = -1;
+		for (int k = 0; k < WINDOW; k++, slot = (slot + 1) & mask) {
+			long current = keys[slot];
+			if (current == key) {
+				stamps[slot] = clock++;
+				return false;
+			}
+			if (current == 0) {
+				keys[slot] = key;
+				stamps[slot] = clock++;
+				size++;
+				return true;
+			}
+			if (oldest == -1 || clock - stamps[slot] > clock - stamps[oldest])
+				oldest = slot;
+		}
+		keys[oldest] = key;
+		stamps[oldest] = clock++;
+		evictions++;
+		return true;
+	}
+
+	/**
+	 * Removes all the keys of the set.
+	 */
+	public void clear() {
+		Arrays.fill(keys, 0);
+		size = 0;
+		clock = 0;
+		evictions = 0;
+	}
+
+	/**
+	 * Gives the number of keys in the set.
+	 *
+	 * @return the number of keys.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Gives the maximum number of keys in the set.
+	 *
+	 * @return the number of slots.
+	 */
+	public int getCapacity() {
+		return keys.length;
+	}
+
+	/**
+	 * Gives the number of keys evicted to make room for others since the set
+	 * was created or cleared.
+	 *
+	 * @return the number of evictions.
+	 */
+	public long getEvictions() {
+		return evictions;
+	}
+
+}
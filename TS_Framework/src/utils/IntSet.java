@@ -0,0 +1,136 @@
+package utils;
+
+import java.util.Arrays;
+
+/**
+ * A set of integers in [0, domainSize) kept as a list of primitive ints, with
+ * the position of each element in the list, so that membership tests,
+ * insertions and removals take O(1) and never allocate. As in
+ * {@link solutions.BinarySolution}, insertions append to the list and removing
+ * an element moves the last element of the list to its position.
+ */
+public class IntSet {
+
+	/**
+	 * the elements, in the first {@link #size} positions.
+	 */
+	private final int[] elements;
+
+	/**
+	 * the position of each element in {@link #elements}, or -1 if it is
+	 * absent.
+	 */
+	private final int[] positions;
+
+	/**
+	 * the number of elements.
+	 */
+	private int size;
+
+	/**
+	 * Creates an empty set.
+	 *
+	 * @param domainSize
+	 *            the number of elements that may enter the set.
+	 */
+	public IntSet(int domainSize) {
+		elements = new int[domainSize];
+		positions = new int[domainSize];
+		Arrays.fill(positions, -1);
+	}
+
+	/**
+	 * Gives the number of elements that may enter the set.
+	 *
+	 * @return the size of the domain.
+	 */
+	public int getDomainSize() {
+		return positions.length;
+	}
+
+	/**
+	 * Gives the number of elements of the set.
+	 *
+	 * @return the number of elements.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Gives the element at a position of the list.
+	 *
+	 * @param index
+	 *            a position in [0, {@link #size()}).
+	 * @return the element.
+	 */
+	public int get(int index) {
+		return elements[index];
+	}
+
+	/**
+	 * Tests whether an element belongs to the set.
+	 *
+	 * @param elem
+	 *            the element.
+	 * @return true if the element is in the set.
+	 */
+	public boolean contains(int elem) {
+		return positions[elem] != -1;
+	}
+
+	/**
+	 * Appends an element to the set, unless it is already there.
+	 *
+	 * @param elem
+	 *            the element.
+	 * @return true if the element was inserted.
+	 */
+	public boolean add(int elem) {
+		if (positions[elem] != -1)
+			return false;
+		positions[elem] = size;
+		elements[size++] = elem;
+		return true;
+	}
+
+	/**
+	 * Removes an element from the set, moving the last element of the list
+	 * to its position.
+	 *
+	 * @param elem
+	 *            the element.
+	 * @return true if the element was removed.
+	 */
+	public boolean remove(int elem) {
+		int index = positions[elem];
+		if (index == -1)
+			return false;
+		int last = elements[--size];
+		elements[index] = last;
+		positions[last] = index;
+		positions[elem] = -1;
+		return true;
+	}
+
+	/**
+	 * Removes all the elements of the set.
+	 */
+	public void clear() {
+		for (int k = 0; k < size; k++) {
+			positions[elements[k]] = -1;
+		}
+		size = 0;
+	}
+
+	/**
+	 * Copies the elements of the set, in order, into an array.
+	 *
+	 * @param target
+	 *            the array, with at least {@link #size()} positions.
+	 */
+	public void copyTo(int[] target) {
+		System.arraycopy(elements, 0, target, 0, size);
+	}
+
+}
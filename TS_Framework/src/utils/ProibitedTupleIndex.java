@@ -0,0 +1,346 @@
+package utils;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Index of the prohibited triples of a problem, which keeps track of how many
+ * members of each triple are currently in a solution. For each variable it
+ * knows the triples it belongs to, so that inserting or removing a variable
+ * updates the index in O(degree), and the triples violated by the solution are
+ * always known without scanning all of them.
+ *
+ * A triple with a member outside of the domain can never be violated, and is
+ * therefore not indexed.
+ */
+public class ProibitedTupleIndex {
+
+	/**
+	 * the number of members of a triple.
+	 */
+	private static final int TUPLE_SIZE = 3;
+
+	/**
+	 * the members of each triple, three consecutive positions per triple.
+	 */
+	private final int[] members;
+
+	/**
+	 * the number of distinct members of each triple.
+	 */
+	private final int[] distinct;
+
+	/**
+	 * the triples each variable belongs to.
+	 */
+	private final int[][] tuplesOf;
+
+	/**
+	 * the number of members of each triple in the solution.
+	 */
+	private final int[] count;
+
+	/**
+	 * the triples currently violated, in the first {@link #violatedSize}
+	 * positions.
+	 */
+	private final int[] violated;
+
+	/**
+	 * the position of each triple in {@link #violated}, or -1 if it is not
+	 * violated.
+	 */
+	private final int[] violatedPos;
+
+	/**
+	 * the number of triples currently violated.
+	 */
+	private int violatedSize;
+
+	/**
+	 * Constructor for the ProibitedTupleIndex class, for an empty solution.
+	 *
+	 * @param tuples
+	 *            the prohibited triples.
+	 * @param domainSize
+	 *            the number of variables.
+	 */
+	public ProibitedTupleIndex(List<ProibitedTuple> tuples, int domainSize) {
+
+		int numTuples = tuples.size();
+		members = new int[TUPLE_SIZE * numTuples];
+		distinct = new int[numTuples];
+		count = new int[numTuples];
+		violated = new int[numTuples];
+		violatedPos = new int[numTuples];
+		Arrays.fill(violatedPos, -1);
+
+		int[] degree = new int[domainSize];
+		for (int t = 0; t < numTuples; t++) {
+			ProibitedTuple tuple = tuples.get(t);
+			members[TUPLE_SIZE * t] = tuple.getX0();
+			members[TUPLE_SIZE * t + 1] = tuple.getX1();
+			members[TUPLE_SIZE * t + 2] = tuple.getX2();
+			if (!inDomain(t, domainSize))
+				continue;
+			for (int k = 0; k < TUPLE_SIZE; k++) {
+				if (isFirstOccurrence(t, k)) {
+					distinct[t]++;
+					degree[getMember(t, k)]++;
+				}
+			}
+		}
+
+		tuplesOf = new int[domainSize][];
+		for (int v = 0; v < domainSize; v++) {
+			tuplesOf[v] = new int[degree[v]];
+			degree[v] = 0;
+		}
+		for (int t = 0; t < numTuples; t++) {
+			if (!inDomain(t, domainSize))
+				continue;
+			for (int k = 0; k < TUPLE_SIZE; k++) {
+				if (isFirstOccurrence(t, k)) {
+					int v = getMember(t, k);
+					tuplesOf[v][degree[v]++] = t;
+				}
+			}
+		}
+
+	}
+
+	private boolean inDomain(int t, int domainSize) {
+		for (int k = 0; k < TUPLE_SIZE; k++) {
+			int v = getMember(t, k);
+			if (v < 0 || v >= domainSize)
+				return false;
+		}
+		return true;
+	}
+
+	private boolean isFirstOccurrence(int t, int k) {
+		for (int l = 0; l < k; l++) {
+			if (getMember(t, l) == getMember(t, k))
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Clears the index and registers the elements of a solution.
+	 *
+	 * @param sol
+	 *            the elements of the solution.
+	 */
+	public void reset(Iterable<Integer> sol) {
+		clear();
+		for (Integer v : sol) {
+			insert(v);
+		}
+	}
+
+	/**
+	 * Clears the index, as for an empty solution.
+	 */
+	public void clear() {
+		for (int i = 0; i < violatedSize; i++) {
+			violatedPos[violated[i]] = -1;
+		}
+		violatedSize = 0;
+		Arrays.fill(count, 0);
+	}
+
+	/**
+	 * Registers the insertion of a variable into the solution.
+	 *
+	 * @param v
+	 *            the variable inserted.
+	 */
+	public void insert(int v) {
+		for (int t : tuplesOf[v]) {
+			if (++count[t] == distinct[t]) {
+				violatedPos[t] = violatedSize;
+				violated[violatedSize++] = t;
+			}
+		}
+	}
+
+	/**
+	 * Registers the removal of a variable from the solution.
+	 *
+	 * @param v
+	 *            the variable removed.
+	 */
+	public void remove(int v) {
+		for (int t : tuplesOf[v]) {
+			if (count[t]-- == distinct[t]) {
+				int pos = violatedPos[t];
+				int last = violated[--violatedSize];
+				violated[pos] = last;
+				violatedPos[last] = pos;
+				violatedPos[t] = -1;
+			}
+		}
+	}
+
+	/**
+	 * Tests whether inserting a variable into the solution would violate a
+	 * triple, i.e., whether the other members of one of its triples are all
+	 * in the solution. It takes O(degree).
+	 *
+	 * @param v
+	 *            a variable out of the solution.
+	 * @return true if the insertion would violate a triple.
+	 */
+	public boolean completesTuple(int v) {
+		return getCompletedTuple(v) != -1;
+	}
+
+	/**
+	 * Gives a triple which inserting a variable into the solution would
+	 * violate. An exchange inserting the variable can only be feasible if it
+	 * removes a member of this triple, which makes it a cheap filter before
+	 * {@link #completesTuple(int, int)}.
+	 *
+	 * @param v
+	 *            a variable out of the solution.
+	 * @return the index of the first such triple, or -1 if the insertion
+	 *         would violate no triple.
+	 */
+	public int getCompletedTuple(int v) {
+		for (int t : tuplesOf[v]) {
+			if (count[t] == distinct[t] - 1)
+				return t;
+		}
+		return -1;
+	}
+
+	/**
+	 * Tests whether inserting a variable into the solution after removing
+	 * another one would violate a triple. It takes O(degree).
+	 *
+	 * @param v
+	 *            a variable out of the solution.
+	 * @param removed
+	 *            a variable in the solution, removed before the insertion.
+	 * @return true if the exchange would violate a triple.
+	 */
+	public boolean completesTuple(int v, int removed) {
+		for (int t : tuplesOf[v]) {
+			int c = count[t];
+			if (isMember(t, removed))
+				c--;
+			if (c == distinct[t] - 1)
+				return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Tests whether a variable is a member of a triple.
+	 *
+	 * @param t
+	 *            the index of the triple.
+	 * @param v
+	 *            the variable.
+	 * @return true if the variable is one of the members of the triple.
+	 */
+	public boolean isMember(int t, int v) {
+		return getMember(t, 0) == v || getMember(t, 1) == v || getMember(t, 2) == v;
+	}
+
+	/**
+	 * Gives the number of triples violated by the solution.
+	 *
+	 * @return the number of violated triples.
+	 */
+	public int getViolatedCount() {
+		return violatedSize;
+	}
+
+	/**
+	 * Gives one of the triples violated by the solution.
+	 *
+	 * @param i
+	 *            a position in [0, {@link #getViolatedCount()}).
+	 * @return the index of the violated triple.
+	 */
+	public int getViolated(int i) {
+		return violated[i];
+	}
+
+	/**
+	 * Gives the violated triple of smallest index, which is the first one
+	 * found when scanning all the triples in order.
+	 *
+	 * @return the index of the triple, or -1 if no triple is violated.
+	 */
+	public int getFirstViolated() {
+		int first = -1;
+		for (int i = 0; i < violatedSize; i++) {
+			if (first == -1 || violated[i] < first)
+				first = violated[i];
+		}
+		return first;
+	}
+
+	/**
+	 * Tests whether a triple is violated by the solution.
+	 *
+	 * @param t
+	 *            the index of the triple.
+	 * @return true if all the members of the triple are in the solution.
+	 */
+	public boolean isViolated(int t) {
+		return violatedPos[t] != -1;
+	}
+
+	/**
+	 * Gives the number of members of a triple in the solution.
+	 *
+	 * @param t
+	 *            the index of the triple.
+	 * @return the number of members in the solution.
+	 */
+	public int getCount(int t) {
+		return count[t];
+	}
+
+	/**
+	 * Gives the number of distinct members of a triple, which is zero for a
+	 * triple that can never be violated.
+	 *
+	 * @param t
+	 *            the index of the triple.
+	 * @return the number of distinct members.
+	 */
+	public int getDistinct(int t) {
+		return distinct[t];
+	}
+
+	/**
+	 * Gives one of the members of a triple.
+	 *
+	 * @param t
+	 *            the index of the triple.
+	 * @param k
+	 *            the position of the member, in [0, 3).
+	 * @return the member.
+	 */
+	public int getMember(int t, int k) {
+		return members[TUPLE_SIZE * t + k];
+	}
+
+	/**
+	 * Gives the triples a variable belongs to. The array must not be
+	 * modified.
+	 *
+	 * @param v
+	 *            the variable.
+	 * @return the indices of the triples.
+	 */
+	public int[] getTuplesOf(int v) {
+		return tuplesOf[v];
+	}
+
+}
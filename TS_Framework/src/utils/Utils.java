@@ -44,5 +44,25 @@ public class Utils {
 		return myList;
 	}
 	
+	/**
+	 * Derives the seed of one of several runs from a master seed, so that
+	 * each of N concurrent runs is deterministic and independent of the
+	 * others. The derivation is the SplitMix64 generator, whose consecutive
+	 * outputs are well spread even for consecutive master seeds.
+	 * 
+	 * @param masterSeed
+	 *            the seed shared by all the runs.
+	 * @param run
+	 *            the index of the run.
+	 * @return the seed of the run.
+	 */
+	public static long splitSeed(long masterSeed, int run)
+	{
+		long z = masterSeed + (run + 1) * 0x9E3779B97F4A7C15L;
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		return z ^ (z >>> 31);
+	}
+	
 	
 }
@@ -0,0 +1,94 @@
+package utils;
+
+import java.util.Random;
+
+/**
+ * Zobrist hash of a subset of the integers in [0, domainSize), such as a
+ * solution of a binary problem. Each element gets a random 64-bit key, and
+ * the hash of a subset is the exclusive or of the keys of its elements, so
+ * inserting or removing an element takes a single exclusive or, and the hash
+ * of a neighbor solution is known in O(1) before the move is made. The keys
+ * are drawn from a fixed seed, so the hashes do not depend on the random
+ * number generator of the search.
+ */
+public class ZobristHash {
+
+	/**
+	 * the seed of the keys.
+	 */
+	private static final long SEED = 0x9E3779B97F4A7C15L;
+
+	/**
+	 * the random key of each element.
+	 */
+	private final long[] keys;
+
+	/**
+	 * the hash of the current subset.
+	 */
+	private long hash;
+
+	/**
+	 * Creates the hash of the empty subset, which is zero.
+	 *
+	 * @param domainSize
+	 *            the number of elements.
+	 */
+	public ZobristHash(int domainSize) {
+		keys = new long[domainSize];
+		Random rng = new Random(SEED);
+		for (int k = 0; k < domainSize; k++) {
+			keys[k] = rng.nextLong();
+		}
+	}
+
+	/**
+	 * Gives the number of elements.
+	 *
+	 * @return the size of the domain.
+	 */
+	public int getDomainSize() {
+		return keys.length;
+	}
+
+	/**
+	 * Gives the hash of the current subset.
+	 *
+	 * @return the hash.
+	 */
+	public long getHash() {
+		return hash;
+	}
+
+	/**
+	 * Inserts an element absent from the subset, or removes an element
+	 * present in it.
+	 *
+	 * @param elem
+	 *            the element.
+	 */
+	public void toggle(int elem) {
+		hash ^= keys[elem];
+	}
+
+	/**
+	 * Gives the key of an element, so that the hash of a neighbor subset can
+	 * be known before the move is made: the hash after inserting or removing
+	 * elements a and b is getHash() ^ getKey(a) ^ getKey(b).
+	 *
+	 * @param elem
+	 *            the element.
+	 * @return the key of the element.
+	 */
+	public long getKey(int elem) {
+		return keys[elem];
+	}
+
+	/**
+	 * Makes this the hash of the empty subset.
+	 */
+	public void clear() {
+		hash = 0;
+	}
+
+}
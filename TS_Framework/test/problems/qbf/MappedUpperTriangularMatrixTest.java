@@ -0,0 +1,112 @@
+package problems.qbf;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests of {@link MappedUpperTriangularMatrix} against the
+ * {@link UpperTriangularMatrix} it was written from. The payload is mapped
+ * in chunks of 8 coefficients, so that the rows and columns of the matrix
+ * cross many chunk boundaries.
+ */
+public class MappedUpperTriangularMatrixTest {
+
+	private static final int CHUNK_SHIFT = 3;
+
+	private static final double EPSILON = 1e-9;
+
+	@TempDir
+	Path dir;
+
+	private static UpperTriangularMatrix randomMatrix(int size, boolean integral, long seed) {
+		Random rng = new Random(seed);
+		UpperTriangularMatrix A = new UpperTriangularMatrix(size);
+		for (int i = 0; i < size; i++) {
+			for (int j = i; j < size; j++)
+				A.set(i, j, integral ? rng.nextInt(201) - 100 : rng.nextGaussian() * 10);
+		}
+		return A;
+	}
+
+	/**
+	 * Checks all the operations of a matrix against the ones of another.
+	 */
+	static void assertSameMatrix(CoefficientMatrix expected, CoefficientMatrix actual) {
+		int n = expected.getSize();
+		assertEquals(n, actual.getSize());
+		Random rng = new Random(n);
+		double[] x = new double[n];
+		for (int j = 0; j < n; j++)
+			x[j] = rng.nextBoolean() ? 1.0 : 0.0;
+
+		for (int i = 0; i < n; i++) {
+			for (int j = 0; j < n; j++) {
+				assertEquals(expected.get(i, j), actual.get(i, j), EPSILON, "get(" + i + ", " + j + ")");
+				if (i != j)
+					assertEquals(expected.coupling(i, j), actual.coupling(i, j), EPSILON, "coupling(" + i + ", " + j + ")");
+			}
+			assertEquals(expected.dotCoupling(i, x), actual.dotCoupling(i, x), EPSILON, "dotCoupling(" + i + ")");
+
+			double[] expectedTarget = x.clone(), actualTarget = x.clone();
+			expected.addCoupling(i, expectedTarget, -2.5);
+			actual.addCoupling(i, actualTarget, -2.5);
+			assertArrayEquals(expectedTarget, actualTarget, EPSILON, "addCoupling(" + i + ")");
+		}
+		assertEquals(expected.quadraticForm(x), actual.quadraticForm(x), EPSILON);
+	}
+
+	@Test
+	public void mappedInt32MatrixMatchesTheHeapMatrix() throws IOException {
+		CoefficientMatrix A = QBFInstance.readTextInput("instances/qbf020").getMatrix();
+		String filename = dir.resolve("qbf020" + QBFBinaryFormat.EXTENSION).toString();
+		QBFBinaryFormat.write(A, filename);
+
+		MappedUpperTriangularMatrix mapped = new MappedUpperTriangularMatrix(filename, CHUNK_SHIFT);
+		mapped.verifyChecksum();
+		assertSameMatrix(A, mapped);
+	}
+
+	@Test
+	public void mappedFloat64MatrixMatchesTheHeapMatrix() throws IOException {
+		for (int size : new int[] { 1, 7, 23 }) {
+			UpperTriangularMatrix A = randomMatrix(size, false, size);
+			String filename = dir.resolve("random" + size + QBFBinaryFormat.EXTENSION).toString();
+			QBFBinaryFormat.write(A, filename);
+
+			MappedUpperTriangularMatrix mapped = new MappedUpperTriangularMatrix(filename, CHUNK_SHIFT);
+			mapped.verifyChecksum();
+			assertSameMatrix(A, mapped);
+			assertSameMatrix(A, new MappedUpperTriangularMatrix(filename));
+		}
+	}
+
+	@Test
+	public void checksumRejectsACorruptedPayload() throws IOException {
+		UpperTriangularMatrix A = randomMatrix(20, true, 1);
+		Path file = dir.resolve("corrupted" + QBFBinaryFormat.EXTENSION);
+		QBFBinaryFormat.write(A, file.toString());
+
+		/* flips a byte of the last chunk of the payload */
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+			long pos = channel.size() - 3;
+			ByteBuffer b = ByteBuffer.allocate(1);
+			channel.read(b, pos);
+			b.put(0, (byte) (b.get(0) ^ 0x10));
+			b.rewind();
+			channel.write(b, pos);
+		}
+
+		MappedUpperTriangularMatrix mapped = new MappedUpperTriangularMatrix(file.toString(), CHUNK_SHIFT);
+		assertThrows(IOException.class, mapped::verifyChecksum);
+	}
+
+}
@@ -0,0 +1,166 @@
+package problems.qbf;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests of {@link QBFBinaryFormat}: the instances written must be read back
+ * as the same matrix, with int32 or float64 coefficients, and the files with
+ * a damaged header or payload must be rejected.
+ */
+public class QBFBinaryFormatTest {
+
+	@TempDir
+	Path dir;
+
+	private static void assertSameCoefficients(CoefficientMatrix expected, CoefficientMatrix actual) {
+		int n = expected.getSize();
+		assertEquals(n, actual.getSize());
+		for (int i = 0; i < n; i++) {
+			for (int j = 0; j < n; j++)
+				assertEquals(expected.get(i, j), actual.get(i, j), "(" + i + ", " + j + ")");
+		}
+	}
+
+	/**
+	 * Writes the binary instance of the text instance qbf020.
+	 */
+	private Path writeQbf020() throws IOException {
+		Path file = dir.resolve("qbf020" + QBFBinaryFormat.EXTENSION);
+		QBFBinaryFormat.write(QBFInstance.readTextInput("instances/qbf020").getMatrix(), file.toString());
+		return file;
+	}
+
+	/**
+	 * Overwrites the int32 of the header at a given offset.
+	 */
+	private static void patchInt(Path file, long offset, int value) throws IOException {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+			ByteBuffer b = ByteBuffer.allocate(Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN).putInt(0, value);
+			channel.write(b, offset);
+		}
+	}
+
+	private static void assertRejected(Path file) {
+		IOException e = assertThrows(IOException.class, () -> QBFBinaryFormat.read(file.toString()));
+		assertTrue(e.getMessage().startsWith(file.toString()), e.getMessage());
+	}
+
+	@Test
+	public void int32InstanceSurvivesTheRoundTrip() throws IOException {
+		CoefficientMatrix A = QBFInstance.readTextInput("instances/qbf020").getMatrix();
+		Path file = writeQbf020();
+
+		long n = A.getSize();
+		assertEquals(QBFBinaryFormat.HEADER_SIZE + n * (n + 1) / 2 * Integer.BYTES, Files.size(file));
+		assertTrue(QBFBinaryFormat.isBinary(file.toString()));
+		assertFalse(QBFBinaryFormat.isBinary("instances/qbf020"));
+		assertSameCoefficients(A, QBFBinaryFormat.read(file.toString()));
+		assertSameCoefficients(A, QBFInstance.readInput(file.toString()).getMatrix());
+	}
+
+	@Test
+	public void float64InstanceSurvivesTheRoundTrip() throws IOException {
+		Random rng = new Random(5);
+		int n = 17;
+		UpperTriangularMatrix A = new UpperTriangularMatrix(n);
+		for (int i = 0; i < n; i++) {
+			for (int j = i; j < n; j++)
+				A.set(i, j, rng.nextGaussian() * 100);
+		}
+		A.set(3, 9, 0.5);
+		Path file = dir.resolve("float" + QBFBinaryFormat.EXTENSION);
+		QBFBinaryFormat.write(A, file.toString());
+
+		assertEquals(QBFBinaryFormat.HEADER_SIZE + (long) n * (n + 1) / 2 * Double.BYTES, Files.size(file));
+		assertSameCoefficients(A, QBFBinaryFormat.read(file.toString()));
+	}
+
+	@Test
+	public void emptyInstanceSurvivesTheRoundTrip() throws IOException {
+		Path file = dir.resolve("empty" + QBFBinaryFormat.EXTENSION);
+		QBFBinaryFormat.write(new UpperTriangularMatrix(0), file.toString());
+		assertEquals(QBFBinaryFormat.HEADER_SIZE, Files.size(file));
+		assertEquals(0, QBFBinaryFormat.read(file.toString()).getSize());
+	}
+
+	@Test
+	public void badMagicIsRejected() throws IOException {
+		Path file = writeQbf020();
+		patchInt(file, 0, QBFSparseFormat.MAGIC);
+		assertFalse(QBFBinaryFormat.isBinary(file.toString()));
+		assertRejected(file);
+	}
+
+	@Test
+	public void badVersionIsRejected() throws IOException {
+		Path file = writeQbf020();
+		patchInt(file, 4, QBFBinaryFormat.VERSION + 1);
+		assertRejected(file);
+	}
+
+	@Test
+	public void badSizeIsRejected() throws IOException {
+		Path file = writeQbf020();
+		patchInt(file, 8, -1);
+		assertRejected(file);
+
+		/* a size which does not match the length of the payload */
+		patchInt(file, 8, 21);
+		assertRejected(file);
+	}
+
+	@Test
+	public void badTypeIsRejected() throws IOException {
+		Path file = writeQbf020();
+		patchInt(file, 12, 3);
+		assertRejected(file);
+
+		/* float64 coefficients would need twice the length of the payload */
+		patchInt(file, 12, QBFBinaryFormat.TYPE_FLOAT64);
+		assertRejected(file);
+	}
+
+	@Test
+	public void truncatedOrExtendedFileIsRejected() throws IOException {
+		Path file = writeQbf020();
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+			channel.truncate(channel.size() - Integer.BYTES);
+		}
+		assertRejected(file);
+
+		Path extended = writeQbf020();
+		Files.write(extended, new byte[Integer.BYTES], StandardOpenOption.APPEND);
+		assertRejected(extended);
+
+		Path headerOnly = dir.resolve("header" + QBFBinaryFormat.EXTENSION);
+		Files.write(headerOnly, new byte[QBFBinaryFormat.HEADER_SIZE - 1]);
+		assertRejected(headerOnly);
+	}
+
+	@Test
+	public void badChecksumIsRejected() throws IOException {
+		Path file = writeQbf020();
+		byte[] bytes = Files.readAllBytes(file);
+		bytes[QBFBinaryFormat.HEADER_SIZE + 101] ^= 0x01;
+		Files.write(file, bytes);
+		assertRejected(file);
+
+		/* the payload is intact, but not the checksum */
+		Path other = writeQbf020();
+		patchInt(other, 16, 0);
+		assertRejected(other);
+	}
+
+}
@@ -0,0 +1,153 @@
+package problems.qbf;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import solutions.Solution;
+import utils.IntSet;
+
+/**
+ * Tests of the exchange evaluation of the QBF evaluators, whose single and
+ * batch versions must agree with the evaluation of the exchanged solution in
+ * every case of membership of the elements in and out, including the
+ * shortcuts taken when in is already in the solution, when out is not in it
+ * and when in and out are the same element.
+ */
+public class QBFExchangeTest {
+
+	private static final double EPSILON = 1e-9;
+
+	private static Solution<Integer> solutionOf(int... elems) {
+		Solution<Integer> sol = new Solution<Integer>();
+		for (int elem : elems)
+			sol.add(elem);
+		return sol;
+	}
+
+	/**
+	 * Gives the variation of the objective function from the exchange, by
+	 * evaluating the whole exchanged solution with a separate evaluator.
+	 */
+	private static double exchangeByEvaluation(QBF oracle, Solution<Integer> sol, int in, int out) {
+		if (in == out)
+			return 0.0;
+		Solution<Integer> moved = new Solution<Integer>(sol);
+		if (!moved.contains(in))
+			moved.add(in);
+		moved.remove((Integer) out);
+		return oracle.evaluate(moved) - oracle.evaluate(new Solution<Integer>(sol));
+	}
+
+	/**
+	 * Checks the single and batch exchange evaluations of an evaluator against
+	 * the evaluation of the exchanged solutions, over all the pairs of
+	 * elements.
+	 */
+	private static void assertExchangesMatch(QBF evaluator, QBF oracle, Solution<Integer> sol) {
+		int n = evaluator.getDomainSize();
+		List<Integer> all = new ArrayList<Integer>();
+		for (int elem = 0; elem < n; elem++)
+			all.add(elem);
+
+		double[] deltas = new double[n * n];
+		evaluator.evaluateExchangeCosts(all, all, sol, deltas);
+		for (int in = 0; in < n; in++) {
+			for (int out = 0; out < n; out++) {
+				double expected = exchangeByEvaluation(oracle, sol, in, out);
+				String pair = "(" + in + ", " + out + ") on " + sol;
+				assertEquals(expected, evaluator.evaluateExchangeCost(in, out, sol), EPSILON, "single " + pair);
+				assertEquals(expected, deltas[in * n + out], EPSILON, "batch " + pair);
+			}
+		}
+	}
+
+	@Test
+	public void inverseExchangesMatchTheEvaluationInEveryMembershipCase() throws IOException {
+		QBFInstance instance = QBFInstance.readInput("instances/qbf020");
+
+		for (QBFInstance layout : new QBFInstance[] { instance.toDense(), instance.toSparse() }) {
+			for (boolean tracked : new boolean[] { false, true }) {
+				QBF_Inverse evaluator = new QBF_Inverse(layout);
+				QBF_Inverse oracle = new QBF_Inverse(layout);
+				Solution<Integer> sol = solutionOf(1, 2);
+				if (tracked)
+					evaluator.track(sol);
+
+				/* both in, both out, only in and only out of the solution */
+				assertEquals(exchangeByEvaluation(oracle, sol, 1, 2), evaluator.evaluateExchangeCost(1, 2, sol), EPSILON);
+				assertEquals(exchangeByEvaluation(oracle, sol, 3, 4), evaluator.evaluateExchangeCost(3, 4, sol), EPSILON);
+				assertEquals(exchangeByEvaluation(oracle, sol, 1, 3), evaluator.evaluateExchangeCost(1, 3, sol), EPSILON);
+				assertEquals(exchangeByEvaluation(oracle, sol, 3, 1), evaluator.evaluateExchangeCost(3, 1, sol), EPSILON);
+
+				assertExchangesMatch(evaluator, oracle, sol);
+				assertExchangesMatch(evaluator, oracle, solutionOf(0, 5, 7, 11, 12, 19));
+			}
+		}
+	}
+
+	@Test
+	public void inverseShortcutsNegateOnce() throws IOException {
+		QBFInstance instance = QBFInstance.readInput("instances/qbf020");
+		Solution<Integer> sol = solutionOf(1, 2);
+		QBF qbf = new QBF(instance);
+		QBF_Inverse inverse = new QBF_Inverse(instance);
+		BinaryQBF_Inverse binary = new BinaryQBF_Inverse(instance);
+		binary.reset();
+		binary.insert(1);
+		binary.insert(2);
+
+		/* in already in the solution: the exchange is the removal of out */
+		double removal = inverse.evaluateRemovalCost(1, sol);
+		assertTrue(removal != 0.0);
+		assertEquals(-qbf.evaluateRemovalCost(1, sol), removal, EPSILON);
+		assertEquals(removal, inverse.evaluateExchangeCost(2, 1, sol), EPSILON);
+		assertEquals(removal, binary.evaluateExchangeCost(2, 1), EPSILON);
+
+		/* out already out of the solution: the exchange is the insertion of in */
+		double insertion = inverse.evaluateInsertionCost(3, sol);
+		assertTrue(insertion != 0.0);
+		assertEquals(-qbf.evaluateInsertionCost(3, sol), insertion, EPSILON);
+		assertEquals(insertion, inverse.evaluateExchangeCost(3, 4, sol), EPSILON);
+		assertEquals(insertion, binary.evaluateExchangeCost(3, 4), EPSILON);
+	}
+
+	@Test
+	public void exchangesMatchTheEvaluationWithoutInversion() throws IOException {
+		QBFInstance instance = QBFInstance.readInput("instances/qbf020");
+		assertExchangesMatch(new QBF(instance), new QBF(instance), solutionOf(1, 2, 6, 13));
+	}
+
+	@Test
+	public void binaryExchangesMatchTheGenericEvaluator() throws IOException {
+		QBFInstance instance = QBFInstance.readInput("instances/qbf020");
+		int n = instance.getSize();
+		int[] elems = { 1, 2, 6, 13 };
+
+		BinaryQBF_Inverse binary = new BinaryQBF_Inverse(instance);
+		binary.reset();
+		for (int elem : elems)
+			binary.insert(elem);
+		QBF_Inverse generic = new QBF_Inverse(instance);
+		Solution<Integer> sol = solutionOf(elems);
+
+		IntSet outs = new IntSet(n);
+		for (int elem = 0; elem < n; elem++)
+			outs.add(elem);
+		double[] deltas = new double[n];
+		for (int in = 0; in < n; in++) {
+			binary.evaluateExchangeCosts(in, outs, deltas);
+			for (int out = 0; out < n; out++) {
+				double expected = generic.evaluateExchangeCost(in, out, sol);
+				String pair = "(" + in + ", " + out + ")";
+				assertEquals(expected, binary.evaluateExchangeCost(in, out), EPSILON, "single " + pair);
+				assertEquals(expected, deltas[out], EPSILON, "batch " + pair);
+			}
+		}
+	}
+
+}
@@ -0,0 +1,187 @@
+package problems.qbf;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests of {@link QBFSparseFormat}: the Matrix Market instances must be read
+ * as the dense matrix with the same QBF, the sparse binary instances written
+ * must be read back as the same matrix, and the files with a damaged header
+ * or payload must be rejected.
+ */
+public class QBFSparseFormatTest {
+
+	@TempDir
+	Path dir;
+
+	private Path writeText(String name, String... lines) throws IOException {
+		Path file = dir.resolve(name);
+		Files.write(file, Arrays.asList(lines));
+		return file;
+	}
+
+	/**
+	 * Writes the sparse binary instance of a random matrix.
+	 */
+	private Path writeBinary(String name, boolean integral) throws IOException {
+		Path file = dir.resolve(name + QBFSparseFormat.EXTENSION);
+		SparseCouplingMatrix A = SparseCouplingMatrix.fromMatrix(SparseCouplingMatrixTest.randomMatrix(29, 0.2, integral, 3));
+		QBFSparseFormat.write(A, file.toString());
+		return file;
+	}
+
+	private static void patchInt(Path file, long offset, int value) throws IOException {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+			channel.write(ByteBuffer.allocate(Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN).putInt(0, value), offset);
+		}
+	}
+
+	private static void assertRejected(Path file) {
+		IOException e = assertThrows(IOException.class, () -> QBFSparseFormat.read(file.toString()));
+		assertTrue(e.getMessage().startsWith(file.toString()), e.getMessage());
+	}
+
+	private static void assertMatrixMarketRejected(Path file) {
+		IOException e = assertThrows(IOException.class, () -> QBFSparseFormat.readMatrixMarket(file.toString()));
+		assertTrue(e.getMessage().startsWith(file.toString()), e.getMessage());
+	}
+
+	@Test
+	public void generalMatrixMarketIsReadAsIs() throws IOException {
+		Path file = writeText("general.mtx",
+				"%%MatrixMarket matrix coordinate real general",
+				"% a comment",
+				"3 3 4",
+				"1 1 -2",
+				"1 3 5",
+				"2 2 1.5",
+				"",
+				"3 2 -1");
+		assertTrue(QBFSparseFormat.isMatrixMarket(file.toString()));
+		assertFalse(QBFSparseFormat.isMatrixMarket("instances/qbf020"));
+
+		UpperTriangularMatrix A = new UpperTriangularMatrix(3);
+		A.set(0, 0, -2);
+		A.set(0, 2, 5);
+		A.set(1, 1, 1.5);
+		A.set(1, 2, -1);
+		MappedUpperTriangularMatrixTest.assertSameMatrix(A, QBFSparseFormat.readMatrixMarket(file.toString()));
+		MappedUpperTriangularMatrixTest.assertSameMatrix(A, QBFInstance.readInput(file.toString()).getMatrix());
+	}
+
+	@Test
+	public void symmetricMatrixMarketDoublesTheInteractions() throws IOException {
+		Path file = writeText("symmetric.mtx",
+				"%%MatrixMarket matrix coordinate integer symmetric",
+				"3 3 3",
+				"1 1 4",
+				"2 1 3",
+				"3 2 -1");
+
+		UpperTriangularMatrix A = new UpperTriangularMatrix(3);
+		A.set(0, 0, 4);
+		A.set(0, 1, 6);
+		A.set(1, 2, -2);
+		MappedUpperTriangularMatrixTest.assertSameMatrix(A, QBFSparseFormat.readMatrixMarket(file.toString()));
+	}
+
+	@Test
+	public void malformedMatrixMarketIsRejected() throws IOException {
+		assertMatrixMarketRejected(writeText("array.mtx", "%%MatrixMarket matrix array real general", "1 1", "1"));
+		assertMatrixMarketRejected(writeText("complex.mtx", "%%MatrixMarket matrix coordinate complex general", "1 1 0"));
+		assertMatrixMarketRejected(writeText("hermitian.mtx", "%%MatrixMarket matrix coordinate real hermitian", "1 1 0"));
+		assertMatrixMarketRejected(writeText("rectangular.mtx", "%%MatrixMarket matrix coordinate real general", "2 3 0"));
+		assertMatrixMarketRejected(writeText("short.mtx", "%%MatrixMarket matrix coordinate real general", "2 2 2", "1 2 1"));
+		assertMatrixMarketRejected(writeText("malformed.mtx", "%%MatrixMarket matrix coordinate real general", "2 2 1", "1 2"));
+		assertMatrixMarketRejected(writeText("outside.mtx", "%%MatrixMarket matrix coordinate real general", "2 2 1", "1 3 1"));
+	}
+
+	@Test
+	public void binaryInstanceSurvivesTheRoundTrip() throws IOException {
+		for (boolean integral : new boolean[] { true, false }) {
+			SparseCouplingMatrix A = SparseCouplingMatrix.fromMatrix(SparseCouplingMatrixTest.randomMatrix(29, 0.2, integral, 3));
+			Path file = writeBinary(integral ? "int32" : "float64", integral);
+
+			int width = integral ? Integer.BYTES : Double.BYTES;
+			long n = A.getSize(), nonZeros = A.getNonZeros();
+			assertEquals(QBFSparseFormat.HEADER_SIZE + (n + nonZeros) * width + (n + 1 + nonZeros) * Integer.BYTES, Files.size(file));
+			assertTrue(QBFSparseFormat.isBinary(file.toString()));
+			assertFalse(QBFBinaryFormat.isBinary(file.toString()));
+
+			SparseCouplingMatrix B = QBFSparseFormat.read(file.toString());
+			assertEquals(A.getNonZeros(), B.getNonZeros());
+			MappedUpperTriangularMatrixTest.assertSameMatrix(A, B);
+			MappedUpperTriangularMatrixTest.assertSameMatrix(A, QBFInstance.readInput(file.toString()).getMatrix());
+		}
+	}
+
+	@Test
+	public void textInstanceSurvivesTheConversion() throws IOException {
+		QBFInstance instance = QBFInstance.readTextInput("instances/qbf020");
+		Path file = dir.resolve("qbf020" + QBFSparseFormat.EXTENSION);
+		QBFSparseFormat.write((SparseCouplingMatrix) instance.toSparse().getMatrix(), file.toString());
+		MappedUpperTriangularMatrixTest.assertSameMatrix(instance.getMatrix(), QBFSparseFormat.read(file.toString()));
+	}
+
+	@Test
+	public void damagedHeaderIsRejected() throws IOException {
+		Path magic = writeBinary("magic", true);
+		patchInt(magic, 0, QBFBinaryFormat.MAGIC);
+		assertFalse(QBFSparseFormat.isBinary(magic.toString()));
+		assertRejected(magic);
+
+		Path version = writeBinary("version", true);
+		patchInt(version, 4, QBFSparseFormat.VERSION + 1);
+		assertRejected(version);
+
+		Path size = writeBinary("size", true);
+		patchInt(size, 8, -1);
+		assertRejected(size);
+		patchInt(size, 8, 30);
+		assertRejected(size);
+
+		Path type = writeBinary("type", true);
+		patchInt(type, 12, 0);
+		assertRejected(type);
+		patchInt(type, 12, QBFBinaryFormat.TYPE_FLOAT64);
+		assertRejected(type);
+
+		Path nonZeros = writeBinary("nonzeros", true);
+		patchInt(nonZeros, 20, -1);
+		assertRejected(nonZeros);
+	}
+
+	@Test
+	public void damagedPayloadIsRejected() throws IOException {
+		Path truncated = writeBinary("truncated", false);
+		try (FileChannel channel = FileChannel.open(truncated, StandardOpenOption.WRITE)) {
+			channel.truncate(channel.size() - 1);
+		}
+		assertRejected(truncated);
+
+		Path checksum = writeBinary("checksum", false);
+		byte[] bytes = Files.readAllBytes(checksum);
+		bytes[bytes.length - 2] ^= 0x01;
+		Files.write(checksum, bytes);
+		assertRejected(checksum);
+
+		/* a column out of place, under a valid checksum */
+		SparseCouplingMatrix A = SparseCouplingMatrix.fromMatrix(SparseCouplingMatrixTest.randomMatrix(29, 0.2, true, 3));
+		A.rowColumns()[0] = 0;
+		Path misplaced = dir.resolve("misplaced" + QBFSparseFormat.EXTENSION);
+		QBFSparseFormat.write(A, misplaced.toString());
+		assertRejected(misplaced);
+	}
+
+}
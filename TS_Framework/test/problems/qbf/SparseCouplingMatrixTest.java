@@ -0,0 +1,104 @@
+package problems.qbf;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests of {@link SparseCouplingMatrix} against the dense
+ * {@link UpperTriangularMatrix} holding the same coefficients.
+ */
+public class SparseCouplingMatrixTest {
+
+	/**
+	 * Gives a dense matrix in which about a given fraction of the
+	 * coefficients are nonzero.
+	 */
+	static UpperTriangularMatrix randomMatrix(int size, double density, boolean integral, long seed) {
+		Random rng = new Random(seed);
+		UpperTriangularMatrix A = new UpperTriangularMatrix(size);
+		for (int i = 0; i < size; i++) {
+			for (int j = i; j < size; j++) {
+				if (rng.nextDouble() < density)
+					A.set(i, j, integral ? rng.nextInt(21) - 10 : rng.nextGaussian());
+			}
+		}
+		return A;
+	}
+
+	private static void assertSameStructure(CoefficientMatrix dense, SparseCouplingMatrix sparse) {
+		int n = dense.getSize(), nonZeros = 0;
+		for (int i = 0; i < n; i++) {
+			int degree = 0;
+			double max = 0.0;
+			for (int j = 0; j < n; j++) {
+				if (j != i && dense.coupling(i, j) != 0) {
+					degree++;
+					max = Math.max(max, Math.abs(dense.coupling(i, j)));
+				}
+			}
+			nonZeros += degree;
+			assertEquals(degree, sparse.getDegree(i), "degree of " + i);
+			assertEquals(max, sparse.maxAbsCoupling(i), "largest coupling of " + i);
+		}
+		assertEquals(nonZeros / 2, sparse.getNonZeros());
+	}
+
+	@Test
+	public void sparseLayoutMatchesTheDenseMatrix() throws IOException {
+		CoefficientMatrix A = QBFInstance.readTextInput("instances/qbf040").getMatrix();
+		SparseCouplingMatrix S = SparseCouplingMatrix.fromMatrix(A);
+		MappedUpperTriangularMatrixTest.assertSameMatrix(A, S);
+		assertSameStructure(A, S);
+
+		for (double density : new double[] { 0.0, 0.05, 0.3 }) {
+			UpperTriangularMatrix B = randomMatrix(37, density, false, 11);
+			SparseCouplingMatrix T = SparseCouplingMatrix.fromMatrix(B);
+			MappedUpperTriangularMatrixTest.assertSameMatrix(B, T);
+			assertSameStructure(B, T);
+		}
+	}
+
+	@Test
+	public void elementsAreMovedAboveTheDiagonalAndSummed() {
+		/* (2,0) is moved to (0,2) and summed with it, (1,3) and (3,1) cancel out */
+		int[] rows = { 0, 2, 1, 3, 1, 0, 2 };
+		int[] columns = { 2, 0, 3, 1, 1, 0, 3 };
+		double[] values = { 1.5, 2.0, 4.0, -4.0, 3.0, -1.0, 7.0 };
+		SparseCouplingMatrix S = SparseCouplingMatrix.fromElements(4, rows, columns, values, rows.length);
+
+		UpperTriangularMatrix A = new UpperTriangularMatrix(4);
+		A.set(0, 0, -1.0);
+		A.set(1, 1, 3.0);
+		A.set(0, 2, 3.5);
+		A.set(2, 3, 7.0);
+		MappedUpperTriangularMatrixTest.assertSameMatrix(A, S);
+		assertEquals(2, S.getNonZeros());
+		assertEquals(0, S.getDegree(1));
+
+		/* only the first count elements are read */
+		SparseCouplingMatrix first = SparseCouplingMatrix.fromElements(4, rows, columns, values, 2);
+		assertEquals(3.5, first.get(0, 2));
+		assertEquals(1, first.getNonZeros());
+	}
+
+	@Test
+	public void misplacedElementsAreRejected() {
+		assertThrows(IllegalArgumentException.class, () -> SparseCouplingMatrix.fromElements(3, new int[] { 0 }, new int[] { 3 }, new double[] { 1.0 }, 1));
+		assertThrows(IllegalArgumentException.class, () -> SparseCouplingMatrix.fromElements(3, new int[] { -1 }, new int[] { 0 }, new double[] { 1.0 }, 1));
+
+		double[] diagonal = new double[3];
+		/* an element below the diagonal */
+		assertThrows(IllegalArgumentException.class, () -> new SparseCouplingMatrix(diagonal, new int[] { 0, 0, 1, 1 }, new int[] { 0 }, new double[] { 1.0 }));
+		/* columns out of order within a row */
+		assertThrows(IllegalArgumentException.class, () -> new SparseCouplingMatrix(diagonal, new int[] { 0, 2, 2, 2 }, new int[] { 2, 1 }, new double[] { 1.0, 1.0 }));
+		/* a row of negative length */
+		assertThrows(IllegalArgumentException.class, () -> new SparseCouplingMatrix(diagonal, new int[] { 0, 1, 0, 1 }, new int[] { 1 }, new double[] { 1.0 }));
+		/* more elements than the arrays hold */
+		assertThrows(IllegalArgumentException.class, () -> new SparseCouplingMatrix(diagonal, new int[] { 0, 1, 1, 2 }, new int[] { 1 }, new double[] { 1.0 }));
+	}
+
+}
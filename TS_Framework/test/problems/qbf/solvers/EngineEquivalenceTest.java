@@ -0,0 +1,144 @@
+package problems.qbf.solvers;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static utils.Utils.*;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import metaheuristics.tabusearch.ElitePool;
+import problems.qbf.QBFInstance;
+import solutions.Solution;
+
+/**
+ * Tests that {@link BinaryTS_QBFPT} visits the same solutions as
+ * {@link TS_QBFPT}, for every method and local search method, with each of
+ * the options of the solvers on and with all of them on. The sequences of
+ * best solutions published to the listeners, with their iterations, must
+ * be the same.
+ */
+public class EngineEquivalenceTest {
+
+	private static final int TENURE = 18;
+
+	private static final int ITERATIONS = 2000;
+
+	private static final int INTENSIFICATION_MAX_ITERATIONS = 100;
+
+	private static final int RECENCY_ELEMENTS = 10;
+
+	private static final long SEED = 7;
+
+	private static QBFInstance instance;
+
+	@BeforeAll
+	public static void readInstance() throws IOException {
+		instance = QBFInstance.readInput("instances/qbf100");
+	}
+
+	/**
+	 * The options turned on in a run.
+	 */
+	enum Options {
+		NONE(false, false, false, false),
+		FEASIBLE_NEIGHBORHOOD(true, false, false, false),
+		SHORT_LISTS(false, true, false, false),
+		REACTIVE(false, false, true, false),
+		ELITE(false, false, false, true),
+		ALL(true, true, true, true);
+
+		final boolean feasibleNeighborhood, shortLists, reactive, elite;
+
+		Options(boolean feasibleNeighborhood, boolean shortLists, boolean reactive, boolean elite) {
+			this.feasibleNeighborhood = feasibleNeighborhood;
+			this.shortLists = shortLists;
+			this.reactive = reactive;
+			this.elite = elite;
+		}
+	}
+
+	static Stream<Arguments> configurations() {
+		List<Arguments> configurations = new ArrayList<Arguments>();
+		for (int method : new int[] { DEFAULT_METHOD, INTENSIFICATION_METHOD, OSCILATION_METHOD }) {
+			for (int searchMethod : new int[] { FIRST_IMPROVEMENT, BEST_IMPROVEMENT }) {
+				for (Options options : Options.values())
+					configurations.add(Arguments.of(method, searchMethod, options));
+			}
+		}
+		return configurations.stream();
+	}
+
+	private static Logger silentLogger() {
+		Logger logger = Logger.getLogger(EngineEquivalenceTest.class.getName());
+		logger.setLevel(Level.OFF);
+		return logger;
+	}
+
+	private static ElitePool makeElitePool() {
+		int n = instance.getSize();
+		return new ElitePool(10, n, Math.max(2, n / 20));
+	}
+
+	/**
+	 * Describes a new best solution by its iteration, cost and elements.
+	 */
+	private static String describe(Solution<Integer> sol, int iteration) {
+		return iteration + ": " + sol.cost + " " + new TreeSet<Integer>(sol);
+	}
+
+	@ParameterizedTest(name = "method {0}, search method {1}, {2}")
+	@MethodSource("configurations")
+	public void enginesPublishTheSameBestSolutions(int method, int searchMethod, Options options) {
+		Logger logger = silentLogger();
+
+		TS_QBFPT ts = (method == INTENSIFICATION_METHOD)
+				? new TS_QBFPT(logger, TENURE, ITERATIONS, method, searchMethod, instance, INTENSIFICATION_MAX_ITERATIONS, RECENCY_ELEMENTS)
+				: new TS_QBFPT(logger, TENURE, ITERATIONS, method, searchMethod, instance);
+		List<String> generic = new ArrayList<String>();
+		ts.addBestSolutionListener((sol, iteration, elapsedTime) -> generic.add(describe(sol, iteration)));
+		ts.setVerbose(false);
+		ts.setSeed(SEED);
+		ts.setFeasibleNeighborhood(options.feasibleNeighborhood);
+		if (options.shortLists)
+			ts.setCandidateListSize(8);
+		if (options.reactive)
+			ts.setReactiveTenure(2, 50);
+		if (options.elite)
+			ts.setElitePool(makeElitePool(), 50);
+		Solution<Integer> genericSol = ts.solve();
+
+		BinaryTS_QBFPT bs = (method == INTENSIFICATION_METHOD)
+				? new BinaryTS_QBFPT(logger, TENURE, ITERATIONS, method, searchMethod, instance, INTENSIFICATION_MAX_ITERATIONS, RECENCY_ELEMENTS)
+				: new BinaryTS_QBFPT(logger, TENURE, ITERATIONS, method, searchMethod, instance);
+		List<String> binary = new ArrayList<String>();
+		bs.addBestSolutionListener((sol, iteration, elapsedTime) -> binary.add(describe(sol, iteration)));
+		bs.setVerbose(false);
+		bs.setSeed(SEED);
+		bs.setFeasibleNeighborhood(options.feasibleNeighborhood);
+		if (options.shortLists)
+			bs.setCandidateListSize(8);
+		if (options.reactive)
+			bs.setReactiveTenure(2, 50);
+		if (options.elite)
+			bs.setElitePool(makeElitePool(), 50);
+		Solution<Integer> binarySol = bs.solve();
+
+		assertFalse(generic.isEmpty());
+		assertEquals(generic, binary);
+		assertEquals(genericSol.cost, binarySol.cost, 1e-9);
+		assertEquals(new TreeSet<Integer>(genericSol), new TreeSet<Integer>(binarySol));
+		assertEquals(ts.getRevisitCount(), bs.getRevisitCount());
+		assertEquals(ts.getTenure(), bs.getTenure());
+	}
+
+}
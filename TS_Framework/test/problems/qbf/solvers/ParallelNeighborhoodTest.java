@@ -0,0 +1,84 @@
+package problems.qbf.solvers;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static utils.Utils.*;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import problems.qbf.QBFInstance;
+import solutions.Solution;
+
+/**
+ * Tests that the parallel best-improvement scan of {@link TS_QBFPT} chooses
+ * the same moves as the sequential one, so that a run with a fixed seed
+ * gives the same best solutions whether it uses a pool or not.
+ */
+public class ParallelNeighborhoodTest {
+
+	private static final int ITERATIONS = 1000;
+
+	private static final long SEED = 3;
+
+	private static QBFInstance instance;
+
+	private static ForkJoinPool pool;
+
+	@BeforeAll
+	public static void setUp() throws IOException {
+		instance = QBFInstance.readInput("instances/qbf200");
+		pool = new ForkJoinPool(4);
+	}
+
+	@AfterAll
+	public static void tearDown() {
+		pool.shutdown();
+	}
+
+	/**
+	 * Solves the instance, giving the best solutions published to the
+	 * listeners, with their iterations, followed by the best solution
+	 * returned.
+	 */
+	private static List<String> solve(int method, boolean feasibleNeighborhood, ForkJoinPool neighborhoodPool) {
+		Logger logger = Logger.getLogger(ParallelNeighborhoodTest.class.getName());
+		logger.setLevel(Level.OFF);
+		TS_QBFPT ts = (method == INTENSIFICATION_METHOD)
+				? new TS_QBFPT(logger, 18, ITERATIONS, method, BEST_IMPROVEMENT, instance, 100, 10)
+				: new TS_QBFPT(logger, 18, ITERATIONS, method, BEST_IMPROVEMENT, instance);
+		List<String> bestSols = new ArrayList<String>();
+		ts.addBestSolutionListener((sol, iteration, elapsedTime) -> bestSols.add(iteration + ": " + sol.cost + " " + new TreeSet<Integer>(sol)));
+		ts.setVerbose(false);
+		ts.setSeed(SEED);
+		ts.setFeasibleNeighborhood(feasibleNeighborhood);
+		ts.setNeighborhoodPool(neighborhoodPool);
+		Solution<Integer> sol = ts.solve();
+		bestSols.add(sol.cost + " " + new TreeSet<Integer>(sol));
+		return bestSols;
+	}
+
+	static IntStream methods() {
+		return IntStream.of(DEFAULT_METHOD, INTENSIFICATION_METHOD, OSCILATION_METHOD);
+	}
+
+	@ParameterizedTest(name = "method {0}")
+	@MethodSource("methods")
+	public void parallelScanGivesTheSequentialBestSolutions(int method) {
+		for (boolean feasibleNeighborhood : new boolean[] { false, true }) {
+			List<String> sequential = solve(method, feasibleNeighborhood, null);
+			assertEquals(sequential, solve(method, feasibleNeighborhood, pool), "feasible neighborhood " + feasibleNeighborhood);
+		}
+	}
+
+}
@@ -0,0 +1,113 @@
+package problems.qbf.solvers;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static utils.Utils.*;
+
+import java.io.IOException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.junit.jupiter.api.Test;
+
+import metaheuristics.tabusearch.ElitePool;
+import problems.qbf.QBFInstance;
+
+/**
+ * Tests of the path relinking of the solvers outside the oscillation method,
+ * in which the incumbent solution must be feasible again when the search
+ * resumes from the path, or the best solution is never updated again.
+ */
+public class PathRelinkingTest {
+
+	private static final int TENURE = 18;
+
+	private static final int ITERATIONS = 10000;
+
+	private static final int POOL_CAPACITY = 10;
+
+	private static final int PATH_RELINKING_INTERVAL = 50;
+
+	private static Logger silentLogger() {
+		Logger logger = Logger.getLogger(PathRelinkingTest.class.getName());
+		logger.setLevel(Level.OFF);
+		return logger;
+	}
+
+	private static ElitePool makeElitePool(QBFInstance instance) {
+		int n = instance.getSize();
+		return new ElitePool(POOL_CAPACITY, n, Math.max(2, n / 20));
+	}
+
+	/**
+	 * Solver recording the path relinkings and the improvements of the best
+	 * solution.
+	 */
+	private static class RecordingTS extends TS_QBFPT {
+
+		int relinkings, infeasibleResumes, firstRelinking = -1, lastImprovement = -1;
+
+		RecordingTS(QBFInstance instance) {
+			super(silentLogger(), TENURE, ITERATIONS, DEFAULT_METHOD, BEST_IMPROVEMENT, instance);
+			addBestSolutionListener((sol, iteration, elapsedTime) -> lastImprovement = iteration);
+		}
+
+		@Override
+		protected void relinkEliteSolutions() {
+			super.relinkEliteSolutions();
+			if (relinkings++ == 0)
+				firstRelinking = getCurrentIteration();
+			if (!is_feasible)
+				infeasibleResumes++;
+		}
+
+	}
+
+	/**
+	 * Binary solver recording the path relinkings and the improvements of the
+	 * best solution.
+	 */
+	private static class RecordingBinaryTS extends BinaryTS_QBFPT {
+
+		int relinkings, infeasibleResumes, firstRelinking = -1, lastImprovement = -1;
+
+		RecordingBinaryTS(QBFInstance instance) {
+			super(silentLogger(), TENURE, ITERATIONS, DEFAULT_METHOD, BEST_IMPROVEMENT, instance);
+			addBestSolutionListener((sol, iteration, elapsedTime) -> lastImprovement = iteration);
+		}
+
+		@Override
+		protected void relinkEliteSolutions() {
+			super.relinkEliteSolutions();
+			if (relinkings++ == 0)
+				firstRelinking = getCurrentIteration();
+			if (!is_feasible)
+				infeasibleResumes++;
+		}
+
+	}
+
+	@Test
+	public void defaultRunKeepsImprovingAfterPathRelinking() throws IOException {
+		QBFInstance instance = QBFInstance.readInput("instances/qbf040");
+
+		RecordingTS ts = new RecordingTS(instance);
+		ts.setVerbose(false);
+		ts.setSeed(0);
+		ts.setElitePool(makeElitePool(instance), PATH_RELINKING_INTERVAL);
+		double cost = ts.solve().cost;
+
+		assertTrue(ts.relinkings > 0);
+		assertEquals(0, ts.infeasibleResumes);
+		assertTrue(ts.lastImprovement > ts.firstRelinking, "last improvement " + ts.lastImprovement + ", first relinking " + ts.firstRelinking);
+
+		RecordingBinaryTS bs = new RecordingBinaryTS(instance);
+		bs.setVerbose(false);
+		bs.setSeed(0);
+		bs.setElitePool(makeElitePool(instance), PATH_RELINKING_INTERVAL);
+		assertEquals(cost, bs.solve().cost, 1e-9);
+		assertEquals(ts.relinkings, bs.relinkings);
+		assertEquals(0, bs.infeasibleResumes);
+		assertEquals(ts.lastImprovement, bs.lastImprovement);
+	}
+
+}
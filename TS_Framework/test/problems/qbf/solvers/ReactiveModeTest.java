@@ -0,0 +1,93 @@
+package problems.qbf.solvers;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static utils.Utils.*;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import problems.qbf.QBFInstance;
+
+/**
+ * Tests that turning the reactive mode on and then off leaves the solvers
+ * as they were before, in particular the memory of the visited solutions
+ * and whether the moves leading to visited solutions are avoided.
+ */
+public class ReactiveModeTest {
+
+	private static final int ITERATIONS = 2000;
+
+	private static QBFInstance instance;
+
+	@BeforeAll
+	public static void readInstance() throws IOException {
+		instance = QBFInstance.readInput("instances/qbf100");
+	}
+
+	private static Logger silentLogger() {
+		Logger logger = Logger.getLogger(ReactiveModeTest.class.getName());
+		logger.setLevel(Level.OFF);
+		return logger;
+	}
+
+	/**
+	 * Solves the instance with the generic solver, giving the best solutions
+	 * published to the listeners followed by the number of revisits.
+	 */
+	private static List<String> solve(int visitedMemory, boolean toggleReactive) {
+		TS_QBFPT ts = new TS_QBFPT(silentLogger(), 18, ITERATIONS, DEFAULT_METHOD, BEST_IMPROVEMENT, instance);
+		List<String> trace = new ArrayList<String>();
+		ts.addBestSolutionListener((sol, iteration, elapsedTime) -> trace.add(iteration + ": " + sol.cost));
+		ts.setVerbose(false);
+		ts.setVisitedMemory(visitedMemory);
+		if (toggleReactive) {
+			ts.setReactiveTenure(2, 50);
+			ts.setReactiveTenure(0, 0);
+		}
+		ts.solve();
+		trace.add("revisits " + ts.getRevisitCount() + ", tenure " + ts.getTenure());
+		return trace;
+	}
+
+	/**
+	 * Solves the instance with the binary solver, as {@link #solve(int, boolean)}.
+	 */
+	private static List<String> solveBinary(int visitedMemory, boolean toggleReactive) {
+		BinaryTS_QBFPT bs = new BinaryTS_QBFPT(silentLogger(), 18, ITERATIONS, DEFAULT_METHOD, BEST_IMPROVEMENT, instance);
+		List<String> trace = new ArrayList<String>();
+		bs.addBestSolutionListener((sol, iteration, elapsedTime) -> trace.add(iteration + ": " + sol.cost));
+		bs.setVerbose(false);
+		bs.setVisitedMemory(visitedMemory);
+		if (toggleReactive) {
+			bs.setReactiveTenure(2, 50);
+			bs.setReactiveTenure(0, 0);
+		}
+		bs.solve();
+		trace.add("revisits " + bs.getRevisitCount() + ", tenure " + bs.getTenure());
+		return trace;
+	}
+
+	@Test
+	public void turningTheReactiveModeOffDropsTheMemoryItTurnedOn() {
+		List<String> fresh = solve(0, false);
+		assertEquals(fresh, solve(0, true));
+		assertEquals(fresh, solveBinary(0, false));
+		assertEquals(fresh, solveBinary(0, true));
+	}
+
+	@Test
+	public void turningTheReactiveModeOffKeepsAMemoryTurnedOnBefore() {
+		List<String> visited = solve(1 << 16, false);
+		assertNotEquals("revisits 0, tenure 18", visited.get(visited.size() - 1));
+		assertEquals(visited, solve(1 << 16, true));
+		assertEquals(visited, solveBinary(1 << 16, false));
+		assertEquals(visited, solveBinary(1 << 16, true));
+	}
+
+}
@@ -0,0 +1,107 @@
+package solutions;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests of {@link BinarySolution}, whose removals move the last element of
+ * the list to the position of the removed one.
+ */
+public class BinarySolutionTest {
+
+	/**
+	 * Checks that the list, the positions and the membership mask of a
+	 * solution agree with each other.
+	 */
+	private static void assertConsistent(BinarySolution sol) {
+		for (int i = 0; i < sol.size(); i++) {
+			int elem = sol.get(i);
+			assertTrue(sol.contains(elem), "member " + elem);
+			assertEquals(i, sol.indexOf(elem), "position of " + elem);
+		}
+		for (int elem = 0; elem < sol.getDomainSize(); elem++) {
+			if (!sol.contains(elem))
+				assertEquals(-1, sol.indexOf(elem), "position of absent " + elem);
+		}
+		assertEquals(sol.size(), sol.getMembers().cardinality());
+	}
+
+	@Test
+	public void removalMovesTheLastElementToTheRemovedPosition() {
+		BinarySolution sol = new BinarySolution(10);
+		for (int elem : new int[] { 4, 7, 1, 9 })
+			sol.add(elem);
+
+		assertTrue(sol.remove((Integer) 7));
+
+		assertEquals(List.of(4, 9, 1), new ArrayList<Integer>(sol));
+		assertEquals(1, sol.indexOf(9));
+		assertFalse(sol.contains(7));
+		assertEquals(-1, sol.indexOf(7));
+		assertConsistent(sol);
+	}
+
+	@Test
+	public void removalOfTheLastElementKeepsTheOthers() {
+		BinarySolution sol = new BinarySolution(10);
+		for (int elem : new int[] { 4, 7, 1 })
+			sol.add(elem);
+
+		assertEquals(1, sol.remove(2));
+
+		assertEquals(List.of(4, 7), new ArrayList<Integer>(sol));
+		assertConsistent(sol);
+	}
+
+	@Test
+	public void duplicatesAndAbsentElementsAreIgnored() {
+		BinarySolution sol = new BinarySolution(5);
+		assertTrue(sol.add(3));
+		assertFalse(sol.add(3));
+		assertFalse(sol.remove((Integer) 2));
+		assertFalse(sol.contains((Object) 17));
+		assertEquals(-1, sol.indexOf(-1));
+		assertEquals(1, sol.size());
+		assertConsistent(sol);
+	}
+
+	@Test
+	public void randomOperationsMatchAListModel() {
+		int domainSize = 64;
+		Random rng = new Random(1);
+		BinarySolution sol = new BinarySolution(domainSize);
+		List<Integer> model = new ArrayList<Integer>();
+
+		for (int step = 0; step < 5000; step++) {
+			int elem = rng.nextInt(domainSize);
+			if (rng.nextBoolean()) {
+				boolean added = !model.contains(elem);
+				if (added)
+					model.add(elem);
+				assertEquals(added, sol.add(elem));
+			} else {
+				int index = model.indexOf(elem);
+				if (index != -1) {
+					int last = model.remove(model.size() - 1);
+					if (index < model.size())
+						model.set(index, last);
+				}
+				assertEquals(index != -1, sol.remove((Integer) elem));
+			}
+			assertEquals(model, new ArrayList<Integer>(sol));
+		}
+		assertConsistent(sol);
+
+		BinarySolution copy = new BinarySolution(sol);
+		sol.clear();
+		assertConsistent(sol);
+		assertEquals(model, new ArrayList<Integer>(copy));
+		assertConsistent(copy);
+	}
+
+}
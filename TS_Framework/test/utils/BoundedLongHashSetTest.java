@@ -0,0 +1,117 @@
+package utils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests of {@link BoundedLongHashSet}. With the smallest capacity the window
+ * of every key spans the whole table, so a full set evicts the key added or
+ * refreshed least recently of all.
+ */
+public class BoundedLongHashSetTest {
+
+	@Test
+	public void capacityIsRoundedUpToAPowerOfTwoOfAtLeastTheWindow() {
+		assertEquals(8, new BoundedLongHashSet(1).getCapacity());
+		assertEquals(8, new BoundedLongHashSet(8).getCapacity());
+		assertEquals(16, new BoundedLongHashSet(9).getCapacity());
+		assertEquals(1 << 16, new BoundedLongHashSet(1 << 16).getCapacity());
+	}
+
+	@Test
+	public void addingAKeyTwiceRefreshesIt() {
+		BoundedLongHashSet set = new BoundedLongHashSet(64);
+		assertFalse(set.contains(42));
+		assertTrue(set.add(42));
+		assertTrue(set.contains(42));
+		assertFalse(set.add(42));
+		assertTrue(set.add(-42));
+		assertEquals(2, set.size());
+		assertEquals(0, set.getEvictions());
+	}
+
+	@Test
+	public void zeroIsTheSameKeyAsItsStandIn() {
+		BoundedLongHashSet set = new BoundedLongHashSet(64);
+		assertFalse(set.contains(0));
+		assertTrue(set.add(0));
+		assertTrue(set.contains(0));
+		assertTrue(set.contains(Long.MIN_VALUE));
+		assertFalse(set.add(Long.MIN_VALUE));
+		assertEquals(1, set.size());
+	}
+
+	@Test
+	public void aFullWindowEvictsItsLeastRecentKey() {
+		BoundedLongHashSet set = new BoundedLongHashSet(8);
+		for (long key = 1; key <= 8; key++)
+			assertTrue(set.add(key));
+		assertEquals(8, set.size());
+		assertEquals(0, set.getEvictions());
+
+		/* key 1 is refreshed, so key 2 is now the least recent */
+		assertFalse(set.add(1));
+		assertTrue(set.add(9));
+		assertEquals(1, set.getEvictions());
+		assertFalse(set.contains(2));
+		assertTrue(set.contains(1));
+		assertTrue(set.contains(9));
+		assertEquals(8, set.size());
+
+		/* the evicted key is added again, in place of key 3 */
+		assertTrue(set.add(2));
+		assertEquals(2, set.getEvictions());
+		assertTrue(set.contains(2));
+		assertFalse(set.contains(3));
+		for (long key : new long[] { 1, 4, 5, 6, 7, 8, 9 })
+			assertTrue(set.contains(key), "key " + key);
+	}
+
+	@Test
+	public void randomOperationsMatchAnLruModel() {
+		BoundedLongHashSet set = new BoundedLongHashSet(8);
+		LinkedHashSet<Long> model = new LinkedHashSet<Long>();
+		Random rng = new Random(3);
+		long evictions = 0;
+
+		for (int step = 0; step < 10000; step++) {
+			long key = rng.nextInt(20) - 5;
+			boolean added = !model.remove(key);
+			if (added && model.size() == 8) {
+				Iterator<Long> oldest = model.iterator();
+				oldest.next();
+				oldest.remove();
+				evictions++;
+			}
+			model.add(key);
+
+			assertEquals(added, set.add(key), "step " + step);
+			assertEquals(evictions, set.getEvictions());
+			for (long other = -5; other < 15; other++)
+				assertEquals(model.contains(other), set.contains(other), "key " + other + " at step " + step);
+		}
+	}
+
+	@Test
+	public void clearForgetsTheKeysAndTheEvictions() {
+		BoundedLongHashSet set = new BoundedLongHashSet(8);
+		for (long key = 0; key < 12; key++)
+			set.add(key);
+		assertEquals(4, set.getEvictions());
+
+		set.clear();
+		assertEquals(0, set.size());
+		assertEquals(0, set.getEvictions());
+		assertEquals(8, set.getCapacity());
+		for (long key = 0; key < 12; key++)
+			assertFalse(set.contains(key));
+		assertTrue(set.add(11));
+		assertTrue(set.contains(11));
+	}
+
+}
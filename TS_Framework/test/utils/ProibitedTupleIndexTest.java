@@ -0,0 +1,121 @@
+package utils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests of {@link ProibitedTupleIndex} against a scan of the triples given by
+ * {@link Utils#getProibitedTuples(int)}, which is how the violated triples
+ * were found before the index.
+ */
+public class ProibitedTupleIndexTest {
+
+	private static boolean inSolution(boolean[] sol, int v) {
+		return v >= 0 && v < sol.length && sol[v];
+	}
+
+	private static boolean isViolatedByScan(ProibitedTuple p, boolean[] sol) {
+		return inSolution(sol, p.getX0()) && inSolution(sol, p.getX1()) && inSolution(sol, p.getX2());
+	}
+
+	/**
+	 * Checks the violated triples of the index against a scan of all the
+	 * triples.
+	 */
+	private static void assertMatchesScan(ProibitedTupleIndex index, List<ProibitedTuple> tuples, boolean[] sol) {
+		int violated = 0, first = -1;
+		for (int t = 0; t < tuples.size(); t++) {
+			boolean expected = isViolatedByScan(tuples.get(t), sol);
+			assertEquals(expected, index.isViolated(t), "triple " + t);
+			if (expected) {
+				violated++;
+				if (first == -1)
+					first = t;
+			}
+		}
+		assertEquals(violated, index.getViolatedCount());
+		assertEquals(first, index.getFirstViolated());
+		for (int i = 0; i < index.getViolatedCount(); i++)
+			assertTrue(isViolatedByScan(tuples.get(index.getViolated(i)), sol));
+	}
+
+	@Test
+	public void violationsMatchTheScanOfAllTriples() {
+		for (int size : new int[] { 20, 40, 100, 200 }) {
+			List<ProibitedTuple> tuples = Utils.getProibitedTuples(size);
+			ProibitedTupleIndex index = new ProibitedTupleIndex(tuples, size);
+			boolean[] sol = new boolean[size];
+			Random rng = new Random(size);
+
+			/* grow towards a dense solution, then keep toggling variables */
+			for (int step = 0; step < 20 * size; step++) {
+				int v = rng.nextInt(size);
+				boolean insert = (step < 2 * size) ? rng.nextInt(4) != 0 : rng.nextBoolean();
+				if (insert && !sol[v]) {
+					sol[v] = true;
+					index.insert(v);
+				} else if (!insert && sol[v]) {
+					sol[v] = false;
+					index.remove(v);
+				}
+				assertMatchesScan(index, tuples, sol);
+			}
+		}
+	}
+
+	@Test
+	public void insertionTestsMatchTheScan() {
+		int size = 100;
+		List<ProibitedTuple> tuples = Utils.getProibitedTuples(size);
+		ProibitedTupleIndex index = new ProibitedTupleIndex(tuples, size);
+		boolean[] sol = new boolean[size];
+		Random rng = new Random(7);
+		for (int v = 0; v < size; v++) {
+			if (rng.nextInt(3) == 0) {
+				sol[v] = true;
+				index.insert(v);
+			}
+		}
+
+		for (int v = 0; v < size; v++) {
+			if (sol[v])
+				continue;
+			sol[v] = true;
+			boolean completes = false;
+			for (ProibitedTuple p : tuples) {
+				boolean hasV = p.getX0() == v || p.getX1() == v || p.getX2() == v;
+				completes |= hasV && isViolatedByScan(p, sol);
+			}
+			sol[v] = false;
+			assertEquals(completes, index.completesTuple(v), "insertion of " + v);
+			assertEquals(completes, index.getCompletedTuple(v) != -1, "insertion of " + v);
+		}
+	}
+
+	@Test
+	public void resetRegistersTheSolutionFromScratch() {
+		int size = 40;
+		List<ProibitedTuple> tuples = Utils.getProibitedTuples(size);
+		ProibitedTupleIndex index = new ProibitedTupleIndex(tuples, size);
+		for (int v = 0; v < size; v++)
+			index.insert(v);
+
+		boolean[] sol = new boolean[size];
+		List<Integer> elems = new ArrayList<Integer>();
+		for (int v = 0; v < size; v += 2) {
+			sol[v] = true;
+			elems.add(v);
+		}
+		index.reset(elems);
+		assertMatchesScan(index, tuples, sol);
+
+		index.clear();
+		assertMatchesScan(index, tuples, new boolean[size]);
+	}
+
+}
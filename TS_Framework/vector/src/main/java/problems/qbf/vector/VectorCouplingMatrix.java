@@ -0,0 +1,110 @@
+package problems.qbf.vector;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+import problems.qbf.CoefficientMatrix;
+import problems.qbf.DenseCouplingMatrix;
+
+/**
+ * Dense layout of the coefficients of a QBF whose kernels use the Vector API,
+ * processing as many coefficients per instruction as the preferred SIMD
+ * width of the platform holds. The rows of the interaction coefficients are
+ * contiguous, so each kernel is a single pass of fused multiply-adds over a
+ * row, with a scalar loop for the last elements.
+ *
+ * It requires the jdk.incubator.vector module; it is usually obtained through
+ * {@link DenseCouplingMatrix#create(CoefficientMatrix)}, which falls back to
+ * the scalar kernels when the module is not available.
+ *
+ * @author ccavellucci, fusberti
+ */
+public class VectorCouplingMatrix extends DenseCouplingMatrix {
+
+	private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+	/**
+	 * Constructor for the VectorCouplingMatrix class, which copies the
+	 * coefficients of another matrix.
+	 *
+	 * @param A
+	 *            the matrix of coefficients.
+	 */
+	public VectorCouplingMatrix(CoefficientMatrix A) {
+		super(A);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see problems.qbf.DenseCouplingMatrix#dotCoupling(int, double[])
+	 */
+	@Override
+	public double dotCoupling(int i, double[] x) {
+		return dot(i * size, 0, x);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see problems.qbf.DenseCouplingMatrix#addCoupling(int, double[], double)
+	 */
+	@Override
+	public void addCoupling(int k, double[] target, double factor) {
+
+		int row = k * size;
+		int bound = SPECIES.loopBound(size);
+		DoubleVector f = DoubleVector.broadcast(SPECIES, factor);
+		int j = 0;
+		for (; j < bound; j += SPECIES.length()) {
+			DoubleVector c = DoubleVector.fromArray(SPECIES, couplings, row + j);
+			DoubleVector t = DoubleVector.fromArray(SPECIES, target, j);
+			c.fma(f, t).intoArray(target, j);
+		}
+		for (; j < size; j++) {
+			target[j] += factor * couplings[row + j];
+		}
+
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see problems.qbf.DenseCouplingMatrix#quadraticForm(double[])
+	 */
+	@Override
+	public double quadraticForm(double[] x) {
+
+		double sum = 0.0;
+		for (int i = 0; i < size; i++) {
+			if (x[i] == 0)
+				continue;
+			sum += x[i] * (x[i] * diagonal[i] + dot(i * size, i + 1, x));
+		}
+		return sum;
+
+	}
+
+	/**
+	 * Computes \sum{j>=from}{x_j*C_ij}, for the row of C starting at a given
+	 * position.
+	 */
+	private double dot(int row, int from, double[] x) {
+
+		int j = from;
+		int bound = from + SPECIES.loopBound(size - from);
+		DoubleVector acc = DoubleVector.zero(SPECIES);
+		for (; j < bound; j += SPECIES.length()) {
+			DoubleVector c = DoubleVector.fromArray(SPECIES, couplings, row + j);
+			DoubleVector v = DoubleVector.fromArray(SPECIES, x, j);
+			acc = c.fma(v, acc);
+		}
+		double sum = acc.reduceLanes(VectorOperators.ADD);
+		for (; j < size; j++) {
+			sum += x[j] * couplings[row + j];
+		}
+		return sum;
+
+	}
+
+}